@@ -0,0 +1,36 @@
+package com.comp2042;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code target/benchmarks.jar}.
+ * <p>
+ * Accepts the usual JMH command line (e.g. a benchmark regex or {@code -p fill=HALF})
+ * and always attaches the GC profiler, so every run reports allocation rate
+ * ({@code gc.alloc.rate.norm}, bytes per operation) next to throughput.
+ * </p>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() { }
+
+    /**
+     * Runs the selected benchmarks.
+     *
+     * @param args JMH command line arguments
+     * @throws CommandLineOptionException if the arguments cannot be parsed
+     * @throws RunnerException if a benchmark fails
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
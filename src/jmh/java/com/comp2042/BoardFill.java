@@ -0,0 +1,64 @@
+package com.comp2042;
+
+import java.util.Random;
+
+/**
+ * Realistic board fill levels used by the benchmarks.
+ * <p>
+ * Filled rows get one hole each at a fixed-seed random column so that results are
+ * reproducible and rows do not clear by accident. Optionally the bottom rows are
+ * left complete so that line-clearing benchmarks have something to remove.
+ * </p>
+ */
+public enum BoardFill {
+
+    /** A freshly started board. */
+    EMPTY(0),
+    /** The bottom half of the board is stacked. */
+    HALF(12),
+    /** Only the spawn area is still free. */
+    NEAR_TOP(21);
+
+    /** Number of complete rows left at the bottom when requested. */
+    static final int COMPLETE_ROWS = 2;
+
+    private final int filledRows;
+
+    BoardFill(int filledRows) {
+        this.filledRows = filledRows;
+    }
+
+    /**
+     * Creates a new board matrix with this fill level.
+     *
+     * @param rows             number of board rows
+     * @param columns          number of board columns
+     * @param completeBottom   whether the bottom filled rows should be complete
+     * @return the filled matrix
+     */
+    public int[][] create(int rows, int columns, boolean completeBottom) {
+        int[][] matrix = new int[rows][columns];
+        fill(matrix, completeBottom);
+        return matrix;
+    }
+
+    /**
+     * Overwrites the given board matrix in place with this fill level.
+     *
+     * @param matrix         the matrix to overwrite
+     * @param completeBottom whether the bottom filled rows should be complete
+     */
+    public void fill(int[][] matrix, boolean completeBottom) {
+        Random random = new Random(42);
+        int rows = matrix.length;
+        for (int i = 0; i < rows; i++) {
+            int[] row = matrix[i];
+            boolean filled = i >= rows - filledRows;
+            int hole = random.nextInt(row.length);
+            boolean complete = completeBottom && i >= rows - Math.min(COMPLETE_ROWS, filledRows);
+            for (int j = 0; j < row.length; j++) {
+                row[j] = filled && (complete || j != hole) ? i % 7 + 1 : 0;
+            }
+        }
+    }
+}
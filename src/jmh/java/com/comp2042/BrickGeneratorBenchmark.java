@@ -0,0 +1,51 @@
+package com.comp2042;
+
+import com.comp2042.logic.bricks.Brick;
+import com.comp2042.logic.bricks.BrickGenerator;
+import com.comp2042.logic.bricks.RandomBrickGenerator;
+import com.comp2042.logic.bricks.RandomizerPolicy;
+import com.comp2042.logic.bricks.SeededBrickGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks drawing bricks from the {@link RandomBrickGenerator} and from the
+ * {@link SeededBrickGenerator} with each {@link RandomizerPolicy}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BrickGeneratorBenchmark {
+
+    @Param({"random", "BAG_7", "UNIFORM", "HISTORY"})
+    public String generatorType;
+
+    private BrickGenerator generator;
+
+    @Setup
+    public void setUp() {
+        generator = "random".equals(generatorType)
+                ? new RandomBrickGenerator()
+                : new SeededBrickGenerator(42, RandomizerPolicy.valueOf(generatorType),
+                        SeededBrickGenerator.DEFAULT_PREVIEW_SIZE);
+    }
+
+    @Benchmark
+    public Brick getBrick() {
+        return generator.getBrick();
+    }
+}
@@ -0,0 +1,61 @@
+package com.comp2042;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures headless pieces per second through {@link GameEngine}.
+ * <p>
+ * Each operation places one piece: a random rotation and column followed by a
+ * hard drop. The game restarts whenever it tops out.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameEngineBenchmark {
+
+    @Param({"simple", "bit"})
+    public String board;
+
+    private GameEngine engine;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        engine = new GameEngine("bit".equals(board) ? new BitBoard(25, 10) : new SimpleBoard(25, 10));
+        engine.newGame();
+        random = new SplittableRandom(42);
+    }
+
+    @Benchmark
+    public boolean placePiece() {
+        if (engine.isGameOver()) {
+            engine.newGame();
+        }
+        for (int r = random.nextInt(4); r > 0; r--) {
+            engine.rotate();
+        }
+        int shift = random.nextInt(-5, 6);
+        for (int i = 0; i < Math.abs(shift); i++) {
+            if (shift < 0) engine.moveLeft(); else engine.moveRight();
+        }
+        engine.hardDrop();
+        return engine.isGameOver();
+    }
+}
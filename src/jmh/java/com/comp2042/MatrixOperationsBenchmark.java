@@ -0,0 +1,66 @@
+package com.comp2042;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the static helpers in {@link MatrixOperations} on a 25x10 board.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MatrixOperationsBenchmark {
+
+    /** A T brick in its spawn rotation. */
+    private static final int[][] BRICK = {
+            {0, 0, 0, 0},
+            {6, 6, 6, 0},
+            {0, 6, 0, 0},
+            {0, 0, 0, 0}
+    };
+
+    @Param
+    public BoardFill fill;
+
+    private int[][] matrix;
+    private int brickY;
+
+    @Setup
+    public void setUp() {
+        matrix = fill.create(25, 10, true);
+        // Place the brick just above the stack, where the game spends most of its checks
+        brickY = 0;
+        while (brickY < 21 && !MatrixOperations.intersect(matrix, BRICK, 3, brickY + 1)) {
+            brickY++;
+        }
+    }
+
+    @Benchmark
+    public boolean intersect() {
+        return MatrixOperations.intersect(matrix, BRICK, 3, brickY);
+    }
+
+    @Benchmark
+    public int[][] merge() {
+        return MatrixOperations.merge(matrix, BRICK, 3, brickY);
+    }
+
+    @Benchmark
+    public ClearRow checkRemoving() {
+        return MatrixOperations.checkRemoving(matrix);
+    }
+}
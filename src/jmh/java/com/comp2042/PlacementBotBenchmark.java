@@ -0,0 +1,60 @@
+package com.comp2042;
+
+import com.comp2042.bot.HeuristicWeights;
+import com.comp2042.bot.Placement;
+import com.comp2042.bot.PlacementBot;
+import com.comp2042.logic.bricks.SeededBrickGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long {@link PlacementBot} takes to choose one move.
+ * <p>
+ * The budget is set far above the expected search time so the full search is
+ * always measured rather than the depth 1 fallback.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PlacementBotBenchmark {
+
+    @Param({"1", "2"})
+    public int depth;
+
+    @Param({"EMPTY", "HALF"})
+    public BoardFill fill;
+
+    private SimpleBoard board;
+    private PlacementBot bot;
+
+    @Setup
+    public void setUp() {
+        board = new SimpleBoard(25, 10, new SeededBrickGenerator(42));
+        board.newGame();
+        fill.fill(board.getBoardMatrix(), false);
+        board.refreshColumnHeights();
+        bot = new PlacementBot(HeuristicWeights.DEFAULT, depth, true, TimeUnit.SECONDS.toNanos(1),
+                ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public Placement findBest() {
+        return bot.findBest(board);
+    }
+}
@@ -0,0 +1,67 @@
+package com.comp2042;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the per-input and per-lock operations of {@link SimpleBoard},
+ * plus the ghost piece search done by {@link GameController} after every input.
+ * Line clearing lives in {@link SimpleBoardClearBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SimpleBoardBenchmark {
+
+    @Param
+    public BoardFill fill;
+
+    private SimpleBoard board;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        board = new SimpleBoard(25, 10);
+        board.newGame();
+        // getBoardMatrix() is the live matrix, so the fill can be written straight into it
+        fill.fill(board.getBoardMatrix(), false);
+        board.refreshColumnHeights();
+    }
+
+    /**
+     * Moves the brick down, respawning it at the top once it lands so that the
+     * measured mix matches gravity ticks on a board of this height.
+     */
+    @Benchmark
+    public boolean moveBrickDown() {
+        if (board.moveBrickDown()) {
+            return true;
+        }
+        board.createNewBrick();
+        return false;
+    }
+
+    @Benchmark
+    public boolean rotateLeftBrick() {
+        return board.rotateLeftBrick();
+    }
+
+    @Benchmark
+    public int[][] ghostPiecePosition() {
+        return GameController.getGhostPiecePosition(board);
+    }
+}
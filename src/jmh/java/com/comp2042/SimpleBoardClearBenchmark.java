@@ -0,0 +1,63 @@
+package com.comp2042;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link SimpleBoard#clearRows()}.
+ * <p>
+ * Clearing mutates the board, so every invocation starts from a freshly filled
+ * board whose bottom rows are complete. The refill runs outside the measurement
+ * but still adds some timer overhead, so compare results against each other
+ * rather than reading them as absolute costs. Each refill marks the complete
+ * rows as just merged, as the lock before a clear would, so only they are
+ * scanned and only the stack moves down. The tall board has the same stack as
+ * the standard one, so both should clear at about the same speed.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SimpleBoardClearBenchmark {
+
+    @Param
+    public BoardFill fill;
+
+    @Param({"25", "1000"})
+    public int rows;
+
+    private SimpleBoard board;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        board = new SimpleBoard(rows, 10);
+        board.newGame();
+    }
+
+    @Setup(Level.Invocation)
+    public void refill() {
+        fill.fill(board.getBoardMatrix(), true);
+        board.refreshColumnHeights();
+        board.markMerged(rows - BoardFill.COMPLETE_ROWS, rows - 1);
+    }
+
+    @Benchmark
+    public ClearRow clearRows() {
+        return board.clearRows();
+    }
+}
@@ -0,0 +1,166 @@
+package com.comp2042;
+
+import javafx.scene.image.Image;
+import javafx.scene.text.Font;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Process-wide cache of the decoded images and fonts of the game.
+ * <p>
+ * Every asset is decoded once, on a small pool of daemon threads, and the
+ * resulting future is kept for the rest of the run, so a new game or a second
+ * controller never decodes anything again. {@link #preload()} starts all the
+ * assets the game view needs at once, so they decode in parallel while the
+ * window already shows a loading state.
+ * </p>
+ */
+public final class AssetCache {
+
+    /** Classpath locations of the digit images, indexed by digit. */
+    private static final String DIGIT_PATTERN = "/digits/%d.png";
+
+    /** Background of the whole window. */
+    public static final String WINDOW_BACKGROUND = "/space.jpg";
+
+    /** Background of the board frame. */
+    public static final String BOARD_BACKGROUND = "/background_image.png";
+
+    /** The "Let's go Digital" font used by the style sheet. */
+    public static final String DIGITAL_FONT = "/digital.ttf";
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+            Math.min(4, Runtime.getRuntime().availableProcessors()), runnable -> {
+                Thread thread = new Thread(runnable, "asset-loader");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private static final ConcurrentHashMap<String, CompletableFuture<Image>> IMAGES = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, CompletableFuture<Font>> FONTS = new ConcurrentHashMap<>();
+
+    private static volatile CompletableFuture<DigitAtlas> digitAtlas;
+
+    // Private constructor to prevent instantiation
+    private AssetCache() { }
+
+    /**
+     * Starts decoding every asset of the game view in parallel.
+     *
+     * @return a future completed once all of them are decoded, or failed if one could not be
+     */
+    public static CompletableFuture<Void> preload() {
+        List<CompletableFuture<?>> assets = new ArrayList<>();
+        assets.add(digitAtlasAsync());
+        assets.add(image(WINDOW_BACKGROUND));
+        assets.add(image(BOARD_BACKGROUND));
+        assets.add(font(DIGITAL_FONT));
+        return CompletableFuture.allOf(assets.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Returns the atlas of the ten digits, waiting for it to be built if it is not ready yet.
+     *
+     * @return the digit atlas
+     */
+    public static DigitAtlas digitAtlas() {
+        return digitAtlasAsync().join();
+    }
+
+    /**
+     * Returns the future of the digit atlas, which is packed on the loader pool as
+     * soon as the digit images are decoded.
+     *
+     * @return the future atlas
+     */
+    public static CompletableFuture<DigitAtlas> digitAtlasAsync() {
+        CompletableFuture<DigitAtlas> atlas = digitAtlas;
+        if (atlas == null) {
+            synchronized (AssetCache.class) {
+                atlas = digitAtlas;
+                if (atlas == null) {
+                    List<CompletableFuture<Image>> digits = new ArrayList<>();
+                    for (int digit = 0; digit <= 9; digit++) {
+                        digits.add(image(digitPath(digit)));
+                    }
+                    atlas = CompletableFuture.allOf(digits.toArray(new CompletableFuture<?>[0]))
+                            .thenApplyAsync(ignored -> DigitAtlas.build(
+                                    digits.stream().map(CompletableFuture::join).toArray(Image[]::new)), EXECUTOR);
+                    digitAtlas = atlas;
+                }
+            }
+        }
+        return atlas;
+    }
+
+    /**
+     * Returns an image, waiting for it to be decoded if it is not ready yet.
+     *
+     * @param path the classpath location of the image
+     * @return the image
+     */
+    public static Image getImage(String path) {
+        return image(path).join();
+    }
+
+    /**
+     * Returns the future of an image, starting to decode it on the first request.
+     *
+     * @param path the classpath location of the image
+     * @return the future image
+     */
+    public static CompletableFuture<Image> image(String path) {
+        return IMAGES.computeIfAbsent(path, key -> CompletableFuture.supplyAsync(() -> {
+            try (InputStream in = open(key)) {
+                Image image = new Image(in);
+                if (image.isError()) {
+                    throw new IllegalStateException("Could not decode " + key, image.getException());
+                }
+                return image;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, EXECUTOR));
+    }
+
+    /**
+     * Returns the future of a font, registering its family with JavaFX on the first
+     * request so style sheets can refer to it by name.
+     *
+     * @param path the classpath location of the TrueType font
+     * @return the future font
+     */
+    public static CompletableFuture<Font> font(String path) {
+        return FONTS.computeIfAbsent(path, key -> CompletableFuture.supplyAsync(() -> {
+            try (InputStream in = open(key)) {
+                Font font = Font.loadFont(in, 12);
+                if (font == null) {
+                    throw new IllegalStateException("Could not load font " + key);
+                }
+                return font;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, EXECUTOR));
+    }
+
+    private static String digitPath(int digit) {
+        return String.format(DIGIT_PATTERN, digit);
+    }
+
+    private static InputStream open(String path) throws IOException {
+        InputStream in = AssetCache.class.getResourceAsStream(path);
+        if (in == null) {
+            throw new IOException("Missing resource " + path);
+        }
+        return in;
+    }
+}
@@ -0,0 +1,453 @@
+package com.comp2042;
+
+import com.comp2042.logic.bricks.Brick;
+import com.comp2042.logic.bricks.BrickGenerator;
+import com.comp2042.logic.bricks.RandomBrickGenerator;
+import com.comp2042.logic.bricks.RotationTable;
+
+import java.util.Arrays;
+
+/**
+ * A {@link Board} implementation that stores the playfield as one bitmask per row.
+ * <p>
+ * Each row is a {@code long} whose bits mark occupied columns, padded with
+ * permanently set "wall" bits on both sides so that out-of-bounds checks fall out
+ * of the same AND operation as collision checks. Brick colours are kept in a
+ * separate side matrix, which is also what {@link #getBoardMatrix()} returns.
+ * Brick masks come straight from the shared {@link RotationTable}, so moving or
+ * rotating a brick costs a handful of AND operations per brick row and never
+ * allocates.
+ * </p>
+ * <p>
+ * Behaves exactly like {@link SimpleBoard}: same spawn position, same
+ * {@link ViewData}, {@link ClearRow} and hold semantics, and the same
+ * copy-on-write colour rows once a {@link #snapshot()} has been taken. The row
+ * masks are not part of a snapshot; they are rebuilt from the colours on restore.
+ * </p>
+ */
+public class BitBoard implements Board {
+
+    /** Number of wall bits kept on each side of a row. Bricks are at most 4 wide. */
+    private static final int WALL = 4;
+
+    /** Largest number of columns that fit in a row mask together with both walls. */
+    public static final int MAX_COLUMNS = Long.SIZE - 2 * WALL;
+
+    private final int rows;
+    private final int columns;
+    private final long emptyRow;
+    private final long fullRow;
+    private final BrickGenerator brickGenerator;
+    private final BrickRotator brickRotator;
+    private final Score score;
+    private long[] rowMasks;
+    private int[][] colorMatrix;
+    private RotationTable rotations;
+    private int rotation;
+    private int currentX;
+    private int currentY;
+    private Brick nextBrick;
+    private Brick heldBrick;
+    private Brick currentBrick;
+    private boolean holdUsed;
+    private int mergedTop = -1;
+    private int mergedBottom = -1;
+    private ColumnHeights columnHeights;
+    private final BoardChanges changes;
+    private final long[] ownedRows;
+    private boolean shared;
+
+    /**
+     * Constructs a BitBoard with the same argument order as {@link SimpleBoard}.
+     *
+     * @param width  the number of rows of the board
+     * @param height the number of columns of the board
+     * @throws IllegalArgumentException if the board is wider than {@link #MAX_COLUMNS}
+     */
+    public BitBoard(int width, int height) {
+        this(width, height, new RandomBrickGenerator());
+    }
+
+    /**
+     * Constructs a BitBoard that draws its bricks from the given generator.
+     *
+     * @param width          the number of rows of the board
+     * @param height         the number of columns of the board
+     * @param brickGenerator the source of new bricks
+     * @throws IllegalArgumentException if the board is wider than {@link #MAX_COLUMNS}
+     */
+    public BitBoard(int width, int height, BrickGenerator brickGenerator) {
+        if (height > MAX_COLUMNS) {
+            throw new IllegalArgumentException("BitBoard supports at most " + MAX_COLUMNS + " columns");
+        }
+        this.rows = width;
+        this.columns = height;
+        long wallMask = ((1L << WALL) - 1) | (-1L << (WALL + columns));
+        this.emptyRow = wallMask;
+        this.fullRow = -1L;
+        this.brickGenerator = brickGenerator;
+        this.brickRotator = new BrickRotator();
+        this.score = new Score();
+        this.changes = new BoardChanges(rows);
+        this.ownedRows = new long[(rows + Long.SIZE - 1) / Long.SIZE];
+        clearBoard();
+    }
+
+    private void clearBoard() {
+        rowMasks = new long[rows];
+        Arrays.fill(rowMasks, emptyRow);
+        colorMatrix = new int[rows][columns];
+        shared = false;
+        columnHeights = new ColumnHeights(rows, columns);
+        changes.markAll();
+    }
+
+    /**
+     * Checks whether a rotation of the current brick collides with the walls, the
+     * floor or any placed brick when its top-left corner is at {@code (x, y)}.
+     *
+     * @param rotation the rotation index in the current brick's table
+     * @param x        the column of the brick's top-left corner
+     * @param y        the row of the brick's top-left corner
+     * @return true if there is a collision; false otherwise
+     */
+    private boolean collides(int rotation, int x, int y) {
+        int shift = x + WALL;
+        for (int i = rotations.getMinY(rotation); i <= rotations.getMaxY(rotation); i++) {
+            long mask = rotations.getRowMask(rotation, i);
+            int row = y + i;
+            if (shift < 0 || row < 0 || row >= rows) {
+                return true;
+            }
+            if (((mask << shift) & rowMasks[row]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean moveBrickDown() {
+        if (collides(rotation, currentX, currentY + 1)) {
+            return false;
+        }
+        currentY++;
+        return true;
+    }
+
+    @Override
+    public int dropBrick() {
+        int distance = getDropDistance();
+        currentY += distance;
+        return distance;
+    }
+
+    @Override
+    public boolean moveBrickLeft() {
+        if (collides(rotation, currentX - 1, currentY)) {
+            return false;
+        }
+        currentX--;
+        return true;
+    }
+
+    @Override
+    public boolean moveBrickRight() {
+        if (collides(rotation, currentX + 1, currentY)) {
+            return false;
+        }
+        currentX++;
+        return true;
+    }
+
+    @Override
+    public boolean rotateLeftBrick() {
+        int nextRotation = brickRotator.getNextRotation();
+        if (collides(nextRotation, currentX, currentY)) {
+            return false;
+        }
+        brickRotator.setCurrentShape(nextRotation);
+        rotation = nextRotation;
+        return true;
+    }
+
+    /**
+     * Places the current brick at the spawn position, centred horizontally.
+     */
+    private void spawnCurrentBrick() {
+        brickRotator.setBrick(currentBrick);
+        rotations = brickRotator.getRotations();
+        rotation = 0;
+        currentX = (columns - rotations.getColumnCount()) / 2;
+        currentY = 0;
+    }
+
+    @Override
+    public boolean createNewBrick() {
+        this.currentBrick = nextBrick != null ? nextBrick : brickGenerator.getBrick();
+        nextBrick = brickGenerator.getBrick();
+        holdUsed = false;
+        spawnCurrentBrick();
+        return collides(rotation, currentX, currentY);
+    }
+
+    @Override
+    public int[][] getBoardMatrix() {
+        return colorMatrix;
+    }
+
+    @Override
+    public ViewData getViewData() {
+        return new ViewData(rotations.getShape(rotation), currentX, currentY,
+                brickGenerator.getNextBrick().getRotations().getShape(0));
+    }
+
+    @Override
+    public int getDropDistance() {
+        int distance = columnHeights.dropDistance(rotations, rotation, currentX, currentY);
+        if (distance >= 0) {
+            return distance;
+        }
+        distance = 0;
+        while (!collides(rotation, currentX, currentY + distance + 1)) {
+            distance++;
+        }
+        return distance;
+    }
+
+    @Override
+    public void mergeBrickToBackground() {
+        int shift = currentX + WALL;
+        for (int i = rotations.getMinY(rotation); i <= rotations.getMaxY(rotation); i++) {
+            rowMasks[currentY + i] |= rotations.getRowMask(rotation, i) << shift;
+            ownRow(currentY + i);
+        }
+        int color = rotations.getColorCode();
+        for (int n = 0; n < rotations.getCellCount(rotation); n++) {
+            colorMatrix[currentY + rotations.getCellY(rotation, n)][currentX + rotations.getCellX(rotation, n)] = color;
+        }
+        columnHeights.onMerge(rotations, rotation, currentX, currentY);
+        mergedTop = currentY + rotations.getMinY(rotation);
+        mergedBottom = currentY + rotations.getMaxY(rotation);
+        changes.markRows(mergedTop, mergedBottom);
+    }
+
+    /**
+     * Removes full rows by compacting the remaining row masks and colour rows
+     * towards the bottom in place, then returns the same result {@link SimpleBoard} would.
+     * Only the rows touched by the last merged brick are checked for completeness.
+     *
+     * @return a {@link ClearRow} object containing removed row count, cleared rows and updated matrix
+     */
+    @Override
+    public ClearRow clearRows() {
+        int top = mergedTop >= 0 ? mergedTop : 0;
+        int bottom = mergedTop >= 0 ? mergedBottom : rows - 1;
+        mergedTop = -1;
+        mergedBottom = -1;
+
+        int clearedMask = 0;
+        int cleared = 0;
+        int lowest = -1;
+        for (int row = top; row <= bottom; row++) {
+            if (rowMasks[row] == fullRow) {
+                // Full rows are zeroed and reused, so they must not be shared with a snapshot
+                ownRow(row);
+                if (row - top < Integer.SIZE) {
+                    clearedMask |= 1 << (row - top);
+                }
+                cleared++;
+                lowest = row;
+            }
+        }
+        if (cleared == 0) {
+            return new ClearRow(0, colorMatrix, 0, 0, top);
+        }
+
+        // Only the rows between the old stack top and the lowest cleared row move down;
+        // the empty rows above the stack are left alone, however tall the board is
+        int stackTop = columnHeights.getStackTop();
+        changes.markRows(stackTop, lowest);
+
+        int write = lowest;
+        for (int read = lowest; read >= stackTop; read--) {
+            if (rowMasks[read] == fullRow) {
+                continue;
+            }
+            if (write != read) {
+                rowMasks[write] = rowMasks[read];
+                int[] colors = colorMatrix[write];
+                colorMatrix[write] = colorMatrix[read];
+                colorMatrix[read] = colors;
+            }
+            write--;
+        }
+        for (int row = stackTop; row <= write; row++) {
+            rowMasks[row] = emptyRow;
+            Arrays.fill(colorMatrix[row], 0);
+        }
+
+        if (shared) {
+            // The rows that moved may now sit in slots owned by other arrays
+            for (int row = stackTop; row <= lowest; row++) {
+                ownedRows[row >>> 6] &= ~(1L << row);
+            }
+        }
+        score.addLine(cleared);
+        columnHeights.onClear(colorMatrix);
+        return new ClearRow(cleared, colorMatrix, MatrixOperations.scoreBonus(cleared), clearedMask, top);
+    }
+
+    @Override
+    public boolean addGarbage(int rows, int hole) {
+        rows = Math.min(rows, this.rows);
+        boolean toppedOut = false;
+        for (int row = 0; row < rows; row++) {
+            toppedOut |= rowMasks[row] != emptyRow;
+        }
+        long garbageRow = fullRow & ~(1L << (hole + WALL));
+        int[][] pushedOff = new int[rows][];
+        System.arraycopy(colorMatrix, 0, pushedOff, 0, rows);
+        System.arraycopy(colorMatrix, rows, colorMatrix, 0, this.rows - rows);
+        System.arraycopy(rowMasks, rows, rowMasks, 0, this.rows - rows);
+        for (int i = 0; i < rows; i++) {
+            int row = this.rows - rows + i;
+            // Reuse the pushed off arrays unless a snapshot may still hold them
+            int[] colors = shared ? new int[columns] : pushedOff[i];
+            Arrays.fill(colors, GARBAGE_COLOR);
+            colors[hole] = 0;
+            colorMatrix[row] = colors;
+            rowMasks[row] = garbageRow;
+        }
+        Arrays.fill(ownedRows, 0);
+        columnHeights.rebuild(colorMatrix);
+        changes.markAll();
+        return toppedOut;
+    }
+
+    @Override
+    public BoardChanges getChanges() {
+        return changes;
+    }
+
+    @Override
+    public Score getScore() {
+        return score;
+    }
+
+    @Override
+    public void newGame() {
+        clearBoard();
+        mergedTop = -1;
+        mergedBottom = -1;
+        score.reset();
+        heldBrick = null;
+        holdUsed = false;
+        createNewBrick();
+    }
+
+    @Override
+    public BoardSnapshot snapshot() {
+        shared = true;
+        Arrays.fill(ownedRows, 0);
+        return new BoardSnapshot(colorMatrix.clone(), currentBrick, rotation, currentX, currentY,
+                nextBrick, heldBrick, holdUsed, score, brickGenerator.mark());
+    }
+
+    @Override
+    public void restore(BoardSnapshot snapshot) {
+        colorMatrix = snapshot.getRows().clone();
+        shared = true;
+        Arrays.fill(ownedRows, 0);
+        for (int row = 0; row < rows; row++) {
+            long mask = emptyRow;
+            int[] colors = colorMatrix[row];
+            for (int column = 0; column < columns; column++) {
+                if (colors[column] != 0) {
+                    mask |= 1L << (column + WALL);
+                }
+            }
+            rowMasks[row] = mask;
+        }
+        currentBrick = snapshot.getCurrentBrick();
+        brickRotator.setBrick(currentBrick);
+        brickRotator.setCurrentShape(snapshot.getRotation());
+        rotations = brickRotator.getRotations();
+        rotation = snapshot.getRotation();
+        currentX = snapshot.getX();
+        currentY = snapshot.getY();
+        nextBrick = snapshot.getNextBrick();
+        heldBrick = snapshot.getHeldBrick();
+        holdUsed = snapshot.isHoldUsed();
+        score.set(snapshot.getScore(), snapshot.getLines());
+        if (snapshot.getGeneratorMark() >= 0) {
+            brickGenerator.rewind(snapshot.getGeneratorMark());
+        }
+        mergedTop = -1;
+        mergedBottom = -1;
+        columnHeights.rebuild(colorMatrix);
+        changes.markAll();
+    }
+
+    /**
+     * Copies the colour row at {@code row} if a snapshot may share it, so it can be written to.
+     */
+    private void ownRow(int row) {
+        long bit = 1L << row;
+        if (shared && (ownedRows[row >>> 6] & bit) == 0) {
+            colorMatrix[row] = colorMatrix[row].clone();
+            ownedRows[row >>> 6] |= bit;
+        }
+    }
+
+    @Override
+    public NextShapeInfo getNextShape() {
+        if (nextBrick == null) return null;
+        return new NextShapeInfo(nextBrick.getRotations().getShape(0), 0);
+    }
+
+    @Override
+    public HoldShapeInfo holdBrick() {
+        if (holdUsed || currentBrick == null) {
+            return null;
+        }
+
+        Brick temp = heldBrick;
+        heldBrick = currentBrick;
+        currentBrick = temp;
+
+        if (currentBrick != null) {
+            spawnCurrentBrick();
+        } else {
+            createNewBrick();
+        }
+        // The swapped-in piece may be held again, matching SimpleBoard
+        holdUsed = false;
+
+        return getHeldShape();
+    }
+
+    @Override
+    public HoldShapeInfo getHeldShape() {
+        if (heldBrick == null) {
+            return null;
+        }
+        RotationTable heldRotations = heldBrick.getRotations();
+        return new HoldShapeInfo(heldRotations.getShape(0), heldRotations.getColorCode());
+    }
+
+    @Override
+    public Brick getCurrentBrick() {
+        return currentBrick;
+    }
+
+    @Override
+    public Brick getNextBrick() {
+        return nextBrick;
+    }
+
+    @Override
+    public Brick getHeldBrick() {
+        return heldBrick;
+    }
+}
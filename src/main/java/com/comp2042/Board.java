@@ -1,5 +1,7 @@
 package com.comp2042;
 
+import com.comp2042.logic.bricks.Brick;
+
 /**
  * Represents the game board for the brick-dropping game.
  * This interface defines all actions related to brick movement,
@@ -7,6 +9,9 @@ package com.comp2042;
  */
 public interface Board {
 
+    /** Colour code of the cells of garbage rows. */
+    int GARBAGE_COLOR = 8;
+
     /**
      * Moves the current brick one row down.
      *
@@ -14,6 +19,14 @@ public interface Board {
      */
     boolean moveBrickDown();
 
+    /**
+     * Moves the current brick straight down to where it lands, in one step.
+     * Equivalent to calling {@link #moveBrickDown()} until it fails.
+     *
+     * @return the number of rows the brick dropped
+     */
+    int dropBrick();
+
     /**
      * Moves the current brick one column to the left.
      *
@@ -56,6 +69,14 @@ public interface Board {
      */
     ViewData getViewData();
 
+    /**
+     * Returns how many rows the current falling brick can still drop before it lands.
+     * Backed by a per-column height cache, so it is cheap enough to call after every input.
+     *
+     * @return the drop distance in rows, 0 if the brick is resting on something
+     */
+    int getDropDistance();
+
     /**
      * Merges the current falling brick into the board's background matrix.
      */
@@ -68,6 +89,26 @@ public interface Board {
      */
     ClearRow clearRows();
 
+    /**
+     * Pushes the stack up and fills the bottom rows with garbage: full rows of
+     * {@link #GARBAGE_COLOR} cells with one empty cell in the same column, as sent
+     * by an opponent in versus mode. Call it while no brick is falling, between a
+     * merge and the next spawn.
+     *
+     * @param rows the number of garbage rows
+     * @param hole the column left empty in every garbage row
+     * @return true if occupied cells were pushed off the top of the board
+     */
+    boolean addGarbage(int rows, int hole);
+
+    /**
+     * Returns the rows changed since the view last drew the board.
+     * The view clears the set once it has applied it.
+     *
+     * @return the live change set of this board
+     */
+    BoardChanges getChanges();
+
     /**
      * Returns the current score handler.
      *
@@ -80,6 +121,25 @@ public interface Board {
      */
     void newGame();
 
+    /**
+     * Takes an immutable snapshot of the board, sharing its rows: the board copies
+     * a row before it next writes to it, so taking a snapshot after every brick
+     * costs an array of row references, O(rows), plus the rows the bricks touch.
+     *
+     * @return the snapshot
+     */
+    BoardSnapshot snapshot();
+
+    /**
+     * Returns the board to a snapshot taken from a board of the same size, and the
+     * brick generator to the matching position if it can rewind. Takes
+     * O(rows * columns): whatever the board derives from its cells, such as
+     * the column heights, is rebuilt, and the whole board is marked as changed.
+     *
+     * @param snapshot the snapshot to restore
+     */
+    void restore(BoardSnapshot snapshot);
+
     /**
      * Returns information about the next shape to be spawned.
      *
@@ -101,4 +161,26 @@ public interface Board {
      * @return HoldShapeInfo of the held brick, or null if no brick is held
      */
     HoldShapeInfo getHeldShape();
+
+    /**
+     * Returns the falling brick. Bricks are stateless and shared, so the result
+     * only identifies the brick type and its rotation table.
+     *
+     * @return the current brick, or null before the first spawn
+     */
+    Brick getCurrentBrick();
+
+    /**
+     * Returns the brick that will spawn after the current one locks.
+     *
+     * @return the next brick, or null before the first spawn
+     */
+    Brick getNextBrick();
+
+    /**
+     * Returns the held brick.
+     *
+     * @return the held brick, or null if no brick is held
+     */
+    Brick getHeldBrick();
 }
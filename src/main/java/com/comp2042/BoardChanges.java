@@ -0,0 +1,123 @@
+package com.comp2042;
+
+import java.util.Arrays;
+
+/**
+ * The set of board rows whose contents changed since the view last drew them.
+ * <p>
+ * A {@link Board} marks the rows a merged brick touched and the rows that moved
+ * when rows were cleared, from the top of the stack down to the lowest cleared
+ * row. A new game or rising garbage asks for a full repaint instead, since
+ * every row moves.
+ * The view reads the set, redraws only the marked rows and then calls
+ * {@link #clear()}.
+ * </p>
+ */
+public final class BoardChanges {
+
+    private final long[] dirtyRows;
+    private final int rowCount;
+    private boolean fullRepaint = true;
+
+    /**
+     * Creates a change set for a board with the given number of rows.
+     * A new change set starts out asking for a full repaint.
+     *
+     * @param rowCount the number of board rows
+     */
+    public BoardChanges(int rowCount) {
+        this.rowCount = rowCount;
+        this.dirtyRows = new long[(rowCount + Long.SIZE - 1) / Long.SIZE];
+    }
+
+    /**
+     * Marks one row as changed.
+     *
+     * @param row the board row
+     */
+    void markRow(int row) {
+        dirtyRows[row >>> 6] |= 1L << row;
+    }
+
+    /**
+     * Marks an inclusive range of rows as changed.
+     *
+     * @param from the first row
+     * @param to   the last row
+     */
+    void markRows(int from, int to) {
+        for (int row = Math.max(0, from); row <= to && row < rowCount; row++) {
+            markRow(row);
+        }
+    }
+
+    /**
+     * Marks the whole board as changed.
+     */
+    void markAll() {
+        fullRepaint = true;
+    }
+
+    /**
+     * Returns whether the whole board has to be redrawn.
+     *
+     * @return true after a new game, rising garbage or a restored snapshot
+     */
+    public boolean isFullRepaint() {
+        return fullRepaint;
+    }
+
+    /**
+     * Returns whether a row has to be redrawn.
+     *
+     * @param row the board row
+     * @return true if the row changed or a full repaint is pending
+     */
+    public boolean isRowDirty(int row) {
+        return fullRepaint || (dirtyRows[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Returns the first row at or after {@code from} that has to be redrawn.
+     *
+     * @param from the row to start searching from
+     * @return the next dirty row, or -1 if there is none
+     */
+    public int nextDirtyRow(int from) {
+        if (from >= rowCount) {
+            return -1;
+        }
+        if (fullRepaint) {
+            return from;
+        }
+        int word = from >>> 6;
+        long bits = dirtyRows[word] & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                int row = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                return row < rowCount ? row : -1;
+            }
+            if (++word == dirtyRows.length) {
+                return -1;
+            }
+            bits = dirtyRows[word];
+        }
+    }
+
+    /**
+     * Returns whether nothing has to be redrawn.
+     *
+     * @return true if no row is dirty and no full repaint is pending
+     */
+    public boolean isEmpty() {
+        return !fullRepaint && nextDirtyRow(0) < 0;
+    }
+
+    /**
+     * Forgets all changes once the view has drawn them.
+     */
+    public void clear() {
+        fullRepaint = false;
+        Arrays.fill(dirtyRows, 0L);
+    }
+}
@@ -0,0 +1,47 @@
+package com.comp2042;
+
+/**
+ * Draws the playfield: landed bricks, the falling brick and its ghost.
+ * <p>
+ * {@link GuiController} talks to the board only through this interface, so the
+ * node-per-cell and canvas implementations can be swapped for comparison.
+ * All methods are called on the JavaFX application thread.
+ * </p>
+ */
+public interface BoardRenderer {
+
+    /**
+     * Creates whatever the renderer needs for a board of the given size.
+     *
+     * @param boardMatrix the initial board matrix
+     * @param brick       the initial falling brick
+     */
+    void init(int[][] boardMatrix, ViewData brick);
+
+    /**
+     * Draws the landed bricks in the rows that changed.
+     *
+     * @param boardMatrix 2D matrix of board colors
+     * @param changes     the rows to redraw; not cleared by the renderer
+     */
+    void drawBackground(int[][] boardMatrix, BoardChanges changes);
+
+    /**
+     * Draws the falling brick at its current position.
+     *
+     * @param brick the brick view data
+     */
+    void drawBrick(ViewData brick);
+
+    /**
+     * Draws the ghost piece.
+     *
+     * @param ghostData the rows of the brick shape followed by a row holding the ghost {x, y}
+     */
+    void drawGhost(int[][] ghostData);
+
+    /**
+     * Hides the ghost piece.
+     */
+    void clearGhost();
+}
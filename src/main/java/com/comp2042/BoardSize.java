@@ -0,0 +1,107 @@
+package com.comp2042;
+
+import com.comp2042.logic.bricks.BrickGenerator;
+
+/**
+ * The number of rows and columns of a playfield.
+ * <p>
+ * The standard game is 25 rows by 10 columns. {@code -Dtetris.size=<rows>x<columns>}
+ * plays on any other size, e.g. {@code 1000x40} for a tall endurance board;
+ * the view then shows a window of the board that follows the falling brick.
+ * </p>
+ */
+public final class BoardSize {
+
+    /** The standard board, 25 rows by 10 columns. */
+    public static final BoardSize DEFAULT = new BoardSize(25, 10);
+
+    /** Smallest number of rows or columns a brick still fits in. */
+    public static final int MIN_SIZE = 4;
+
+    private final int rows;
+    private final int columns;
+
+    /**
+     * Creates a board size.
+     *
+     * @param rows    the number of rows, at least {@link #MIN_SIZE}
+     * @param columns the number of columns, at least {@link #MIN_SIZE}
+     * @throws IllegalArgumentException if a brick would not fit
+     */
+    public BoardSize(int rows, int columns) {
+        if (rows < MIN_SIZE || columns < MIN_SIZE) {
+            throw new IllegalArgumentException("A board needs at least " + MIN_SIZE + " rows and columns, not "
+                    + rows + "x" + columns);
+        }
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    /**
+     * Parses a size written as {@code <rows>x<columns>}, e.g. {@code 25x10}.
+     *
+     * @param text the size
+     * @return the board size
+     * @throws IllegalArgumentException if the text is not a valid size
+     */
+    public static BoardSize parse(String text) {
+        int x = text.indexOf('x');
+        if (x < 0) {
+            throw new IllegalArgumentException("Board size must be <rows>x<columns>, not " + text);
+        }
+        try {
+            return new BoardSize(Integer.parseInt(text.substring(0, x).trim()),
+                    Integer.parseInt(text.substring(x + 1).trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Board size must be <rows>x<columns>, not " + text, e);
+        }
+    }
+
+    /**
+     * Returns the size given by the {@code tetris.size} system property, or the
+     * standard size if it is not set.
+     *
+     * @return the board size
+     */
+    public static BoardSize fromSystemProperties() {
+        String size = System.getProperty("tetris.size");
+        return size != null ? parse(size) : DEFAULT;
+    }
+
+    /**
+     * Creates an empty board of this size: a {@link BitBoard} when asked for and
+     * narrow enough, a {@link SimpleBoard} otherwise.
+     *
+     * @param generator the source of new bricks
+     * @param bitBoard  whether to prefer the bitmask board
+     * @return the board
+     */
+    public Board createBoard(BrickGenerator generator, boolean bitBoard) {
+        return bitBoard && columns <= BitBoard.MAX_COLUMNS
+                ? new BitBoard(rows, columns, generator)
+                : new SimpleBoard(rows, columns, generator);
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return the rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns.
+     *
+     * @return the columns
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    @Override
+    public String toString() {
+        return rows + "x" + columns;
+    }
+}
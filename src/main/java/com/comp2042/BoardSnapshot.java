@@ -0,0 +1,118 @@
+package com.comp2042;
+
+import com.comp2042.logic.bricks.Brick;
+
+/**
+ * An immutable copy of everything a {@link Board} needs to go back to an earlier
+ * point of the game: the landed cells, the falling, next and held bricks, the
+ * score and the position in the brick sequence.
+ * <p>
+ * Snapshots share their rows with the board and with each other. Taking one
+ * only copies the outer array of row references, O(rows); from then on the board
+ * copies a row before it first writes to it, so a lock copies just the few rows
+ * it touches and a line clear only moves references. Consecutive snapshots of a
+ * game on the standard board therefore cost a few hundred bytes each, and the
+ * row arrays of a snapshot must never be written to. Restoring one is not as
+ * cheap, see {@link Board#restore(BoardSnapshot)}.
+ * </p>
+ */
+public final class BoardSnapshot {
+
+    private final int[][] rows;
+    private final Brick currentBrick;
+    private final int rotation;
+    private final int x;
+    private final int y;
+    private final Brick nextBrick;
+    private final Brick heldBrick;
+    private final boolean holdUsed;
+    private final int score;
+    private final int lines;
+    private final long generatorMark;
+
+    BoardSnapshot(int[][] rows, Brick currentBrick, int rotation, int x, int y, Brick nextBrick,
+                  Brick heldBrick, boolean holdUsed, Score score, long generatorMark) {
+        this.rows = rows;
+        this.currentBrick = currentBrick;
+        this.rotation = rotation;
+        this.x = x;
+        this.y = y;
+        this.nextBrick = nextBrick;
+        this.heldBrick = heldBrick;
+        this.holdUsed = holdUsed;
+        this.score = score.getScore();
+        this.lines = score.getLines();
+        this.generatorMark = generatorMark;
+    }
+
+    /**
+     * Returns the shared row references; the rows must not be modified.
+     */
+    int[][] getRows() {
+        return rows;
+    }
+
+    Brick getCurrentBrick() {
+        return currentBrick;
+    }
+
+    int getRotation() {
+        return rotation;
+    }
+
+    int getX() {
+        return x;
+    }
+
+    int getY() {
+        return y;
+    }
+
+    Brick getNextBrick() {
+        return nextBrick;
+    }
+
+    Brick getHeldBrick() {
+        return heldBrick;
+    }
+
+    boolean isHoldUsed() {
+        return holdUsed;
+    }
+
+    /**
+     * Returns the position in the brick sequence to rewind the generator to.
+     *
+     * @return the generator mark, or -1 if the generator cannot rewind
+     */
+    long getGeneratorMark() {
+        return generatorMark;
+    }
+
+    /**
+     * Returns the score at the time of the snapshot.
+     *
+     * @return the score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Returns the number of cleared lines at the time of the snapshot.
+     *
+     * @return the line count
+     */
+    public int getLines() {
+        return lines;
+    }
+
+    /**
+     * Returns a copy of the landed cells, e.g. to show a preview of the snapshot.
+     *
+     * @return a new board matrix
+     */
+    public int[][] getBoardMatrix() {
+        return MatrixOperations.copy(rows);
+    }
+}
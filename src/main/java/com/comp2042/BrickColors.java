@@ -0,0 +1,62 @@
+package com.comp2042;
+
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+
+/**
+ * Colour palette shared by the board renderers and the preview panes.
+ * <p>
+ * Maps brick colour codes to their fill colour and to a prebuilt translucent
+ * variant used for the ghost piece, so nothing is allocated while drawing.
+ * </p>
+ */
+public final class BrickColors {
+
+    /** Opacity of the ghost piece fill. */
+    private static final double GHOST_OPACITY = 0.3;
+
+    /** Translucent ghost colours indexed by brick colour code, built once. */
+    private static final Color[] GHOST_COLORS = new Color[9];
+
+    static {
+        for (int i = 0; i < GHOST_COLORS.length; i++) {
+            Color pieceColor = fill(i);
+            GHOST_COLORS[i] = new Color(pieceColor.getRed(), pieceColor.getGreen(), pieceColor.getBlue(),
+                    pieceColor.getOpacity() * GHOST_OPACITY);
+        }
+    }
+
+    // Private constructor to prevent instantiation
+    private BrickColors() { }
+
+    /**
+     * Returns the color associated with a given brick type ID.
+     *
+     * @param i the ID representing a brick type
+     * @return the corresponding color for the brick
+     */
+    public static Color fill(int i) {
+        switch (i) {
+            case 0: return Color.TRANSPARENT;
+            case 1: return Color.AQUA;
+            case 2: return Color.BLUEVIOLET;
+            case 3: return Color.DARKGREEN;
+            case 4: return Color.YELLOW;
+            case 5: return Color.RED;
+            case 6: return Color.BEIGE;
+            case 7: return Color.BURLYWOOD;
+            case Board.GARBAGE_COLOR: return Color.DIMGRAY;
+            default: return Color.WHITE;
+        }
+    }
+
+    /**
+     * Returns the translucent ghost colour for a given brick type ID.
+     *
+     * @param i the ID representing a brick type
+     * @return the prebuilt ghost colour
+     */
+    public static Paint ghost(int i) {
+        return GHOST_COLORS[Math.max(0, Math.min(i, GHOST_COLORS.length - 1))];
+    }
+}
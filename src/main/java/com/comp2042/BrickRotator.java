@@ -1,14 +1,19 @@
 package com.comp2042;
 
 import com.comp2042.logic.bricks.Brick;
+import com.comp2042.logic.bricks.RotationTable;
 
 /**
  * Handles rotation of a brick by tracking its current rotation index
  * and providing the next rotated shape.
+ * <p>
+ * Shapes are read straight from the brick's shared {@link RotationTable},
+ * so querying them never copies.
+ * </p>
  */
 public class BrickRotator {
 
-    private Brick brick;
+    private RotationTable rotations;
     private int currentShape = 0;
 
     /**
@@ -17,18 +22,45 @@ public class BrickRotator {
      * @return NextShapeInfo containing the rotated shape and rotation index
      */
     public NextShapeInfo getNextShape() {
-        int nextShape = currentShape;
-        nextShape = (++nextShape) % brick.getShapeMatrix().size();
-        return new NextShapeInfo(brick.getShapeMatrix().get(nextShape), nextShape);
+        int nextShape = getNextRotation();
+        return new NextShapeInfo(rotations.getShape(nextShape), nextShape);
+    }
+
+    /**
+     * Returns the rotation index that would follow the current one.
+     *
+     * @return the next rotation index
+     */
+    public int getNextRotation() {
+        return rotations.next(currentShape);
     }
 
     /**
      * Returns the current rotation of the brick.
+     * The matrix is shared with the rotation table and must not be modified.
      *
      * @return a 2D int array representing the current brick shape
      */
     public int[][] getCurrentShape() {
-        return brick.getShapeMatrix().get(currentShape);
+        return rotations.getShape(currentShape);
+    }
+
+    /**
+     * Returns the current rotation index.
+     *
+     * @return the rotation index
+     */
+    public int getCurrentRotation() {
+        return currentShape;
+    }
+
+    /**
+     * Returns the rotation table of the current brick.
+     *
+     * @return the rotation table
+     */
+    public RotationTable getRotations() {
+        return rotations;
     }
 
     /**
@@ -46,7 +78,7 @@ public class BrickRotator {
      * @param brick the Brick object to rotate
      */
     public void setBrick(Brick brick) {
-        this.brick = brick;
+        this.rotations = brick.getRotations();
         currentShape = 0;
     }
 }
@@ -0,0 +1,254 @@
+package com.comp2042;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+
+/**
+ * Renders the whole board onto a single {@link Canvas}.
+ * <p>
+ * Calls to the {@link BoardRenderer} methods only record state. Once per frame
+ * the landed bricks, the ghost and the falling brick are combined into one cell
+ * code per board cell and compared with what was painted last time; only rows
+ * that changed are repainted. No scene-graph nodes are created after
+ * {@link #init}, so pulse time does not grow with the number of cells.
+ * </p>
+ * <p>
+ * A board larger than the maximum view size is drawn through a viewport: the
+ * canvas only covers the visible window, which scrolls to keep the falling brick,
+ * and its landing spot when both fit, inside the window. Painting and the cell
+ * comparison then cost the size of the window, not of the board.
+ * </p>
+ */
+public class CanvasBoardRenderer implements BoardRenderer {
+
+    /** Cell codes above this value are ghost cells; above {@link #ACTIVE} active-brick cells. */
+    private static final int GHOST = 16;
+    private static final int ACTIVE = 32;
+
+    /** Cells kept between the falling brick and the edge of the viewport before it scrolls. */
+    private static final int SCROLL_MARGIN = 4;
+
+    private final Pane container;
+    private final int brickSize;
+    private final int maxRows;
+    private final int maxColumns;
+
+    private Canvas canvas;
+    private GraphicsContext graphics;
+    private int[][] background;
+    private int[][] painted;
+    private int[] rowCodes;
+    private int boardRows;
+    private int boardColumns;
+    private int viewTop;
+    private int viewLeft;
+    private int[][] brickShape;
+    private int brickX;
+    private int brickY;
+    private int[][] ghostShape;
+    private int ghostX;
+    private int ghostY;
+    private boolean dirty;
+
+    private final AnimationTimer painter = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            if (dirty) {
+                dirty = false;
+                paint();
+            }
+        }
+    };
+
+    /**
+     * Creates a renderer that adds its canvas to the given pane.
+     *
+     * @param container the pane the canvas is placed in
+     * @param brickSize the size of each brick in pixels
+     */
+    public CanvasBoardRenderer(Pane container, int brickSize) {
+        this(container, brickSize, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a renderer that shows at most the given number of rows and columns
+     * of the board at a time.
+     *
+     * @param container  the pane the canvas is placed in
+     * @param brickSize  the size of each brick in pixels
+     * @param maxRows    the most rows the viewport shows
+     * @param maxColumns the most columns the viewport shows
+     */
+    public CanvasBoardRenderer(Pane container, int brickSize, int maxRows, int maxColumns) {
+        this.container = container;
+        this.brickSize = brickSize;
+        this.maxRows = maxRows;
+        this.maxColumns = maxColumns;
+    }
+
+    @Override
+    public void init(int[][] boardMatrix, ViewData brick) {
+        boardRows = boardMatrix.length;
+        boardColumns = boardMatrix[0].length;
+        int rows = Math.min(boardRows, maxRows);
+        int columns = Math.min(boardColumns, maxColumns);
+        canvas = new Canvas(columns * brickSize, rows * brickSize);
+        canvas.setMouseTransparent(true);
+        graphics = canvas.getGraphicsContext2D();
+        container.getChildren().add(0, canvas);
+
+        background = boardMatrix;
+        painted = new int[rows][columns];
+        rowCodes = new int[columns];
+        drawBrick(brick);
+        painter.start();
+    }
+
+    /**
+     * Only records the matrix: the per-frame cell comparison already limits
+     * painting to the rows that changed, so the change set is not needed here.
+     */
+    @Override
+    public void drawBackground(int[][] boardMatrix, BoardChanges changes) {
+        background = boardMatrix;
+        dirty |= !changes.isEmpty();
+    }
+
+    @Override
+    public void drawBrick(ViewData brick) {
+        brickShape = brick.getBrickData();
+        brickX = brick.getxPosition();
+        brickY = brick.getyPosition();
+        dirty = true;
+    }
+
+    @Override
+    public void drawGhost(int[][] ghostData) {
+        ghostShape = ghostData;
+        ghostX = ghostData[ghostData.length - 1][0];
+        ghostY = ghostData[ghostData.length - 1][1];
+        dirty = true;
+    }
+
+    @Override
+    public void clearGhost() {
+        ghostShape = null;
+        dirty = true;
+    }
+
+    /**
+     * Moves the viewport to follow the brick, then repaints every row of the viewport
+     * whose combined cell codes differ from what is on the canvas. The comparison is
+     * by canvas cell, so a scroll simply repaints the rows whose content moved.
+     */
+    private void paint() {
+        follow();
+        for (int i = 0; i < painted.length; i++) {
+            boolean changed = false;
+            for (int j = 0; j < rowCodes.length; j++) {
+                int code = cellCode(viewTop + i, viewLeft + j);
+                rowCodes[j] = code;
+                changed |= code != painted[i][j];
+            }
+            if (changed) {
+                paintRow(i);
+                System.arraycopy(rowCodes, 0, painted[i], 0, rowCodes.length);
+            }
+        }
+    }
+
+    /**
+     * Scrolls the viewport so the falling brick stays inside it, with its landing
+     * spot too when the drop fits in the viewport.
+     */
+    private void follow() {
+        if (brickShape == null) {
+            return;
+        }
+        int bottom = (ghostShape != null ? ghostY : brickY) + brickShape.length;
+        viewTop = scroll(viewTop, brickY, bottom, painted.length, boardRows);
+        viewLeft = scroll(viewLeft, brickX, brickX + brickShape[0].length, rowCodes.length, boardColumns);
+    }
+
+    /**
+     * Returns the new start of a viewport along one axis so that {@code from..to}
+     * is inside it with a margin, preferring {@code from} if it does not all fit.
+     *
+     * @param start the current start of the viewport
+     * @param from  the first cell to show
+     * @param to    the cell after the last one to show
+     * @param view  the length of the viewport
+     * @param board the length of the board
+     * @return the new start, within the board
+     */
+    private static int scroll(int start, int from, int to, int view, int board) {
+        if (view >= board) {
+            return 0;
+        }
+        int margin = Math.max(0, Math.min(SCROLL_MARGIN, (view - (to - from)) / 2));
+        if (to + margin > start + view) {
+            start = to + margin - view;
+        }
+        if (from - margin < start) {
+            start = from - margin;
+        }
+        return Math.max(0, Math.min(start, board - view));
+    }
+
+    /**
+     * Combines the board, ghost and falling brick into the code of one cell.
+     * The falling brick wins over the ghost, which wins over an empty cell.
+     */
+    private int cellCode(int row, int column) {
+        int value = shapeValue(brickShape, row - brickY, column - brickX);
+        if (value != 0) {
+            return ACTIVE + value;
+        }
+        int landed = background[row][column];
+        if (landed != 0) {
+            return landed;
+        }
+        value = shapeValue(ghostShape, row - ghostY, column - ghostX);
+        return value != 0 ? GHOST + value : 0;
+    }
+
+    private static int shapeValue(int[][] shape, int i, int j) {
+        if (shape == null || i < 0 || j < 0 || i >= shape.length || j >= shape[i].length) {
+            return 0;
+        }
+        return shape[i][j];
+    }
+
+    /**
+     * Paints one row of the viewport from {@link #rowCodes}.
+     *
+     * @param row the row of the viewport, not of the board
+     */
+    private void paintRow(int row) {
+        double y = row * brickSize;
+        graphics.clearRect(0, y, rowCodes.length * brickSize, brickSize);
+        for (int column = 0; column < rowCodes.length; column++) {
+            int code = rowCodes[column];
+            if (code == 0) {
+                continue;
+            }
+            double x = column * brickSize;
+            if (code > ACTIVE) {
+                graphics.setFill(BrickColors.fill(code - ACTIVE));
+                graphics.fillRoundRect(x, y, brickSize - 1, brickSize - 1, 9, 9);
+            } else if (code > GHOST) {
+                graphics.setFill(BrickColors.ghost(code - GHOST));
+                graphics.fillRoundRect(x, y, brickSize, brickSize, 9, 9);
+                graphics.setStroke(Color.WHITE);
+                graphics.setLineWidth(1);
+                graphics.strokeRoundRect(x + 0.5, y + 0.5, brickSize - 1, brickSize - 1, 9, 9);
+            } else {
+                graphics.setFill(BrickColors.fill(code));
+                graphics.fillRoundRect(x, y, brickSize, brickSize, 9, 9);
+            }
+        }
+    }
+}
@@ -3,8 +3,12 @@ package com.comp2042;
 /**
  * Represents the result of clearing completed rows from the game board.
  * <p>
- * This class stores how many rows were removed, the updated matrix after
- * removal, and any score bonus associated with the row clear.
+ * This class stores how many rows were removed, which rows they were, the
+ * updated matrix after removal, and any score bonus associated with the row clear.
+ * </p>
+ * <p>
+ * The matrix is not copied when the result is created; boards clear in place and
+ * pass their live matrix. {@link #getNewMatrix()} copies it on demand.
  * </p>
  */
 public final class ClearRow {
@@ -18,6 +22,12 @@ public final class ClearRow {
     /** Additional score bonus awarded for this clear. */
     private final int scoreBonus;
 
+    /** Bit {@code i} is set if row {@code firstRow + i} was cleared. */
+    private final int clearedRows;
+
+    /** The row index bit 0 of {@link #clearedRows} refers to, or -1 if unknown. */
+    private final int firstRow;
+
     /**
      * Creates a new {@code ClearRow} object containing the results of a row clear.
      *
@@ -26,9 +36,24 @@ public final class ClearRow {
      * @param scoreBonus bonus score awarded for clearing rows
      */
     public ClearRow(int linesRemoved, int[][] newMatrix, int scoreBonus) {
+        this(linesRemoved, newMatrix, scoreBonus, 0, -1);
+    }
+
+    /**
+     * Creates a new {@code ClearRow} object that also records which rows were cleared.
+     *
+     * @param linesRemoved the number of completed rows removed from the board
+     * @param newMatrix the updated board matrix after row removal
+     * @param scoreBonus bonus score awarded for clearing rows
+     * @param clearedRows bitmask of cleared rows, bit {@code i} meaning row {@code firstRow + i}
+     * @param firstRow the row index of bit 0 of {@code clearedRows}
+     */
+    public ClearRow(int linesRemoved, int[][] newMatrix, int scoreBonus, int clearedRows, int firstRow) {
         this.linesRemoved = linesRemoved;
         this.newMatrix = newMatrix;
         this.scoreBonus = scoreBonus;
+        this.clearedRows = clearedRows;
+        this.firstRow = firstRow;
     }
 
     /**
@@ -52,6 +77,35 @@ public final class ClearRow {
         return MatrixOperations.copy(newMatrix);
     }
 
+    /**
+     * Gets the bitmask of cleared rows, relative to {@link #getFirstRow()}.
+     *
+     * @return the cleared row bitmask, 0 if no rows were cleared
+     */
+    public int getClearedRows() {
+        return clearedRows;
+    }
+
+    /**
+     * Gets the board row that bit 0 of {@link #getClearedRows()} refers to.
+     *
+     * @return the first row index, or -1 if no row information is available
+     */
+    public int getFirstRow() {
+        return firstRow;
+    }
+
+    /**
+     * Checks whether the given board row (as indexed before the clear) was removed.
+     *
+     * @param row the board row index
+     * @return true if that row was cleared
+     */
+    public boolean isRowCleared(int row) {
+        int bit = row - firstRow;
+        return firstRow >= 0 && bit >= 0 && bit < Integer.SIZE && (clearedRows & (1 << bit)) != 0;
+    }
+
     /**
      * Gets the score bonus awarded for clearing the rows.
      *
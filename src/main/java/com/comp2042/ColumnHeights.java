@@ -0,0 +1,154 @@
+package com.comp2042;
+
+import com.comp2042.logic.bricks.RotationTable;
+
+import java.util.Arrays;
+
+/**
+ * Per-column skyline cache of a board: for every column, the index of its
+ * topmost filled row.
+ * <p>
+ * Boards keep it up to date on merge and clear, so the distance a brick can
+ * still drop is found in O(brick width) instead of testing the brick one row
+ * at a time down the whole board.
+ * </p>
+ */
+public final class ColumnHeights {
+
+    private final int rows;
+    private final int[] top;
+
+    /**
+     * Creates the cache for an empty board.
+     *
+     * @param rows    number of board rows
+     * @param columns number of board columns
+     */
+    public ColumnHeights(int rows, int columns) {
+        this.rows = rows;
+        this.top = new int[columns];
+        clear();
+    }
+
+    /**
+     * Marks every column as empty.
+     */
+    public void clear() {
+        Arrays.fill(top, rows);
+    }
+
+    /**
+     * Recomputes every column from the board matrix.
+     *
+     * @param matrix the board matrix
+     */
+    public void rebuild(int[][] matrix) {
+        for (int column = 0; column < top.length; column++) {
+            top[column] = scanDown(matrix, column, 0);
+        }
+    }
+
+    /**
+     * Updates the columns covered by a brick that was just merged.
+     *
+     * @param rotations the brick's rotation table
+     * @param rotation  the rotation it was merged in
+     * @param x         the column of the brick's top-left corner
+     * @param y         the row of the brick's top-left corner
+     */
+    public void onMerge(RotationTable rotations, int rotation, int x, int y) {
+        for (int c = rotations.getMinX(rotation); c <= rotations.getMaxX(rotation); c++) {
+            int column = x + c;
+            for (int i = rotations.getMinY(rotation); i <= rotations.getMaxY(rotation); i++) {
+                if ((rotations.getRowMask(rotation, i) & (1L << c)) != 0) {
+                    top[column] = Math.min(top[column], y + i);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates every column after rows were removed.
+     * Rows only ever move down on a clear, so each column is rescanned from its old top.
+     *
+     * @param matrix the board matrix after the clear
+     */
+    public void onClear(int[][] matrix) {
+        for (int column = 0; column < top.length; column++) {
+            top[column] = scanDown(matrix, column, top[column]);
+        }
+    }
+
+    private int scanDown(int[][] matrix, int column, int from) {
+        for (int row = from; row < rows; row++) {
+            if (matrix[row][column] != 0) {
+                return row;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Returns the topmost filled row of a column.
+     *
+     * @param column the board column
+     * @return the row index, or the number of rows if the column is empty
+     */
+    public int getTop(int column) {
+        return top[column];
+    }
+
+    /**
+     * Returns the topmost filled row over all columns.
+     *
+     * @return the row index, or the number of rows if the board is empty
+     */
+    public int getStackTop() {
+        int min = rows;
+        for (int t : top) {
+            min = Math.min(min, t);
+        }
+        return min;
+    }
+
+    /**
+     * Returns the stack height of a column.
+     *
+     * @param column the board column
+     * @return the number of rows from the floor up to and including the topmost filled cell
+     */
+    public int getHeight(int column) {
+        return rows - top[column];
+    }
+
+    /**
+     * Computes how many rows a brick can fall from its position using only the skyline.
+     * <p>
+     * This is exact while the brick is above the stack in all of its columns. If
+     * the brick has been slid under an overhang the skyline cannot tell, and -1 is
+     * returned so the caller can fall back to a row-by-row check.
+     * </p>
+     *
+     * @param rotations the brick's rotation table
+     * @param rotation  the brick's rotation
+     * @param x         the column of the brick's top-left corner
+     * @param y         the row of the brick's top-left corner
+     * @return the drop distance in rows, or -1 if it must be computed another way
+     */
+    public int dropDistance(RotationTable rotations, int rotation, int x, int y) {
+        int distance = Integer.MAX_VALUE;
+        for (int c = rotations.getMinX(rotation); c <= rotations.getMaxX(rotation); c++) {
+            int bottom = rotations.getColumnBottom(rotation, c);
+            if (bottom < 0) {
+                continue;
+            }
+            int free = top[x + c] - 1 - (y + bottom);
+            if (free < 0) {
+                return -1;
+            }
+            distance = Math.min(distance, free);
+        }
+        return distance;
+    }
+}
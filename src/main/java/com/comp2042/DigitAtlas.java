@@ -0,0 +1,69 @@
+package com.comp2042;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+
+/**
+ * The ten digit images packed side by side into one image.
+ * <p>
+ * Counters draw a digit by copying its cell out of the atlas onto a canvas, so
+ * every number on screen comes from a single texture instead of one image view
+ * per digit fed from ten separate images. Each cell is as large as the largest
+ * digit; a smaller digit keeps its own size and is scaled to the counter's digit
+ * box when drawn, like the image views used to do.
+ * </p>
+ */
+public final class DigitAtlas {
+
+    private final Image image;
+    private final int cellWidth;
+    private final int[] widths = new int[10];
+    private final int[] heights = new int[10];
+
+    private DigitAtlas(Image image, int cellWidth, Image[] digits) {
+        this.image = image;
+        this.cellWidth = cellWidth;
+        for (int digit = 0; digit < 10; digit++) {
+            widths[digit] = (int) digits[digit].getWidth();
+            heights[digit] = (int) digits[digit].getHeight();
+        }
+    }
+
+    /**
+     * Packs ten decoded digit images into an atlas. Does not touch the scene graph,
+     * so it can run on a background thread.
+     *
+     * @param digits the images of the digits 0 to 9
+     * @return the atlas
+     */
+    public static DigitAtlas build(Image[] digits) {
+        int cellWidth = 0;
+        int cellHeight = 0;
+        for (Image digit : digits) {
+            cellWidth = Math.max(cellWidth, (int) digit.getWidth());
+            cellHeight = Math.max(cellHeight, (int) digit.getHeight());
+        }
+        WritableImage atlas = new WritableImage(cellWidth * 10, cellHeight);
+        for (int digit = 0; digit < 10; digit++) {
+            Image source = digits[digit];
+            atlas.getPixelWriter().setPixels(digit * cellWidth, 0, (int) source.getWidth(), (int) source.getHeight(),
+                    source.getPixelReader(), 0, 0);
+        }
+        return new DigitAtlas(atlas, cellWidth, digits);
+    }
+
+    /**
+     * Draws one digit scaled into a box.
+     *
+     * @param graphics the canvas to draw on
+     * @param digit    the digit, 0 to 9
+     * @param x        the left edge of the box
+     * @param y        the top edge of the box
+     * @param width    the width of the box
+     * @param height   the height of the box
+     */
+    public void draw(GraphicsContext graphics, int digit, double x, double y, double width, double height) {
+        graphics.drawImage(image, digit * cellWidth, 0, widths[digit], heights[digit], x, y, width, height);
+    }
+}
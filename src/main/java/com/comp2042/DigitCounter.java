@@ -0,0 +1,195 @@
+package com.comp2042;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+
+/**
+ * A number drawn with digits from a {@link DigitAtlas} onto a single canvas.
+ * <p>
+ * The counter pads the value with leading zeros to {@link #getMinDigits()} and
+ * widens itself when the value needs more digits, so large scores are shown in
+ * full rather than wrapping. Setting a value only redraws the digit boxes whose
+ * digit changed; the counter is one node however many digits it shows.
+ * </p>
+ * <p>
+ * The digit size, spacing and minimum width are plain properties so the counter
+ * can be declared in FXML.
+ * </p>
+ */
+public class DigitCounter extends Canvas {
+
+    private double digitWidth = 20;
+    private double digitHeight = 30;
+    private double spacing = 2;
+    private int minDigits = 1;
+
+    private DigitAtlas atlas;
+    private long value;
+    private int[] shown = new int[0];
+
+    /**
+     * Creates a counter showing 0.
+     */
+    public DigitCounter() {
+        resize(minDigits);
+    }
+
+    /**
+     * Sets the atlas to draw from and draws the current value.
+     *
+     * @param atlas the digit atlas
+     */
+    public void setAtlas(DigitAtlas atlas) {
+        this.atlas = atlas;
+        redrawAll();
+    }
+
+    /**
+     * Shows a value, redrawing only the digits that changed.
+     *
+     * @param value the value, negative values are shown as 0
+     */
+    public void setValue(long value) {
+        value = Math.max(0, value);
+        this.value = value;
+        int digits = Math.max(minDigits, digitCount(value));
+        if (digits != shown.length) {
+            resize(digits);
+            redrawAll();
+            return;
+        }
+        if (atlas == null) {
+            return;
+        }
+        GraphicsContext graphics = getGraphicsContext2D();
+        for (int i = digits - 1; i >= 0; i--) {
+            int digit = (int) (value % 10);
+            value /= 10;
+            if (shown[i] != digit) {
+                drawDigit(graphics, i, digit);
+            }
+        }
+    }
+
+    /**
+     * Returns the value shown.
+     *
+     * @return the value
+     */
+    public long getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the width of each digit box.
+     *
+     * @return the width in pixels
+     */
+    public double getDigitWidth() {
+        return digitWidth;
+    }
+
+    /**
+     * Sets the width of each digit box.
+     *
+     * @param digitWidth the width in pixels
+     */
+    public void setDigitWidth(double digitWidth) {
+        this.digitWidth = digitWidth;
+        resize(shown.length);
+        redrawAll();
+    }
+
+    /**
+     * Returns the height of each digit box.
+     *
+     * @return the height in pixels
+     */
+    public double getDigitHeight() {
+        return digitHeight;
+    }
+
+    /**
+     * Sets the height of each digit box.
+     *
+     * @param digitHeight the height in pixels
+     */
+    public void setDigitHeight(double digitHeight) {
+        this.digitHeight = digitHeight;
+        resize(shown.length);
+        redrawAll();
+    }
+
+    /**
+     * Returns the gap between two digit boxes.
+     *
+     * @return the gap in pixels
+     */
+    public double getSpacing() {
+        return spacing;
+    }
+
+    /**
+     * Sets the gap between two digit boxes.
+     *
+     * @param spacing the gap in pixels
+     */
+    public void setSpacing(double spacing) {
+        this.spacing = spacing;
+        resize(shown.length);
+        redrawAll();
+    }
+
+    /**
+     * Returns the number of digits shown at least, padded with leading zeros.
+     *
+     * @return the minimum digit count
+     */
+    public int getMinDigits() {
+        return minDigits;
+    }
+
+    /**
+     * Sets the number of digits shown at least, padded with leading zeros.
+     *
+     * @param minDigits the minimum digit count, at least 1
+     */
+    public void setMinDigits(int minDigits) {
+        this.minDigits = Math.max(1, minDigits);
+        setValue(value);
+    }
+
+    private void resize(int digits) {
+        shown = new int[digits];
+        setWidth(digits * digitWidth + (digits - 1) * spacing);
+        setHeight(digitHeight);
+    }
+
+    private void redrawAll() {
+        if (atlas == null) {
+            return;
+        }
+        GraphicsContext graphics = getGraphicsContext2D();
+        long rest = value;
+        for (int i = shown.length - 1; i >= 0; i--) {
+            drawDigit(graphics, i, (int) (rest % 10));
+            rest /= 10;
+        }
+    }
+
+    private void drawDigit(GraphicsContext graphics, int index, int digit) {
+        double x = index * (digitWidth + spacing);
+        graphics.clearRect(x, 0, digitWidth, digitHeight);
+        atlas.draw(graphics, digit, x, 0, digitWidth, digitHeight);
+        shown[index] = digit;
+    }
+
+    private static int digitCount(long value) {
+        int count = 1;
+        while (value >= 10) {
+            value /= 10;
+            count++;
+        }
+        return count;
+    }
+}
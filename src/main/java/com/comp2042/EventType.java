@@ -8,11 +8,15 @@ package com.comp2042;
  * RIGHT: move the current brick to the right.
  * ROTATE: rotate the current brick.
  * HARD_DROP: drop the current brick instantly to the bottom.
+ * HOLD: swap the current brick with the held one.
+ * <p>
+ * Replay files store the ordinal, so new constants must be added at the end.
  */
 public enum EventType {
     DOWN,
     LEFT,
     RIGHT,
     ROTATE,
-    HARD_DROP
+    HARD_DROP,
+    HOLD
 }
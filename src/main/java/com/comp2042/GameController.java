@@ -1,32 +1,90 @@
 package com.comp2042;
 
+import com.comp2042.logic.bricks.SeededBrickGenerator;
+import com.comp2042.replay.Replay;
+import com.comp2042.replay.ReplayPlayer;
+import com.comp2042.replay.ReplayRecorder;
+import com.comp2042.stats.GameRecord;
+import com.comp2042.stats.GameStats;
+import com.comp2042.stats.StatsStore;
+import com.comp2042.versus.VersusClient;
+import javafx.application.Platform;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
 /**
- * The GameController class handles the game logic for Tetris,
- * including user input, brick movement, collision checking,
- * ghost piece calculation, scoring, and updating the GUI.
+ * The GameController class adapts the headless {@link GameEngine} to the GUI.
+ * It translates user and thread input events into engine commands,
+ * and engine events into GUI updates (board, next and held brick
+ * previews, ghost piece, score and game over).
  * It implements the InputEventListener interface to respond
  * to user and thread events.
  */
-public class GameController implements InputEventListener {
+public class GameController implements InputEventListener, GameEventListener, VersusClient.Listener {
 
-    private final Board board = new SimpleBoard(25, 10);
+    private final Board board;
+    private final GameEngine engine;
     private final GuiController viewGuiController;
+    private final UiEventBus uiBus = new UiEventBus();
+    private final InputHandler input = InputHandler.fromSystemProperties();
+    private boolean ghostDirty = true;
+    private ClearRow lockedClearRow;
+    private ReplayPlayer replayPlayer;
+    private ReplayRecorder recorder;
+    private GameStats stats;
+    private VersusClient versus;
+    private int versusPlayer;
 
     /**
-     * Constructs a GameController with a specified GUI controller.
-     * Initializes the first brick, binds scores, and updates the next block preview.
+     * Constructs a GameController with a specified GUI controller,
+     * playing on a {@link SimpleBoard} of the standard size.
      *
      * @param guiController the GUI controller managing the game's visual elements
      */
     public GameController(GuiController guiController) {
+        this(guiController, new SimpleBoard(BoardSize.DEFAULT.getRows(), BoardSize.DEFAULT.getColumns()));
+    }
+
+    /**
+     * Constructs a GameController with a specified GUI controller and board implementation.
+     * Initializes the first brick, binds scores, and updates the next block preview.
+     *
+     * @param guiController the GUI controller managing the game's visual elements
+     * @param board         the board implementation to play on, e.g. {@link SimpleBoard} or {@link BitBoard}
+     */
+    public GameController(GuiController guiController, Board board) {
+        this(guiController, board, null);
+    }
+
+    /**
+     * Constructs a GameController that watches a replay instead of taking player input.
+     * Each gravity tick of the GUI advances the replay by one tick.
+     *
+     * @param guiController the GUI controller managing the game's visual elements
+     * @param board         a board created with {@link Replay#createBoard()}, or any board if not replaying
+     * @param replay        the replay to watch, or null for a normal game
+     */
+    public GameController(GuiController guiController, Board board, Replay replay) {
+        this.board = board;
+        this.engine = new GameEngine(board);
         this.viewGuiController = guiController;
+        if (replay != null) {
+            replayPlayer = new ReplayPlayer(replay, engine);
+        } else {
+            // The GUI ticks the engine at GameEngine.TICKS_PER_SECOND and speeds up with the level
+            engine.setLevelGravity(true);
+            engine.setLockDelay(GameEngine.DEFAULT_LOCK_DELAY);
+        }
         viewGuiController.setEventListener(this);
+        viewGuiController.setUiBus(uiBus);
 
         // Initialize the first brick and game view
-        board.createNewBrick();
+        engine.start();
+        engine.addListener(this);
         viewGuiController.initGameView(board.getBoardMatrix(), board.getViewData());
-        viewGuiController.bindScore(board.getScore().scoreProperty());
-        viewGuiController.lineScore(board.getScore().lineProperty());
+        onScoreChanged(board.getScore().getScore(), board.getScore().getLines());
 
         // Show the first next block preview
         updateNextBlock();
@@ -35,149 +93,267 @@ public class GameController implements InputEventListener {
     }
 
     /**
-     * Handles the "down" move event.
-     * Moves the current brick down if possible, merges it if blocked,
-     * clears completed rows, updates score, and refreshes the GUI.
+     * Registers a listener for the events of the game engine, e.g. to play sounds.
      *
-     * @param event the move event containing event type and source
-     * @return DownData object containing clear row info, updated view data, and lock status
+     * @param listener the listener to add
      */
-    @Override
-    public DownData onDownEvent(MoveEvent event) {
-        boolean canMove = board.moveBrickDown();
-        ClearRow clearRow = null;
-        boolean locked = false;
-
-        if (!canMove) {
-            board.mergeBrickToBackground();
-            viewGuiController.clearGhostPiece();
-            clearRow = board.clearRows();
-            locked = true;
-
-            if (clearRow.getLinesRemoved() > 0) {
-                board.getScore().add(clearRow.getScoreBonus());
-            }
-            if (board.createNewBrick()) {
-                viewGuiController.gameOver();
-            }
-
-            updateNextBlock();
-            viewGuiController.refreshGameBackground(board.getBoardMatrix());
-        }
+    public void addGameListener(GameEventListener listener) {
+        engine.addListener(listener);
+    }
 
-        updateGhostPiece();
-        return new DownData(clearRow, board.getViewData(), locked);
+    /**
+     * Stores the statistics of every game played from now on, starting with the
+     * current one, and shows the leaderboard on the game over screen. The games are
+     * written on the store's own thread.
+     *
+     * @param store the store to write to
+     * @param seed  the seed of the brick sequence of the current game, or null if it is not seeded
+     */
+    public void enableStats(StatsStore store, Long seed) {
+        stats = new GameStats(engine, store, seed);
+        stats.setOnStored(leaderboard -> Platform.runLater(() -> viewGuiController.showLeaderboard(leaderboard)));
+        engine.addListener(stats);
+        viewGuiController.showLeaderboard(store.getLeaderboard());
     }
 
     /**
-     * Handles the "left" move event.
-     * Moves the current brick left if possible and updates the ghost piece.
+     * Plays the current game as part of a versus match: the board, score, attacks
+     * and top out are sent to the match server, and the controller becomes the
+     * listener of the match. The game must use the seed the match was started with.
      *
-     * @param event the move event containing event type and source
-     * @return updated ViewData of the brick
+     * @param client  the connected client, whose callbacks run on the FX thread
+     * @param player  the index of the local player
+     * @param players the number of players in the match
      */
+    public void enableVersus(VersusClient client, int player, int players) {
+        versus = client;
+        versusPlayer = player;
+        client.attach(engine);
+        engine.addListener(client);
+        client.setListener(this);
+        int[][] matrix = board.getBoardMatrix();
+        viewGuiController.showOpponents(players, player, matrix.length, matrix[0].length);
+    }
+
     @Override
-    public ViewData onLeftEvent(MoveEvent event) {
-        board.moveBrickLeft();
-        updateGhostPiece();
-        return board.getViewData();
+    public void onGarbage(int rows, int hole, int from) {
+        engine.receiveGarbage(rows, hole);
+    }
+
+    @Override
+    public void onOpponentBoard(int player, int[][] board) {
+        viewGuiController.showOpponentBoard(player, board);
+    }
+
+    @Override
+    public void onPlayerOut(int player) {
+        viewGuiController.showOpponentOut(player);
+    }
+
+    @Override
+    public void onMatchOver(int winner) {
+        viewGuiController.showMatchResult(winner == versusPlayer);
+    }
+
+    @Override
+    public void onDisconnected(IOException error) {
+        System.err.println("Lost the match server: " + error.getMessage());
+        viewGuiController.showMatchResult(false);
     }
 
     /**
-     * Handles the "right" move event.
-     * Moves the current brick right if possible and updates the ghost piece.
+     * Keeps the last bricks of every game so they can be undone and redone. The
+     * board must have been created with a {@link com.comp2042.logic.bricks.RewindableBrickGenerator}
+     * holding at least twice as many bricks, plus the preview, for an undo to deal the same bricks again.
+     * Replays and versus matches cannot be undone.
      *
-     * @param event the move event containing event type and source
-     * @return updated ViewData of the brick
+     * @param capacity the number of bricks to keep
      */
-    @Override
-    public ViewData onRightEvent(MoveEvent event) {
-        board.moveBrickRight();
-        updateGhostPiece();
-        return board.getViewData();
+    public void enableHistory(int capacity) {
+        engine.enableHistory(capacity);
     }
 
     /**
-     * Handles the "rotate" event.
-     * Rotates the current brick if possible and updates the ghost piece.
+     * Starts recording the current game to a replay file. Recording stops on game over,
+     * on a new game or when {@link #stopRecording()} is called.
      *
-     * @param event the move event containing event type and source
-     * @return updated ViewData of the brick
+     * @param path      the replay file to write
+     * @param generator the seeded generator the board was created with
+     * @throws IOException if the file cannot be created
      */
-    @Override
-    public ViewData onRotateEvent(MoveEvent event) {
-        board.rotateLeftBrick();
-        updateGhostPiece();
-        return board.getViewData();
+    public void startRecording(Path path, SeededBrickGenerator generator) throws IOException {
+        stopRecording();
+        recorder = new ReplayRecorder(path, generator, engine);
+        engine.addListener(recorder);
+        if (stats != null) {
+            stats.setReplay(path.getFileName().toString());
+        }
     }
 
     /**
-     * New game after restart
+     * Ends the current recording, if any, so that the replay file is complete.
+     */
+    public void stopRecording() {
+        if (recorder != null) {
+            engine.removeListener(recorder);
+            try {
+                recorder.close();
+            } catch (IOException e) {
+                System.err.println("Could not finish replay: " + e.getMessage());
+            }
+            recorder = null;
+        }
+    }
+
+    /**
+     * Ends the session: finishes the replay and stores the current game, if it is
+     * still being played. Call it before the application exits.
      */
+    public void shutdown() {
+        stopRecording();
+        if (versus != null) {
+            versus.close();
+        }
+        if (stats != null) {
+            stats.finish(GameRecord.End.ABANDONED);
+        }
+    }
+
     @Override
-    public void createNewGame() {
-        board.newGame();
-        board.createNewBrick();
-        viewGuiController.refreshGameBackground(board.getBoardMatrix());
-        viewGuiController.bindScore(board.getScore().scoreProperty());
-        viewGuiController.lineScore(board.getScore().lineProperty());
+    public void onBrickShifted() {
+        // Queued and replayed input reaches the engine directly, so follow it here;
+        // falling and blocked moves leave the landing spot where it was
+        ghostDirty = true;
+    }
 
-        // Show next block
+    @Override
+    public void onBrickLocked(ClearRow clearRow) {
+        lockedClearRow = clearRow;
+        ghostDirty = true;
+        viewGuiController.clearGhostPiece();
+        viewGuiController.refreshGameBackground(board.getBoardMatrix(), board.getChanges());
+    }
+
+    @Override
+    public void onGarbageAdded(int rows) {
+        ghostDirty = true;
+        viewGuiController.refreshGameBackground(board.getBoardMatrix(), board.getChanges());
+    }
+
+    @Override
+    public void onScoreChanged(int score, int lines) {
+        // The panels are redrawn once per frame with the latest values, however many changes came in
+        uiBus.publish(UiEventBus.SCORE, score);
+        uiBus.publish(UiEventBus.LINES, lines);
+        uiBus.publish(UiEventBus.LEVEL, engine.getLevel());
+    }
+
+    @Override
+    public void onBrickSpawned() {
+        ghostDirty = true;
+        updateNextBlock();
+    }
+
+    @Override
+    public void onHold() {
+        updateHeldBlock();
+    }
+
+    @Override
+    public void onGameOver() {
+        viewGuiController.gameOver();
+    }
+
+    @Override
+    public void onRewound(int piece) {
+        // The board marks every row as changed on a restore, so the background is redrawn whole
+        ghostDirty = true;
+        viewGuiController.clearGhostPiece();
+        viewGuiController.refreshGameBackground(board.getBoardMatrix(), board.getChanges());
         updateNextBlock();
-        // Show held block (will be empty initially)
         updateHeldBlock();
     }
 
     /**
-     * Updates the Held Block preview in the GUI
+     * Runs one logic tick. The queued input is applied first, then the engine
+     * advances by one tick, which applies gravity or the lock delay. When watching
+     * a replay the next tick of the replay is played instead and input is ignored.
+     *
+     * @param tickEnd the end of the tick, on the {@link System#nanoTime()} clock
+     * @return DownData object containing clear row info, updated view data, and lock status
      */
-    private void updateHeldBlock() {
-        HoldShapeInfo heldShape = board.getHeldShape();
-        if (heldShape != null) {
-            viewGuiController.showHoldBlock(heldShape);
+    @Override
+    public DownData onTick(long tickEnd) {
+        lockedClearRow = null;
+        if (replayPlayer != null) {
+            replayPlayer.stepTick();
         } else {
-            viewGuiController.clearHoldBlock();
+            input.update(engine, tickEnd);
+            engine.tick();
+        }
+        updateGhostPiece();
+        return new DownData(lockedClearRow, board.getViewData(), lockedClearRow != null);
+    }
+
+    @Override
+    public void onTimeUp() {
+        if (stats != null) {
+            stats.finish(GameRecord.End.TIME_UP);
+        }
+        if (versus != null) {
+            versus.toppedOut();
+        }
+    }
+
+    @Override
+    public void onInputPressed(EventType type, long nanos) {
+        if (replayPlayer == null) {
+            input.press(type, nanos);
+        }
+    }
+
+    @Override
+    public void onInputReleased(EventType type, long nanos) {
+        if (replayPlayer == null) {
+            input.release(type, nanos);
         }
     }
 
     /**
-     * Checks whether the current brick can move down to a new Y position without
-     * colliding with existing blocks or going out of the board's boundaries.
-     *
-     *
-     * @param brick the current brick's view data, including shape and position
-     * @param newY the proposed new Y-coordinate after moving down
-     * @return true if the brick can safely move down; false if a collision would occur
+     * New game after restart
      */
-
     @Override
-    public boolean canMoveDown(ViewData brick, int newY) {
-        final int HIDDEN_ROWS = 2;
-        int[][] shape = brick.getBrickData();
-        int xPos = brick.getxPosition();
-        int[][] boardMatrix = board.getBoardMatrix();
-
-        for (int i = 0; i < shape.length; i++) {
-            for (int j = 0; j < shape[i].length; j++) {
-                if (shape[i][j] != 0) {
-                    int boardY = newY + i - HIDDEN_ROWS;
-                    int boardX = xPos + j;
-
-                    if (boardY >= boardMatrix.length || boardX >= boardMatrix[0].length) return false;
-                    if (boardMatrix[boardY][boardX] != 0) return false;
-                }
-            }
+    public void createNewGame() {
+        if (replayPlayer != null || versus != null) {
+            // A replay cannot be restarted on the same board, nor a match once it has started
+            return;
+        }
+        input.clear();
+        if (stats != null) {
+            stats.finish(GameRecord.End.ABANDONED);
         }
-        return true;
+        engine.newGame();
+        viewGuiController.refreshGameBackground(board.getBoardMatrix(), board.getChanges());
+        updateGhostPiece();
+
+        // Show held block (will be empty initially)
+        updateHeldBlock();
+    }
+
+    /**
+     * Updates the Held Block preview in the GUI on the next frame
+     */
+    private void updateHeldBlock() {
+        uiBus.publish(UiEventBus.HOLD, board.getHeldShape());
     }
 
     /**
-     * Updates the Next Block preview in the GUI
+     * Updates the Next Block preview in the GUI on the next frame
      */
     private void updateNextBlock() {
         NextShapeInfo nextShape = board.getNextShape();
         if (nextShape != null) {
-            viewGuiController.showNextBlock(nextShape);
+            uiBus.publish(UiEventBus.NEXT, nextShape);
         }
     }
 
@@ -185,103 +361,64 @@ public class GameController implements InputEventListener {
      * Update the ghost piece landing at
      */
     private void updateGhostPiece() {
-        int[][] ghostData = getGhostPiecePosition();
+        // Falling straight down never changes where the brick lands, so the ghost
+        // only needs recomputing after a sideways move, a rotation, a lock or a spawn
+        if (!ghostDirty) {
+            return;
+        }
+        ghostDirty = false;
+        int[][] ghostData = getGhostPiecePosition(board);
         viewGuiController.drawGhostPiece(ghostData);
     }
 
     /**
-     * Finds how far down the brick can fall before colliding
-     * @return
+     * Finds where the brick will land, using the board's column height cache.
+     * Package-private and static so it can be benchmarked without a GUI.
+     *
+     * @param board the board holding the falling brick
+     * @return the rows of the brick shape followed by a row holding the ghost {x, y}
      */
-    private int[][] getGhostPiecePosition() {
-        int[][] currentShape = board.getViewData().getBrickData();
-        int currentX = board.getViewData().getxPosition();
-        int currentY = board.getViewData().getyPosition();
-
-        int ghostY = currentY;
-
-        // Move down until collision
-        while (!checkCollision(currentShape, currentX, ghostY + 1)) {
-            ghostY++;
-        }
+    static int[][] getGhostPiecePosition(Board board) {
+        ViewData viewData = board.getViewData();
+        int[][] currentShape = viewData.getBrickData();
+        int currentX = viewData.getxPosition();
+        int ghostY = viewData.getyPosition() + board.getDropDistance();
 
         // Return shape + ghost position
-        return new int[][] {
-                {currentShape[0][0], currentShape[0][1], currentShape[0][2], currentShape[0][3]},
-                {currentShape[1][0], currentShape[1][1], currentShape[1][2], currentShape[1][3]},
-                {currentShape[2][0], currentShape[2][1], currentShape[2][2], currentShape[2][3]},
-                {currentShape[3][0], currentShape[3][1], currentShape[3][2], currentShape[3][3]},
-                {currentX, ghostY}
-        };
+        int[][] ghostData = Arrays.copyOf(currentShape, currentShape.length + 1);
+        ghostData[currentShape.length] = new int[] {currentX, ghostY};
+        return ghostData;
     }
 
     /**
-     * Checks whether it will collide with other block
+     * Handles the "undo" event.
+     * Returns the game to the moment the last locked brick spawned; keys still held are dropped.
      *
-     * @param shape the 2D matrix representing the current brick's shape
-     * @param x the x-coordinate where the shape will be placed
-     * @param y the y-coordinate where the shape will be placed
-     * @return true if a collision will occur; false otherwise
+     * @return the ViewData of the brick, or null if nothing was undone
      */
-
-    private boolean checkCollision(int[][] shape, int x,int y) {
-        int[][] boardMatrix = board.getBoardMatrix();
-
-        for (int i = 0; i < shape.length; i++) {
-            for (int j = 0; j < shape[i].length; j++) {
-                if (shape[i][j] != 0) {
-                    int boardX = x + j;
-                    int boardY = y + i;
-
-                    if (boardX < 0 || boardX >= boardMatrix[0].length || boardY >= boardMatrix.length || (boardY >= 0 && boardMatrix[boardY][boardX] != 0)) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
+    @Override
+    public ViewData onUndoEvent() {
+        return rewound(replayPlayer == null && versus == null && engine.undo());
     }
 
-
     /**
-     * Handles the "hard drop" event.
-     * Drops the current brick instantly to the bottom and returns the resulting DownData.
+     * Handles the "redo" event.
+     * Plays the brick after the current one again, if it was undone.
      *
-     * @param event the move event containing event type and source
-     * @return DownData object containing clear row info, updated view data, and lock status
+     * @return the ViewData of the brick, or null if nothing was redone
      */
     @Override
-    public DownData onHardDropEvent(MoveEvent event) {
-        DownData downData;
-        do {
-            downData = onDownEvent(new MoveEvent(EventType.DOWN, EventSource.USER));
-        } while (!downData.isLocked());
-        return downData;
+    public ViewData onRedoEvent() {
+        return rewound(replayPlayer == null && versus == null && engine.redo());
     }
 
-    /**
-     * Handles the "hold" event.
-     * Swaps the current brick with the held brick (if any).
-     *
-     * @return HoldEvent containing the new current piece and held piece information, or null if hold was already used
-     */
-    @Override
-    public HoldEvent onHoldEvent() {
-        HoldShapeInfo holdInfo = board.holdBrick();
-        if (holdInfo == null) {
-            return null; // Hold was already used for this piece
+    private ViewData rewound(boolean rewound) {
+        if (!rewound) {
+            return null;
         }
-
-        // Update the view with the new current piece
-        ViewData newViewData = board.getViewData();
+        input.clear();
         updateGhostPiece();
-
-        // Update next block preview
-        updateNextBlock();
-        // Update held block preview
-        updateHeldBlock();
-
-        return new HoldEvent(newViewData, holdInfo);
+        return board.getViewData();
     }
 
 
@@ -0,0 +1,744 @@
+package com.comp2042;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Headless game engine that drives a {@link Board} through discrete ticks and input commands.
+ * <p>
+ * The engine owns the game rules: gravity, locking, row clearing, scoring, spawning
+ * and game over. It has no JavaFX dependency and reports what happened through
+ * {@link GameEventListener} callbacks, so it can run on a server without a display
+ * or be wrapped by the GUI through {@link GameController}.
+ * </p>
+ * <p>
+ * Commands return plain booleans and do not build view objects, which keeps the
+ * hot path allocation-light when simulating many games.
+ * </p>
+ * <p>
+ * A tick is one step of a fixed-timestep loop running at {@link #TICKS_PER_SECOND};
+ * gravity is a counter of ticks per row. With level gravity enabled the engine
+ * shortens that interval itself as lines are cleared, so the speed-up is part of
+ * the game rules and plays back identically from a replay.
+ * </p>
+ * <p>
+ * With a lock delay set, a brick that lands is not locked at once: it rests on
+ * the stack for {@link #getLockDelay()} ticks, and each successful shift or
+ * rotation on the ground restarts that delay, up to {@link #MAX_LOCK_RESETS}
+ * times per row reached. Without one, a brick locks on the first failed step down.
+ * </p>
+ * <p>
+ * In versus mode, garbage received from opponents is queued with
+ * {@link #receiveGarbage(int, int)}. A lock that clears lines first cancels
+ * queued garbage with its attack, see {@link #attackFor(int)}, and reports what
+ * is left as sent; a lock that clears nothing raises the queued garbage into the
+ * board before the next brick spawns.
+ * </p>
+ * <p>
+ * With a history enabled, see {@link #enableHistory(int)}, the engine takes a
+ * {@link BoardSnapshot} whenever a brick spawns. {@link #undo()}, {@link #redo()}
+ * and {@link #rewindTo(int)} restore one of them in O(rows * columns), however
+ * long the game: the board takes back the snapshot's rows, rebuilds its column
+ * heights (and a {@link BitBoard} its row masks) from them and is repainted whole.
+ * Taking a snapshot costs an array of row references, O(rows); unchanged rows are
+ * shared, so each brick adds a few hundred bytes on the standard board.
+ * </p>
+ */
+public class GameEngine {
+
+    /** Logic ticks per second of the loop driving the engine in the GUI. */
+    public static final int TICKS_PER_SECOND = 60;
+
+    /** Cleared lines needed to reach the next level. */
+    public static final int LINES_PER_LEVEL = 5;
+
+    /** Lock delay of the GUI game: half a second. */
+    public static final int DEFAULT_LOCK_DELAY = TICKS_PER_SECOND / 2;
+
+    /** Shifts or rotations on the ground that may restart the lock delay before the brick falls again. */
+    public static final int MAX_LOCK_RESETS = 15;
+
+    private final Board board;
+    private final List<GameEventListener> listeners = new ArrayList<>();
+    private long tick;
+    private int gravityInterval = 1;
+    private int gravityCounter;
+    private boolean levelGravity;
+    private int lockDelay;
+    private int lockCounter;
+    private int lockResets;
+    private boolean grounded;
+    private boolean gameOver;
+    private ClearRow lastClearRow;
+    private int lastDropDistance;
+    private int[] garbageRows = new int[4];
+    private int[] garbageHoles = new int[4];
+    private int garbageCount;
+    private GameHistory history;
+    private int piece = -1;
+
+    /**
+     * Creates an engine for the given board. Call {@link #start()} or
+     * {@link #newGame()} before issuing commands.
+     *
+     * @param board the board to drive
+     */
+    public GameEngine(Board board) {
+        this.board = board;
+    }
+
+    /**
+     * Returns the board driven by this engine.
+     *
+     * @return the board
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Registers a listener for game events.
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(GameEventListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeListener(GameEventListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Sets how many ticks pass between two gravity steps.
+     *
+     * @param ticksPerRow the number of ticks per row, at least 1
+     */
+    public void setGravityInterval(int ticksPerRow) {
+        this.gravityInterval = Math.max(1, ticksPerRow);
+    }
+
+    /**
+     * Enables or disables the level-based gravity curve. When enabled the gravity
+     * interval follows {@link #gravityForLevel(int)} and is updated on every clear.
+     *
+     * @param enabled true to speed up gravity as the level rises
+     */
+    public void setLevelGravity(boolean enabled) {
+        this.levelGravity = enabled;
+        updateLevelGravity();
+    }
+
+    /**
+     * Returns whether the level-based gravity curve is enabled.
+     *
+     * @return true if gravity speeds up with the level
+     */
+    public boolean isLevelGravity() {
+        return levelGravity;
+    }
+
+    /**
+     * Returns the current level. Level 1 is the start; every {@link #LINES_PER_LEVEL}
+     * cleared lines add one.
+     *
+     * @return the level
+     */
+    public int getLevel() {
+        return board.getScore().getLines() / LINES_PER_LEVEL + 1;
+    }
+
+    /**
+     * Returns the gravity interval for a level: 400 ms per row at level 1, 40 ms
+     * faster per level, but never faster than 100 ms per row.
+     *
+     * @param level the level, starting at 1
+     * @return the number of ticks per row
+     */
+    public static int gravityForLevel(int level) {
+        int millis = Math.max(400 - (level - 1) * 40, 100);
+        return millis * TICKS_PER_SECOND / 1000;
+    }
+
+    /**
+     * Returns how many ticks pass between two gravity steps.
+     *
+     * @return the number of ticks per row
+     */
+    public int getGravityInterval() {
+        return gravityInterval;
+    }
+
+    /**
+     * Sets how many ticks a landed brick rests before it locks.
+     *
+     * @param ticks the lock delay in ticks, or 0 to lock as soon as the brick cannot fall
+     */
+    public void setLockDelay(int ticks) {
+        this.lockDelay = Math.max(0, ticks);
+        if (lockDelay == 0) {
+            grounded = false;
+        }
+    }
+
+    /**
+     * Returns how many ticks a landed brick rests before it locks.
+     *
+     * @return the lock delay in ticks, 0 if bricks lock at once
+     */
+    public int getLockDelay() {
+        return lockDelay;
+    }
+
+    /**
+     * Spawns the first brick on the board as it currently is.
+     */
+    public void start() {
+        gameOver = false;
+        garbageCount = 0;
+        piece = -1;
+        if (history != null) {
+            history.clear();
+        }
+        tick = 0;
+        gravityCounter = 0;
+        updateLevelGravity();
+        for (GameEventListener listener : listeners) {
+            listener.onGameStarted();
+        }
+        spawn();
+    }
+
+    /**
+     * Resets the board and score and spawns the first brick of a new game.
+     */
+    public void newGame() {
+        board.newGame();
+        gameOver = board.createNewBrick();
+        garbageCount = 0;
+        piece = 0;
+        if (history != null) {
+            history.clear();
+            if (!gameOver) {
+                history.record(piece, board.snapshot());
+            }
+        }
+        tick = 0;
+        gravityCounter = 0;
+        updateLevelGravity();
+        resetLockDelay();
+        lastClearRow = null;
+        lastDropDistance = 0;
+        for (GameEventListener listener : listeners) {
+            listener.onGameStarted();
+        }
+        fireScoreChanged();
+        for (GameEventListener listener : listeners) {
+            listener.onBrickSpawned();
+        }
+        if (gameOver) {
+            fireGameOver();
+        }
+    }
+
+    /**
+     * Advances the game by one tick, applying gravity when it is due, or running
+     * down the lock delay while the brick rests on the stack.
+     *
+     * @return true if the falling brick locked during this tick
+     */
+    public boolean tick() {
+        tick++;
+        if (gameOver) {
+            return false;
+        }
+        if (grounded) {
+            if (++lockCounter < lockDelay) {
+                return false;
+            }
+            lock();
+            return true;
+        }
+        if (++gravityCounter < gravityInterval) {
+            return false;
+        }
+        gravityCounter = 0;
+        return !fall() && lockDelay == 0;
+    }
+
+    /**
+     * Applies a player command.
+     *
+     * @param type the command
+     * @return true if the command changed the falling brick
+     */
+    public boolean apply(EventType type) {
+        switch (type) {
+            case DOWN: return moveDown();
+            case LEFT: return moveLeft();
+            case RIGHT: return moveRight();
+            case ROTATE: return rotate();
+            case HARD_DROP: return hardDrop();
+            case HOLD: return hold() != null;
+            default: throw new IllegalArgumentException("Unknown command " + type);
+        }
+    }
+
+    /**
+     * Moves the falling brick one row down. If it cannot move it is locked, unless
+     * a lock delay is set, in which case it keeps resting until the delay runs out.
+     *
+     * @return true if the brick moved
+     */
+    public boolean moveDown() {
+        if (gameOver) {
+            return false;
+        }
+        fireCommand(EventType.DOWN);
+        return fall();
+    }
+
+    /**
+     * Moves the falling brick one column to the left.
+     *
+     * @return true if the brick moved
+     */
+    public boolean moveLeft() {
+        if (gameOver) {
+            return false;
+        }
+        fireCommand(EventType.LEFT);
+        return shifted(board.moveBrickLeft());
+    }
+
+    /**
+     * Moves the falling brick one column to the right.
+     *
+     * @return true if the brick moved
+     */
+    public boolean moveRight() {
+        if (gameOver) {
+            return false;
+        }
+        fireCommand(EventType.RIGHT);
+        return shifted(board.moveBrickRight());
+    }
+
+    /**
+     * Rotates the falling brick.
+     *
+     * @return true if the brick rotated
+     */
+    public boolean rotate() {
+        if (gameOver) {
+            return false;
+        }
+        fireCommand(EventType.ROTATE);
+        return shifted(board.rotateLeftBrick());
+    }
+
+    /**
+     * Drops the falling brick to the bottom and locks it. The landing row comes
+     * straight from the board's column heights, so the brick moves, merges and
+     * clears once however far it falls.
+     *
+     * @return true if a brick was dropped; false once the game is over
+     */
+    public boolean hardDrop() {
+        if (gameOver) {
+            return false;
+        }
+        fireCommand(EventType.HARD_DROP);
+        lastDropDistance = board.dropBrick();
+        lock();
+        return true;
+    }
+
+    /**
+     * Queues garbage sent by an opponent. It rises into the board after the next
+     * lock that clears no lines, unless line clears cancel it first.
+     *
+     * @param rows the number of garbage rows
+     * @param hole the column left empty in the garbage rows
+     * @throws IllegalArgumentException if the hole is not a column of the board
+     */
+    public void receiveGarbage(int rows, int hole) {
+        int columns = board.getBoardMatrix()[0].length;
+        if (hole < 0 || hole >= columns) {
+            throw new IllegalArgumentException("Garbage hole " + hole + " is not one of " + columns + " columns");
+        }
+        if (gameOver || rows <= 0) {
+            return;
+        }
+        if (garbageCount == garbageRows.length) {
+            garbageRows = Arrays.copyOf(garbageRows, garbageCount * 2);
+            garbageHoles = Arrays.copyOf(garbageHoles, garbageCount * 2);
+        }
+        garbageRows[garbageCount] = rows;
+        garbageHoles[garbageCount] = hole;
+        garbageCount++;
+    }
+
+    /**
+     * Returns the number of garbage rows queued and not yet raised into the board.
+     *
+     * @return the number of rows
+     */
+    public int getPendingGarbage() {
+        int rows = 0;
+        for (int i = 0; i < garbageCount; i++) {
+            rows += garbageRows[i];
+        }
+        return rows;
+    }
+
+    /**
+     * Returns the number of garbage rows a lock sends to the opponents for clearing
+     * lines at once: none for a single, one for a double, two for a triple and
+     * four for a tetris.
+     *
+     * @param lines the number of lines cleared by one lock
+     * @return the number of garbage rows
+     */
+    public static int attackFor(int lines) {
+        return lines >= 4 ? 4 : Math.max(0, lines - 1);
+    }
+
+    /**
+     * Keeps a snapshot of the board for each of the last {@code capacity} bricks,
+     * starting with the next brick to spawn, so they can be returned to with
+     * {@link #undo()}, {@link #redo()} and {@link #rewindTo(int)}. To keep the same
+     * bricks after a rewind, create the board with a
+     * {@link com.comp2042.logic.bricks.RewindableBrickGenerator}. If a game is
+     * under way its falling brick is the first one kept.
+     *
+     * @param capacity the number of bricks to keep
+     */
+    public void enableHistory(int capacity) {
+        history = new GameHistory(capacity);
+        if (piece >= 0 && !gameOver) {
+            history.record(piece, board.snapshot());
+        }
+    }
+
+    /**
+     * Returns the history of the game.
+     *
+     * @return the history, or null if it is not enabled
+     */
+    public GameHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * Returns the number of the falling brick in the current game, counting from 0.
+     * It is also the number of bricks locked so far.
+     *
+     * @return the brick number, or -1 before the game has started
+     */
+    public int getPiece() {
+        return piece;
+    }
+
+    /**
+     * Takes back the last brick locked: returns to the moment it spawned. After a
+     * game over, returns to the brick that ended the game if it spawned.
+     *
+     * @return true if the game was rewound; false without history or if the brick is no longer kept
+     */
+    public boolean undo() {
+        if (history == null) {
+            return false;
+        }
+        return rewindTo(gameOver && history.contains(piece) ? piece : piece - 1);
+    }
+
+    /**
+     * Plays an undone brick again: returns to the moment the brick after the
+     * current one spawned, if it was not dropped by playing on since.
+     *
+     * @return true if the game moved forward
+     */
+    public boolean redo() {
+        return rewindTo(piece + 1);
+    }
+
+    /**
+     * Returns the game to the moment a brick spawned, with the board, score and
+     * held and upcoming bricks it had then. The game goes on from there, even
+     * after a game over; pending garbage and the lock delay start afresh.
+     *
+     * @param target the number of the brick, see {@link #getPiece()}
+     * @return true if the game was rewound; false without history or if the brick is not kept
+     */
+    public boolean rewindTo(int target) {
+        BoardSnapshot snapshot = history != null ? history.get(target) : null;
+        if (snapshot == null) {
+            return false;
+        }
+        board.restore(snapshot);
+        piece = target;
+        gameOver = false;
+        garbageCount = 0;
+        gravityCounter = 0;
+        resetLockDelay();
+        lastClearRow = null;
+        lastDropDistance = 0;
+        updateLevelGravity();
+        for (GameEventListener listener : listeners) {
+            listener.onRewound(target);
+        }
+        fireScoreChanged();
+        return true;
+    }
+
+    /**
+     * Swaps the falling brick with the held one.
+     *
+     * @return the new held brick, or null if hold was not allowed
+     */
+    public HoldShapeInfo hold() {
+        if (gameOver) {
+            return null;
+        }
+        fireCommand(EventType.HOLD);
+        HoldShapeInfo held = board.holdBrick();
+        if (held != null) {
+            resetLockDelay();
+            for (GameEventListener listener : listeners) {
+                listener.onHold();
+            }
+            for (GameEventListener listener : listeners) {
+                listener.onBrickSpawned();
+            }
+        }
+        return held;
+    }
+
+    /**
+     * Moves the falling brick one row down without reporting a command. A brick
+     * that cannot move is locked, or left resting on the stack if there is a lock delay.
+     *
+     * @return true if the brick moved
+     */
+    private boolean fall() {
+        if (board.moveBrickDown()) {
+            if (lockDelay > 0) {
+                // Every new row reached gives the brick its full delay and resets back
+                lockCounter = 0;
+                lockResets = 0;
+                grounded = board.getDropDistance() == 0;
+            }
+            return true;
+        }
+        if (lockDelay > 0) {
+            grounded = true;
+        } else {
+            lock();
+        }
+        return false;
+    }
+
+    /**
+     * Reports a successful shift or rotation, restarts the lock delay if the brick
+     * was on the ground and resets are left, and checks whether it still rests on the stack.
+     *
+     * @param moved whether the brick moved
+     * @return {@code moved}
+     */
+    private boolean shifted(boolean moved) {
+        if (!moved) {
+            return false;
+        }
+        for (GameEventListener listener : listeners) {
+            listener.onBrickShifted();
+        }
+        if (lockDelay > 0) {
+            if (grounded && lockResets < MAX_LOCK_RESETS) {
+                lockResets++;
+                lockCounter = 0;
+            }
+            grounded = board.getDropDistance() == 0;
+        }
+        return true;
+    }
+
+    /**
+     * Gives a freshly spawned brick its full lock delay.
+     */
+    private void resetLockDelay() {
+        lockCounter = 0;
+        lockResets = 0;
+        grounded = lockDelay > 0 && !gameOver && board.getDropDistance() == 0;
+    }
+
+    /**
+     * Merges the falling brick, clears rows, updates the score and spawns the next brick.
+     */
+    private void lock() {
+        board.mergeBrickToBackground();
+        ClearRow clearRow = board.clearRows();
+        lastClearRow = clearRow;
+        if (clearRow.getLinesRemoved() > 0) {
+            board.getScore().add(clearRow.getScoreBonus());
+        }
+        for (GameEventListener listener : listeners) {
+            listener.onBrickLocked(clearRow);
+        }
+        if (clearRow.getLinesRemoved() > 0) {
+            updateLevelGravity();
+            fireScoreChanged();
+            int attack = cancelGarbage(attackFor(clearRow.getLinesRemoved()));
+            if (attack > 0) {
+                for (GameEventListener listener : listeners) {
+                    listener.onGarbageSent(attack);
+                }
+            }
+        } else if (garbageCount > 0 && raiseGarbage()) {
+            gameOver = true;
+            fireGameOver();
+            return;
+        }
+        spawn();
+    }
+
+    /**
+     * Takes an attack off the queued garbage, oldest first.
+     *
+     * @param attack the number of garbage rows the lock would send
+     * @return the rows left to send once the queue is empty
+     */
+    private int cancelGarbage(int attack) {
+        int first = 0;
+        while (attack > 0 && first < garbageCount) {
+            int cancelled = Math.min(attack, garbageRows[first]);
+            attack -= cancelled;
+            garbageRows[first] -= cancelled;
+            if (garbageRows[first] == 0) {
+                first++;
+            }
+        }
+        if (first > 0) {
+            garbageCount -= first;
+            System.arraycopy(garbageRows, first, garbageRows, 0, garbageCount);
+            System.arraycopy(garbageHoles, first, garbageHoles, 0, garbageCount);
+        }
+        return attack;
+    }
+
+    /**
+     * Raises all queued garbage into the board.
+     *
+     * @return true if the stack was pushed off the top of the board
+     */
+    private boolean raiseGarbage() {
+        int rows = 0;
+        boolean toppedOut = false;
+        for (int i = 0; i < garbageCount; i++) {
+            toppedOut |= board.addGarbage(garbageRows[i], garbageHoles[i]);
+            rows += garbageRows[i];
+        }
+        garbageCount = 0;
+        for (GameEventListener listener : listeners) {
+            listener.onGarbageAdded(rows);
+        }
+        return toppedOut;
+    }
+
+    /**
+     * Spawns the next brick and reports game over if it collides immediately.
+     */
+    private void spawn() {
+        boolean collides = board.createNewBrick();
+        gameOver = collides;
+        piece++;
+        if (history != null) {
+            if (collides) {
+                history.truncate(piece);
+            } else {
+                history.record(piece, board.snapshot());
+            }
+        }
+        resetLockDelay();
+        for (GameEventListener listener : listeners) {
+            listener.onBrickSpawned();
+        }
+        if (collides) {
+            fireGameOver();
+        }
+    }
+
+    private void fireScoreChanged() {
+        Score score = board.getScore();
+        for (GameEventListener listener : listeners) {
+            listener.onScoreChanged(score.getScore(), score.getLines());
+        }
+    }
+
+    /**
+     * Applies the gravity interval of the current level, if level gravity is enabled.
+     * The gravity counter is kept, so a level-up never skips or delays the next drop
+     * by more than the new interval.
+     */
+    private void updateLevelGravity() {
+        if (levelGravity) {
+            gravityInterval = gravityForLevel(getLevel());
+        }
+    }
+
+    private void fireCommand(EventType type) {
+        for (GameEventListener listener : listeners) {
+            listener.onCommand(tick, type);
+        }
+    }
+
+    private void fireGameOver() {
+        for (GameEventListener listener : listeners) {
+            listener.onGameOver();
+        }
+    }
+
+    /**
+     * Returns how many rows the most recent hard drop moved the brick, e.g. to
+     * award drop points. The engine's own scoring does not use it: only line
+     * clears score, so scores stay comparable across versions and replays.
+     *
+     * @return the drop distance in rows, 0 if no brick has been hard dropped yet in this game
+     */
+    public int getLastDropDistance() {
+        return lastDropDistance;
+    }
+
+    /**
+     * Returns the result of the most recent lock.
+     *
+     * @return the last ClearRow, or null if no brick has locked yet in this game
+     */
+    public ClearRow getLastClearRow() {
+        return lastClearRow;
+    }
+
+    /**
+     * Returns the number of ticks since the game started.
+     *
+     * @return the tick count
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Returns whether the game has ended.
+     *
+     * @return true after game over
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+}
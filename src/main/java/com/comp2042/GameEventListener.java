@@ -0,0 +1,88 @@
+package com.comp2042;
+
+/**
+ * Receives the results produced by a {@link GameEngine}.
+ * <p>
+ * All methods have empty defaults so listeners only override what they need.
+ * Events are delivered synchronously on the thread driving the engine.
+ * </p>
+ */
+public interface GameEventListener {
+
+    /**
+     * Called after the falling brick has been merged into the board and full rows removed.
+     *
+     * @param clearRow the result of the row clear, with zero lines if nothing was cleared
+     */
+    default void onBrickLocked(ClearRow clearRow) { }
+
+    /**
+     * Called whenever the score or the cleared line count changes, including on a new game.
+     *
+     * @param score the current score
+     * @param lines the total number of cleared lines
+     */
+    default void onScoreChanged(int score, int lines) { }
+
+    /**
+     * Called when a lock clears enough lines to attack the opponents in versus mode,
+     * after queued garbage has been cancelled.
+     *
+     * @param rows the number of garbage rows to send
+     */
+    default void onGarbageSent(int rows) { }
+
+    /**
+     * Called after queued garbage has pushed the stack up, before the next brick spawns.
+     *
+     * @param rows the number of garbage rows added
+     */
+    default void onGarbageAdded(int rows) { }
+
+    /**
+     * Called when a new falling brick has been spawned, either after a lock or a hold.
+     * The next brick preview may have changed as well.
+     */
+    default void onBrickSpawned() { }
+
+    /**
+     * Called when a hold is accepted: the falling brick went into the hold, just
+     * before {@link #onBrickSpawned()} for the brick that replaces it. A hold the
+     * board refuses, or one after the game is over, is not reported.
+     */
+    default void onHold() { }
+
+    /**
+     * Called after the falling brick moved one column sideways or rotated, so
+     * where it lands may have changed. Blocked moves and rotations are not reported.
+     */
+    default void onBrickShifted() { }
+
+    /**
+     * Called once when a newly spawned brick collides immediately.
+     */
+    default void onGameOver() { }
+
+    /**
+     * Called when the engine starts a game, either the first one or a new one.
+     */
+    default void onGameStarted() { }
+
+    /**
+     * Called after the game was returned to an earlier brick with
+     * {@link GameEngine#undo()}, {@link GameEngine#redo()} or {@link GameEngine#rewindTo(int)}.
+     * The whole board, the bricks and the score may have changed.
+     *
+     * @param piece the number of the brick the game is now at
+     */
+    default void onRewound(int piece) { }
+
+    /**
+     * Called before a player command is applied, with the tick it is applied at.
+     * Gravity steps are not commands; they follow from the ticks.
+     *
+     * @param tick the number of ticks since the game started
+     * @param type the command
+     */
+    default void onCommand(long tick, EventType type) { }
+}
@@ -0,0 +1,112 @@
+package com.comp2042;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size ring of {@link BoardSnapshot}s, one per brick of a game, indexed
+ * by the number of the brick.
+ * <p>
+ * The {@link GameEngine} records a snapshot whenever a brick spawns. Recording
+ * brick {@code n} drops every snapshot after it, so after a rewind the bricks
+ * ahead stay available for a redo until the game moves on. Once the ring is
+ * full the oldest bricks are forgotten. Recording, dropping and looking up
+ * snapshots take constant time and {@link #clear()} is linear in the capacity;
+ * the cost of a rewind is in restoring the board, see {@link Board#restore(BoardSnapshot)}.
+ * </p>
+ */
+public final class GameHistory {
+
+    private final BoardSnapshot[] snapshots;
+    private int oldest;
+    private int newest = -1;
+
+    /**
+     * Creates an empty history.
+     *
+     * @param capacity the number of bricks kept, at least 1
+     * @throws IllegalArgumentException if the capacity is less than 1
+     */
+    public GameHistory(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        snapshots = new BoardSnapshot[capacity];
+    }
+
+    /**
+     * Records the snapshot of a brick and drops the snapshots of the bricks after it.
+     *
+     * @param piece    the number of the brick in the game, from 0
+     * @param snapshot the board as the brick spawned
+     */
+    void record(int piece, BoardSnapshot snapshot) {
+        snapshots[piece % snapshots.length] = snapshot;
+        newest = piece;
+        oldest = Math.min(piece, Math.max(oldest, piece - snapshots.length + 1));
+    }
+
+    /**
+     * Drops the snapshots of a brick and every brick after it.
+     *
+     * @param piece the number of the first brick to drop
+     */
+    void truncate(int piece) {
+        newest = Math.min(newest, piece - 1);
+    }
+
+    /**
+     * Forgets every snapshot, e.g. when a new game starts.
+     */
+    void clear() {
+        Arrays.fill(snapshots, null);
+        oldest = 0;
+        newest = -1;
+    }
+
+    /**
+     * Returns the snapshot of a brick.
+     *
+     * @param piece the number of the brick
+     * @return the snapshot, or null if the brick is not kept
+     */
+    public BoardSnapshot get(int piece) {
+        return contains(piece) ? snapshots[piece % snapshots.length] : null;
+    }
+
+    /**
+     * Tells whether the snapshot of a brick is kept.
+     *
+     * @param piece the number of the brick
+     * @return true if {@link #get(int)} returns it
+     */
+    public boolean contains(int piece) {
+        return piece >= oldest && piece <= newest;
+    }
+
+    /**
+     * Returns the number of the oldest brick kept.
+     *
+     * @return the brick number, or 0 if the history is empty
+     */
+    public int getOldest() {
+        return oldest;
+    }
+
+    /**
+     * Returns the number of the newest brick kept.
+     *
+     * @return the brick number, or -1 if the history is empty
+     */
+    public int getNewest() {
+        return newest;
+    }
+
+    /**
+     * Returns the number of bricks the history can keep.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return snapshots.length;
+    }
+}
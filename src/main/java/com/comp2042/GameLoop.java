@@ -0,0 +1,104 @@
+package com.comp2042;
+
+import com.comp2042.perf.Perf;
+import com.comp2042.perf.Probe;
+import javafx.animation.AnimationTimer;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Fixed-timestep loop that drives the game logic and the rendering on the FX thread.
+ * <p>
+ * Every pulse the elapsed time is added to an accumulator, and the logic step
+ * runs once per {@link GameEngine#TICKS_PER_SECOND}th of a second that has
+ * accumulated, however irregular the pulses are. The render step then runs once,
+ * so drawing happens at the display rate while the logic stays at its fixed rate.
+ * While paused the logic does not run and no time is accumulated, so resuming
+ * never triggers a burst of catch-up ticks.
+ * </p>
+ * <p>
+ * Each logic tick is given the time its slice of the accumulated interval ends,
+ * so input stamped with the same clock can be assigned to the tick it happened in.
+ * </p>
+ */
+public class GameLoop extends AnimationTimer {
+
+    /** Length of one logic tick in nanoseconds. */
+    public static final long TICK_NANOS = 1_000_000_000L / GameEngine.TICKS_PER_SECOND;
+
+    /** Logic ticks allowed per pulse; time beyond that after a long stall is dropped. */
+    private static final int MAX_TICKS_PER_PULSE = 5;
+
+    private final LongConsumer logicTick;
+    private final Runnable render;
+    private long lastPulse = -1;
+    private long accumulator;
+    private boolean paused;
+
+    /**
+     * Creates a loop.
+     *
+     * @param logicTick run once per logic tick with the end time of the tick, in nanoseconds
+     * @param render    run once per pulse, after the logic ticks
+     */
+    public GameLoop(LongConsumer logicTick, Runnable render) {
+        this.logicTick = logicTick;
+        this.render = render;
+    }
+
+    @Override
+    public void start() {
+        lastPulse = -1;
+        accumulator = 0;
+        super.start();
+    }
+
+    @Override
+    public void handle(long now) {
+        long pulseStart = Perf.start();
+        if (lastPulse < 0) {
+            lastPulse = now;
+        }
+        long elapsed = now - lastPulse;
+        lastPulse = now;
+        if (elapsed > 0) {
+            Perf.pulse(elapsed, TICK_NANOS);
+        }
+
+        if (!paused) {
+            accumulator += elapsed;
+            int ticks = 0;
+            while (accumulator >= TICK_NANOS && ticks < MAX_TICKS_PER_PULSE) {
+                accumulator -= TICK_NANOS;
+                logicTick.accept(now - accumulator);
+                ticks++;
+            }
+            if (ticks == MAX_TICKS_PER_PULSE) {
+                accumulator = Math.min(accumulator, TICK_NANOS);
+            }
+        }
+        render.run();
+        Perf.stop(Probe.PULSE, pulseStart);
+    }
+
+    /**
+     * Pauses or resumes the logic ticks. Rendering continues either way.
+     *
+     * @param paused true to stop running logic ticks
+     */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+        if (paused) {
+            accumulator = 0;
+        }
+    }
+
+    /**
+     * Returns whether the logic ticks are paused.
+     *
+     * @return true while paused
+     */
+    public boolean isPaused() {
+        return paused;
+    }
+}
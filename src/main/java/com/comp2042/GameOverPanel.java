@@ -1,21 +1,53 @@
 package com.comp2042;
 
+import com.comp2042.stats.GameRecord;
+import javafx.geometry.Pos;
 import javafx.scene.control.Label;
 import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.VBox;
+
+import java.util.List;
 
 /**
  * GameOverPanel represents the UI panel displayed when the game ends.
- * It extends BorderPane and shows a centered "GAME OVER" label.
+ * It extends BorderPane and shows a centered "GAME OVER" label
+ * above the leaderboard of the best games.
  */
 public class GameOverPanel extends BorderPane {
 
+    /** Number of leaderboard entries shown under the label. */
+    private static final int SHOWN_ENTRIES = 5;
+
+    private final Label leaderboardLabel = new Label();
+
     /**
      * Constructs a GameOverPanel with a centered "GAME OVER" label.
-     * The label uses the CSS style class "gameOverStyle".
+     * The label uses the CSS style class "gameOverStyle", the leaderboard "leaderboardStyle".
      */
     public GameOverPanel() {
         final Label gameOverLabel = new Label("GAME OVER");
         gameOverLabel.getStyleClass().add("gameOverStyle");
-        setCenter(gameOverLabel);
+        leaderboardLabel.getStyleClass().add("leaderboardStyle");
+        VBox content = new VBox(10, gameOverLabel, leaderboardLabel);
+        content.setAlignment(Pos.CENTER);
+        setCenter(content);
+    }
+
+    /**
+     * Shows the best games under the label.
+     *
+     * @param leaderboard the best games, best first
+     */
+    public void showLeaderboard(List<GameRecord> leaderboard) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < Math.min(SHOWN_ENTRIES, leaderboard.size()); i++) {
+            GameRecord game = leaderboard.get(i);
+            if (i > 0) {
+                text.append('\n');
+            }
+            text.append(String.format("%d. %5d  %3d lines  %.2f PPS",
+                    i + 1, game.getScore(), game.getLines(), game.getPiecesPerSecond()));
+        }
+        leaderboardLabel.setText(text.toString());
     }
 }
@@ -1,9 +1,10 @@
 package com.comp2042;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import com.comp2042.perf.Perf;
+import com.comp2042.perf.Probe;
+import com.comp2042.stats.GameRecord;
+import javafx.application.Platform;
 import javafx.beans.property.BooleanProperty;
-import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
@@ -11,21 +12,23 @@ import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.Button;
 import javafx.scene.effect.Reflection;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.BackgroundImage;
+import javafx.scene.layout.BackgroundPosition;
+import javafx.scene.layout.BackgroundRepeat;
+import javafx.scene.layout.BackgroundSize;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
-import javafx.scene.paint.Paint;
 import javafx.scene.shape.Rectangle;
-import javafx.scene.shape.StrokeType;
-import javafx.util.Duration;
 
 
 import java.net.URL;
+import java.util.List;
 import java.util.ResourceBundle;
 
 /**
@@ -41,15 +44,28 @@ public class GuiController implements Initializable {
     /** The size of each brick in pixels. */
     private static final int BRICK_SIZE = 20;
 
+    /** System property selecting the board renderer: "canvas" or the default "nodes". */
+    private static final String RENDERER_PROPERTY = "tetris.renderer";
+
+    /** The most rows and columns of the board shown at once; larger boards scroll. */
+    private static final int MAX_VIEW_ROWS = 25;
+    private static final int MAX_VIEW_COLUMNS = 40;
+
     /** The Button for pausing the game. */
     public Button pauseButton;
     /** StackPane containing pause menu. */
     public StackPane pauseMenu;
 
     @FXML
-    private ImageView minTens, minOnes, secTens, secOnes;  //image for timer
+    private DigitCounter minutesCounter, secondsCounter;  //counters for timer
+    @FXML
+    private DigitCounter lineCounter;
+
+    @FXML
+    private StackPane rootPane;
+
     @FXML
-    private ImageView lineHundreds, lineTens, lineOnes;
+    private StackPane gameBoard;
 
     @FXML
     private GridPane gamePanel;
@@ -60,32 +76,39 @@ public class GuiController implements Initializable {
     @FXML
     private Pane groupNotification;
 
+    @FXML
+    private PerfOverlay perfOverlay;
+
     @FXML
     private GridPane brickPanel;
 
     @FXML
     private GameOverPanel gameOverPanel;
 
-    private Rectangle[][] displayMatrix;
-    private Rectangle[][] activeBrick;
-    private Rectangle[][] ghostBrick;
+    @FXML
+    private HBox opponentsPane;
+
+    private OpponentView[] opponentViews;
+
+    private BoardRenderer boardRenderer;
+
+    private GameLoop gameLoop;
+    private ViewData pendingBrick;
+    private Runnable onFirstFrame;
 
-    private Timeline timeLine;
-    private Timeline timerTimeline;
+    /** With {@link Perf#ENABLED}: the first key press not yet applied by a tick, and not yet rendered. */
+    private long pressedAt;
+    private long appliedAt;
 
     private InputEventListener eventListener;
+    private UiEventBus uiBus;
+    private UiEventBus.Scope uiSubscriptions;
 
     private final BooleanProperty isPause = new SimpleBooleanProperty();
     private final BooleanProperty isGameOver = new SimpleBooleanProperty();
 
     @FXML
-    private ImageView scoreThousands;
-    @FXML
-    private ImageView scoreHundreds;
-    @FXML
-    private ImageView scoreTens;
-    @FXML
-    private ImageView scoreOnes;
+    private DigitCounter scoreCounter;
 
     @FXML
     private Pane nextBlockPane;
@@ -94,18 +117,13 @@ public class GuiController implements Initializable {
     private Pane holdBlockPane;
 
     @FXML
-    private ImageView levelHundreds;
+    private DigitCounter levelCounter;
 
-    @FXML
-    private ImageView levelTens;
-    @FXML
-    private ImageView levelOnes;
 
+    /** Length of a game in seconds. */
+    private static final int GAME_SECONDS = 180;
 
-    private int timeRemaining = 180;
-    private Image[] digits = new Image[10];
-    private Rectangle[][] ghostPieceRectangles;
-    private int totalLinesCleared = 0;
+    private int countdownTicks;
 
 
     /**
@@ -122,35 +140,44 @@ public class GuiController implements Initializable {
         gamePanel.setOnKeyPressed(new EventHandler<KeyEvent>() {
             @Override
             public void handle(KeyEvent keyEvent) {
-                if (!isPause.get() && !isGameOver.get()) {
-                    if (keyEvent.getCode() == KeyCode.LEFT || keyEvent.getCode() == KeyCode.A) {
-                        refreshBrick(eventListener.onLeftEvent(new MoveEvent(EventType.LEFT, EventSource.USER)));
-                        keyEvent.consume();
-                    }
-                    if (keyEvent.getCode() == KeyCode.RIGHT || keyEvent.getCode() == KeyCode.D) {
-                        refreshBrick(eventListener.onRightEvent(new MoveEvent(EventType.RIGHT, EventSource.USER)));
-                        keyEvent.consume();
-                    }
-                    if (keyEvent.getCode() == KeyCode.UP || keyEvent.getCode() == KeyCode.W) {
-                        refreshBrick(eventListener.onRotateEvent(new MoveEvent(EventType.ROTATE, EventSource.USER)));
-                        keyEvent.consume();
-                    }
-                    if (keyEvent.getCode() == KeyCode.DOWN || keyEvent.getCode() == KeyCode.S) {
-                        moveDown(new MoveEvent(EventType.DOWN, EventSource.USER));
-                        keyEvent.consume();
-                    }
-                    if (keyEvent.getCode() == KeyCode.SPACE) {
-                        hardDrop();
-                        keyEvent.consume();
-                    }
-                    if (keyEvent.getCode() == KeyCode.C) {
-                        hold();
-                        keyEvent.consume();
+                // Game keys are only queued here; the next logic tick applies them
+                EventType command = commandFor(keyEvent.getCode());
+                if (command != null && !isPause.get() && !isGameOver.get()) {
+                    long now = System.nanoTime();
+                    eventListener.onInputPressed(command, now);
+                    Perf.stop(Probe.INPUT_LISTENER, now);
+                    if (Perf.ENABLED && pressedAt == 0) {
+                        pressedAt = now;
                     }
+                    keyEvent.consume();
+                }
+                if (keyEvent.getCode() == KeyCode.F3) {
+                    perfOverlay.toggle();
+                }
+                if (keyEvent.getCode() == KeyCode.PERIOD && isPause.get() && !isGameOver.get()) {
+                    stepFrame();
+                    keyEvent.consume();
                 }
                 if (keyEvent.getCode() == KeyCode.N) {
                     newGame(null);
                 }
+                if (keyEvent.getCode() == KeyCode.Z || keyEvent.getCode() == KeyCode.Y) {
+                    rewind(keyEvent.getCode() == KeyCode.Z);
+                    keyEvent.consume();
+                }
+            }
+        });
+        gamePanel.setOnKeyReleased(new EventHandler<KeyEvent>() {
+            @Override
+            public void handle(KeyEvent keyEvent) {
+                // Releases always go through, so no key stays held across a pause
+                EventType command = commandFor(keyEvent.getCode());
+                if (command != null) {
+                    long now = System.nanoTime();
+                    eventListener.onInputReleased(command, now);
+                    Perf.stop(Probe.INPUT_LISTENER, now);
+                    keyEvent.consume();
+                }
             }
         });
         gameOverPanel.setVisible(false);
@@ -160,164 +187,192 @@ public class GuiController implements Initializable {
         reflection.setTopOpacity(0.9);
         reflection.setTopOffset(-12);
 
-        loadDigitImages();
-        updateScoreImages(0);
-        updateLineImages(0);
-        updateLevelImages(0);
+        // -Dtetris.perf=true shows the performance overlay; F3 hides and shows it
+        perfOverlay.start();
+
+        applyBackgrounds();
+        applyDigitAtlas();
+        scoreCounter.setValue(0);
+        lineCounter.setValue(0);
+        levelCounter.setValue(1);  // Level starts at 1
 
     }
 
     /**
-     * Initializes the game board view, creating rectangles for the grid,
-     * active brick, and ghost brick.
+     * Maps a key to the game command bound to it.
+     *
+     * @param code the key
+     * @return the command, or null if the key is not a game key
+     */
+    private static EventType commandFor(KeyCode code) {
+        switch (code) {
+            case LEFT: case A: return EventType.LEFT;
+            case RIGHT: case D: return EventType.RIGHT;
+            case UP: case W: return EventType.ROTATE;
+            case DOWN: case S: return EventType.DOWN;
+            case SPACE: return EventType.HARD_DROP;
+            case C: return EventType.HOLD;
+            default: return null;
+        }
+    }
+
+    /**
+     * Initializes the game board view through the selected {@link BoardRenderer}.
+     * Start with {@code -Dtetris.renderer=canvas} to draw the board on a single canvas
+     * instead of one rectangle per cell. A board larger than
+     * {@value #MAX_VIEW_ROWS}x{@value #MAX_VIEW_COLUMNS} is always drawn on a canvas,
+     * through a viewport that follows the falling brick.
      *
      * @param boardMatrix 2D array representing the board
      * @param brick       initial active brick data
      */
     public void initGameView(int[][] boardMatrix, ViewData brick) {
-        displayMatrix = new Rectangle[boardMatrix.length][boardMatrix[0].length];
-        for (int i = 0; i < boardMatrix.length; i++) {
-            for (int j = 0; j < boardMatrix[i].length; j++) {
-                Rectangle rectangle = new Rectangle(BRICK_SIZE, BRICK_SIZE);
-                rectangle.setFill(Color.TRANSPARENT);
-                displayMatrix[i][j] = rectangle;
-                gamePanel.add(rectangle, j, i);
-            }
+        int rows = boardMatrix.length;
+        int columns = boardMatrix[0].length;
+        boolean scrolls = rows > MAX_VIEW_ROWS || columns > MAX_VIEW_COLUMNS;
+        if (scrolls || "canvas".equals(System.getProperty(RENDERER_PROPERTY))) {
+            boardRenderer = new CanvasBoardRenderer(brickOverlay, BRICK_SIZE, MAX_VIEW_ROWS, MAX_VIEW_COLUMNS);
+        } else {
+            boardRenderer = new NodeBoardRenderer(gamePanel, brickOverlay, BRICK_SIZE);
         }
-
-        activeBrick = new Rectangle[brick.getBrickData().length][brick.getBrickData()[0].length];
-        ghostBrick = new Rectangle[brick.getBrickData().length][brick.getBrickData()[0].length];
-
-        for (int i = 0; i < brick.getBrickData().length; i++) {
-            for (int j = 0; j < brick.getBrickData()[i].length; j++) {
-                // ghost brick
-                Rectangle ghost = new Rectangle(BRICK_SIZE - 1, BRICK_SIZE - 1);
-                ghost.setFill(Color.LIGHTGRAY);
-                ghost.setOpacity(0.3);
-                ghost.setArcWidth(9);
-                ghost.setArcHeight(9);
-                ghostBrick[i][j] = ghost;
-                brickOverlay.getChildren().add(ghost);
-
-                // normal brick
-                Rectangle active = new Rectangle(BRICK_SIZE - 1, BRICK_SIZE - 1);
-                active.setFill(getFillColor(brick.getBrickData()[i][j]));
-                active.setStrokeWidth(1.2);
-                active.setStrokeType(StrokeType.CENTERED);
-                active.setArcWidth(9);
-                active.setArcHeight(9);
-                activeBrick[i][j] = active;
-                brickOverlay.getChildren().add(active);
-            }
+        boardRenderer.init(boardMatrix, brick);
+        if (columns > BoardSize.DEFAULT.getColumns()) {
+            // Widen the board frame for boards wider than the standard one
+            double width = Math.min(columns, MAX_VIEW_COLUMNS) * BRICK_SIZE;
+            gameBoard.setPrefWidth(width);
+            gameBoard.setMaxWidth(width);
         }
 
-
-        timeLine = new Timeline(new KeyFrame(
-                Duration.millis(400),
-                ae -> moveDown(new MoveEvent(EventType.DOWN, EventSource.THREAD))
-        ));
-        timeLine.setCycleCount(Timeline.INDEFINITE);
-        timeLine.play();
-        startTimer();
+        resetCountdown();
+        gameLoop = new GameLoop(this::logicTick, this::renderFrame);
+        gameLoop.start();
     }
+
     /**
-     * Returns the color associated with a given brick type ID.
+     * Runs one fixed-rate logic tick: the queued input, the engine tick (gravity and
+     * lock delay) and the countdown. Nothing is drawn here; the resulting brick
+     * position is drawn by {@link #renderFrame()}.
      *
-     * @param i the ID representing a brick type
-     * @return the corresponding Paint color for the brick
-     */
-
-    private Paint getFillColor(int i) {
-        switch (i) {
-            case 0: return Color.TRANSPARENT;
-            case 1: return Color.AQUA;
-            case 2: return Color.BLUEVIOLET;
-            case 3: return Color.DARKGREEN;
-            case 4: return Color.YELLOW;
-            case 5: return Color.RED;
-            case 6: return Color.BEIGE;
-            case 7: return Color.BURLYWOOD;
-            default: return Color.WHITE;
+     * @param tickEnd the end of the tick, on the {@link System#nanoTime()} clock
+     */
+    private void logicTick(long tickEnd) {
+        if (isGameOver.get()) {
+            return;
         }
-    }
+        long start = Perf.start();
+        DownData downData = eventListener.onTick(tickEnd);
+        Perf.stop(Probe.INPUT_LISTENER, start);
+        if (Perf.ENABLED && pressedAt != 0 && pressedAt - tickEnd <= 0) {
+            appliedAt = pressedAt;
+            pressedAt = 0;
+        }
+        showScoreNotification(downData.getClearRow());
+        pendingBrick = downData.getViewData();
 
-    /**
-     * Updates the positions and colors of the active brick's rectangles on the UI
-     * based on the current brick view data.
-     *
-     * @param brick the ViewData object representing the brick's current shape and position
-     */
-    private void updateBrickPosition(ViewData brick) {
-        // Normal brick
-        for (int i = 0; i < brick.getBrickData().length; i++) {
-            for (int j = 0; j < brick.getBrickData()[i].length; j++) {
-                Rectangle r = activeBrick[i][j];
-                int value = brick.getBrickData()[i][j];
-                r.setVisible(value != 0);
-                r.setFill(getFillColor(value));
-                r.setX((brick.getxPosition() + j) * BRICK_SIZE);
-                r.setY((brick.getyPosition() + i) * BRICK_SIZE);
+        if (!isGameOver.get() && --countdownTicks % GameEngine.TICKS_PER_SECOND == 0) {
+            updateTimer(countdownTicks / GameEngine.TICKS_PER_SECOND);
+            if (countdownTicks <= 0) {
+                eventListener.onTimeUp();
+                gameOver();
             }
         }
+    }
 
-        }
     /**
-     * Refreshes the active brick on screen unless the game is paused.
+     * Undoes or redoes a brick. An undo also takes back a game over, unless the time ran out.
      *
-     * @param brick the updated brick view data
+     * @param undo true to undo, false to redo
      */
+    private void rewind(boolean undo) {
+        if (isPause.get() || countdownTicks <= 0) {
+            return;
+        }
+        ViewData brick = undo ? eventListener.onUndoEvent() : eventListener.onRedoEvent();
+        if (brick == null) {
+            return;
+        }
+        if (isGameOver.get()) {
+            gameOverPanel.setVisible(false);
+            isGameOver.set(false);
+        }
+        pendingBrick = brick;
+    }
 
-    private void refreshBrick(ViewData brick) {
-        if (!isPause.get()) {
-            updateBrickPosition(brick);
+    /**
+     * Draws the latest brick position once per pulse, however many logic ticks ran,
+     * and the counters and previews that changed since the last pulse.
+     */
+    private void renderFrame() {
+        if (uiBus != null) {
+            uiBus.flush();
+        }
+        if (pendingBrick != null) {
+            boardRenderer.drawBrick(pendingBrick);
+            pendingBrick = null;
+            if (Perf.ENABLED && appliedAt != 0) {
+                Perf.record(Probe.INPUT_TO_RENDER, System.nanoTime() - appliedAt);
+                appliedAt = 0;
+            }
+        }
+        perfOverlay.onFrame();
+        if (onFirstFrame != null) {
+            Runnable firstFrame = onFirstFrame;
+            onFirstFrame = null;
+            firstFrame.run();
         }
     }
 
     /**
-     * Draws the background board matrix (landed tiles).
+     * Sets an action to run once, when the game loop renders its first frame.
      *
-     * @param board 2D matrix of board colors
+     * @param onFirstFrame the action, e.g. reporting the startup time
      */
+    public void setOnFirstFrame(Runnable onFirstFrame) {
+        this.onFirstFrame = onFirstFrame;
+    }
 
-    public void refreshGameBackground(int[][] board) {
-        for (int i = 0; i < board.length; i++) {
-            for (int j = 0; j < board[i].length; j++) {
-                setRectangleData(board[i][j], displayMatrix[i][j]);
-            }
-        }
+    /**
+     * Restarts the countdown at the full game length.
+     */
+    private void resetCountdown() {
+        countdownTicks = GAME_SECONDS * GameEngine.TICKS_PER_SECOND;
+        updateTimer(GAME_SECONDS);
     }
 
     /**
-     * Sets the visual appearance of a rectangle based on the brick color.
-     * Applies fill color and rounded corners.
+     * Shows the score bonus of a clear, if any rows were removed.
      *
-     * @param color the integer ID representing the brick color
-     * @param rectangle the Rectangle object to be updated
+     * @param clearRow the clear result, may be null
      */
-    private void setRectangleData(int color, Rectangle rectangle) {
-        rectangle.setFill(getFillColor(color));
-        rectangle.setArcHeight(9);
-        rectangle.setArcWidth(9);
+    private void showScoreNotification(ClearRow clearRow) {
+        if (clearRow != null && clearRow.getLinesRemoved() > 0) {
+            NotificationPanel notificationPanel = new NotificationPanel("+" + clearRow.getScoreBonus());
+            groupNotification.getChildren().add(notificationPanel);
+            notificationPanel.showScore(groupNotification.getChildren());
+        }
     }
 
     /**
-     * Handles both automatic and user-triggered downward movement of the brick.
-     * Checks for row clears and updates score notifications.
+     * Draws the rows of the background board matrix (landed tiles) that changed,
+     * then marks the changes as applied.
      *
-     * @param event type of downward movement (thread/user)
+     * @param board   2D matrix of board colors
+     * @param changes the rows changed since the last refresh
      */
 
-    private void moveDown(MoveEvent event) {
-        if (!isPause.get()) {
-            DownData downData = eventListener.onDownEvent(event);
-            if (downData.getClearRow() != null && downData.getClearRow().getLinesRemoved() > 0) {
-                NotificationPanel notificationPanel = new NotificationPanel("+" + downData.getClearRow().getScoreBonus());
-                groupNotification.getChildren().add(notificationPanel);
-                notificationPanel.showScore(groupNotification.getChildren());
-            }
-            refreshBrick(downData.getViewData());
-        }
-        gamePanel.requestFocus();
+    public void refreshGameBackground(int[][] board, BoardChanges changes) {
+        long start = Perf.start();
+        boardRenderer.drawBackground(board, changes);
+        changes.clear();
+        Perf.stop(Probe.REFRESH_BACKGROUND, start);
+    }
+
+    /**
+     * Advances the paused game by a single tick, e.g. to step through a replay
+     * frame by frame.
+     */
+    private void stepFrame() {
+        logicTick(System.nanoTime());
     }
 
     /**
@@ -331,42 +386,105 @@ public class GuiController implements Initializable {
     }
 
     /**
-     * Binds the score property to on-screen digit images.
+     * Shows the score, lines, level and brick previews published on a bus, once
+     * per frame. The view subscribes once for all the games played on it; the
+     * subscriptions to a previous bus are closed.
      *
-     * @param scoreProperty observable score value
+     * @param bus the bus the game controller publishes to
      */
+    public void setUiBus(UiEventBus bus) {
+        if (uiSubscriptions != null) {
+            uiSubscriptions.close();
+        }
+        uiBus = bus;
+        uiSubscriptions = bus.openScope()
+                .subscribe(UiEventBus.SCORE, score -> scoreCounter.setValue(score))
+                .subscribe(UiEventBus.LINES, lines -> lineCounter.setValue(lines))
+                .subscribe(UiEventBus.LEVEL, level -> levelCounter.setValue(level))
+                .subscribe(UiEventBus.NEXT, this::showNextBlock)
+                .subscribe(UiEventBus.HOLD, hold -> {
+                    if (hold != null) {
+                        showHoldBlock(hold);
+                    } else {
+                        clearHoldBlock();
+                    }
+                });
+    }
 
-    public void bindScore(IntegerProperty scoreProperty) {
-        scoreProperty.addListener((obs, oldVal, newVal) -> {
-            updateScoreImages(newVal.intValue());
-        });
+    /**
+     * Stops all timelines, shows the game over screen,
+     * and marks the game as finished.
+     */
+
+    public void gameOver() {
+        gameOverPanel.setVisible(true);
+        isGameOver.setValue(true);
     }
 
     /**
-     * Binds the line counter property to digit images.
+     * Shows the best games on the game over screen.
      *
-     * @param lineProperty observable line count
+     * @param leaderboard the best games, best first
      */
+    public void showLeaderboard(List<GameRecord> leaderboard) {
+        gameOverPanel.showLeaderboard(leaderboard);
+    }
 
-    public void lineScore(IntegerProperty lineProperty) {
-        lineProperty.addListener((obs, oldVal, newVal) -> {
-            int linesCleared = newVal.intValue();
-            updateLineImages(linesCleared);
-            updateLevelImages(linesCleared);
+    /**
+     * Shows a small board for each opponent of a versus match.
+     *
+     * @param players the number of players in the match
+     * @param self    the index of the local player, who gets no small board
+     * @param rows    the number of rows of the boards
+     * @param columns the number of columns of the boards
+     */
+    public void showOpponents(int players, int self, int rows, int columns) {
+        opponentViews = new OpponentView[players];
+        opponentsPane.getChildren().clear();
+        for (int i = 0; i < players; i++) {
+            if (i != self) {
+                opponentViews[i] = new OpponentView(rows, columns);
+                opponentsPane.getChildren().add(opponentViews[i]);
+            }
+        }
+        opponentsPane.setVisible(true);
+    }
 
-        });
+    /**
+     * Shows the latest board of an opponent.
+     *
+     * @param player the opponent
+     * @param board  the opponent's board
+     */
+    public void showOpponentBoard(int player, int[][] board) {
+        if (opponentViews != null && opponentViews[player] != null) {
+            opponentViews[player].setBoard(board);
+        }
     }
 
     /**
-     * Stops all timelines, shows the game over screen,
-     * and marks the game as finished.
+     * Greys out the board of an opponent who topped out or left.
+     *
+     * @param player the opponent
      */
+    public void showOpponentOut(int player) {
+        if (opponentViews != null && opponentViews[player] != null) {
+            opponentViews[player].setOut();
+        }
+    }
 
-    public void gameOver() {
-        timeLine.stop();
-        gameOverPanel.setVisible(true);
-        isGameOver.setValue(true);
-        if (timerTimeline != null) timerTimeline.stop();
+    /**
+     * Ends the local game, if it is still running, and announces the result of the match.
+     *
+     * @param won whether the local player won
+     */
+    public void showMatchResult(boolean won) {
+        if (!isGameOver.get()) {
+            gameOver();
+        }
+        NotificationPanel notificationPanel = new NotificationPanel(won ? "YOU WIN" : "YOU LOSE");
+        groupNotification.getChildren().add(notificationPanel);
+        notificationPanel.showScore(groupNotification.getChildren());
     }
 
     /**
@@ -376,18 +494,14 @@ public class GuiController implements Initializable {
      */
 
     public void newGame(ActionEvent actionEvent) {
-        timeLine.stop();
         gameOverPanel.setVisible(false);
         eventListener.createNewGame();
         gamePanel.requestFocus();
-        timeLine.play();
         isPause.set(false);
         isGameOver.set(false);
-        timeRemaining = 180;
-        startTimer();
-        totalLinesCleared = 0;
-        updateLineImages(0);
-        updateLevelImages(0);
+        pauseMenu.setVisible(false);
+        gameLoop.setPaused(false);
+        resetCountdown();
     }
 
     /**
@@ -399,8 +513,7 @@ public class GuiController implements Initializable {
     public void resumeGame(ActionEvent actionEvent) {
         pauseMenu.setVisible(false);
         isPause.set(false);
-        timeLine.play();
-        if (timerTimeline != null) timerTimeline.play();
+        gameLoop.setPaused(false);
         gamePanel.requestFocus();
     }
 
@@ -412,12 +525,11 @@ public class GuiController implements Initializable {
 
     public void pauseGame(ActionEvent actionEvent) {
         if (isPause.get()) {
-            timeLine.play();
-            if (timerTimeline != null) timerTimeline.play();
+            gameLoop.setPaused(false);
             isPause.set(false);
             pauseMenu.setVisible(false);
         } else {
-            if (timerTimeline != null) timerTimeline.pause();
+            gameLoop.setPaused(true);
             isPause.set(true);
             pauseMenu.setVisible(true);
         }
@@ -431,85 +543,47 @@ public class GuiController implements Initializable {
      */
 
     public void exitGame(ActionEvent actionEvent) {
-        System.exit(0);
+        // Lets Main.stop() store the game and finish the replay before the JVM exits
+        Platform.exit();
     }
 
     /**
-     * Loads the digit images (0-9) from resources into the `digits` array.
-     * These images are later used for displaying scores, lines, and timer digits.
+     * Hands the digit atlas from the {@link AssetCache} to every counter, which
+     * draws its digits from it from then on.
      */
-    private void loadDigitImages() {
-        for (int i = 0; i <= 9; i++) {
-            digits[i] = new Image(getClass().getResourceAsStream("/digits/" + i + ".png"));
+    private void applyDigitAtlas() {
+        DigitAtlas atlas = AssetCache.digitAtlas();
+        for (DigitCounter counter : new DigitCounter[] {
+                scoreCounter, lineCounter, levelCounter, minutesCounter, secondsCounter}) {
+            counter.setAtlas(atlas);
         }
     }
 
     /**
-     * Updates the timer digit images on the UI based on the remaining time in seconds.
-     *
-     * @param secondsRemaining the number of seconds left in the countdown timer
-     */
-    private void updateTimerImages(int secondsRemaining) {
-        int minutes = secondsRemaining / 60;
-        int seconds = secondsRemaining % 60;
-
-        minTens.setImage(digits[minutes / 10]);
-        minOnes.setImage(digits[minutes % 10]);
-        secTens.setImage(digits[seconds / 10]);
-        secOnes.setImage(digits[seconds % 10]);
-    }
-
-    /**
-     * Initializes and starts the countdown timer.
-     * When timer reaches zero, triggers game over.
-     */
-
-    private void startTimer() {
-        loadDigitImages();
-        updateTimerImages(timeRemaining);
-
-        timerTimeline = new Timeline(new KeyFrame(Duration.seconds(1), e -> {
-            timeRemaining--;
-            updateTimerImages(timeRemaining);
-
-            if (timeRemaining <= 0) {
-                timerTimeline.stop();
-                gameOver();
-            }
-        }));
-        timerTimeline.setCycleCount(Timeline.INDEFINITE);
-        timerTimeline.play();
-    }
-    /**
-     * Updates the score digit images on the UI based on the current score value.
-     *
-     * @param score the current score to display
+     * Sets the window and board frame backgrounds from the {@link AssetCache}, so
+     * they are not decoded again by the style sheet on the FX thread.
      */
-    private void updateScoreImages(int score) {
-        int thousands = (score / 1000) % 10;
-        int hundreds = (score / 100) % 10;
-        int tens = (score / 10) % 10;
-        int ones = score % 10;
-
-        scoreThousands.setImage(digits[thousands]);
-        scoreHundreds.setImage(digits[hundreds]);
-        scoreTens.setImage(digits[tens]);
-        scoreOnes.setImage(digits[ones]);
+    private void applyBackgrounds() {
+        // Fill the window like "-fx-background-size: cover", centred and not repeated
+        rootPane.setBackground(new Background(new BackgroundImage(
+                AssetCache.getImage(AssetCache.WINDOW_BACKGROUND),
+                BackgroundRepeat.NO_REPEAT, BackgroundRepeat.NO_REPEAT, BackgroundPosition.CENTER,
+                new BackgroundSize(BackgroundSize.AUTO, BackgroundSize.AUTO, true, true, false, true))));
+        gameBoard.setBackground(new Background(new BackgroundImage(
+                AssetCache.getImage(AssetCache.BOARD_BACKGROUND),
+                BackgroundRepeat.REPEAT, BackgroundRepeat.REPEAT, BackgroundPosition.DEFAULT,
+                BackgroundSize.DEFAULT)));
     }
 
     /**
-     * Updates the line counter digit images on the UI based on the number of cleared lines.
+     * Updates the timer counters based on the remaining time in seconds. Called
+     * every tick; the counters only redraw a digit when it changes.
      *
-     * @param lines the number of lines cleared to display
+     * @param secondsRemaining the number of seconds left in the countdown timer
      */
-    private void updateLineImages(int lines) {
-        int hundreds = (lines / 100) % 10;
-        int tens = (lines / 10) % 10;
-        int ones = lines % 10;
-
-        lineHundreds.setImage(digits[hundreds]);
-        lineTens.setImage(digits[tens]);
-        lineOnes.setImage(digits[ones]);
+    private void updateTimer(int secondsRemaining) {
+        minutesCounter.setValue(secondsRemaining / 60);
+        secondsCounter.setValue(secondsRemaining % 60);
     }
 
     //show next block
@@ -522,7 +596,7 @@ public class GuiController implements Initializable {
      * @param next shape and color data of the next piece
      */
 
-    public void showNextBlock(NextShapeInfo next) {
+    private void showNextBlock(NextShapeInfo next) {
         nextBlockPane.getChildren().clear(); // clear previous preview
 
         int[][] shape = next.getShape();
@@ -565,7 +639,7 @@ public class GuiController implements Initializable {
             for (int j = 0; j < shapeCols; j++) {
                 if (shape[i][j] != 0) {
                     Rectangle rect = new Rectangle(blockSize, blockSize);
-                    rect.setFill(getFillColor(shape[i][j]));
+                    rect.setFill(BrickColors.fill(shape[i][j]));
                     rect.setArcWidth(blockSize / 4);
                     rect.setArcHeight(blockSize / 4);
                     rect.setStroke(Color.BLACK);
@@ -588,163 +662,41 @@ public class GuiController implements Initializable {
 //restart game
     public void restartGame() {
         if (eventListener != null) {
-            if (timeLine != null) timeLine.stop();
-            if (timerTimeline != null) timerTimeline.stop();
-
             gameOverPanel.setVisible(false);
 
             isPause.set(false);
             isGameOver.set(false);
 
-            timeRemaining = 180;
-            totalLinesCleared = 0;  // <-- reset here
-
             eventListener.createNewGame();
 
             gamePanel.requestFocus();
 
-            if (timeLine != null) timeLine.play();
-            startTimer();
+            gameLoop.setPaused(false);
+            resetCountdown();
         }
     }
 
 
     /**
-     * Removes all previously drawn ghost piece rectangles from the grid.
+     * Hides the ghost piece.
      */
-
-    //Remove old ghost piece
     public void clearGhostPiece() {
-        if (ghostPieceRectangles != null) {
-            for (int i = 0; i < ghostPieceRectangles.length; i++) {
-                for (int j = 0; j < ghostPieceRectangles[i].length; j++) {
-                    if (ghostPieceRectangles[i][j] != null) {
-                        gamePanel.getChildren().remove(ghostPieceRectangles[i][j]);
-                        ghostPieceRectangles[i][j] = null;
-                    }
-                }
-            }
+        if (boardRenderer != null) {
+            boardRenderer.clearGhost();
         }
     }
 
 
     /**
-     * Draws the ghost piece using semi-transparent rectangles to show
-     * where the active brick will land.
+     * Draws the ghost piece to show where the active brick will land.
      *
      * @param ghostData 5x? array containing shape and final landing coordinates
      */
 
     public void drawGhostPiece(int[][] ghostData) {
-        clearGhostPiece();  // remove previous ghost bricks
-
-        // Extract ghost position from the last row of ghostData
-        int ghostX = ghostData[4][0];
-        int ghostY = ghostData[4][1];
-
-        ghostPieceRectangles = new Rectangle[4][4];
-
-        for (int i = 0; i < 4; i++) {
-            for (int j = 0; j < 4; j++) {
-                if (ghostData[i][j] != 0) {
-                    Rectangle ghostRect = new Rectangle(BRICK_SIZE, BRICK_SIZE);
-
-                    Color pieceColor = (Color) getFillColor(ghostData[i][j]);
-                    Color ghostColor = new Color(pieceColor.getRed(), pieceColor.getGreen(), pieceColor.getBlue(), 0.3);
-
-                    ghostRect.setFill(ghostColor);
-                    ghostRect.setStroke(Color.WHITE);
-                    ghostRect.setStrokeWidth(1);
-                    ghostRect.setArcHeight(9);
-                    ghostRect.setArcWidth(9);
-
-                    // Use GridPane coordinates, no +1
-                    gamePanel.add(ghostRect, ghostX + j, ghostY + i);
-
-                    ghostPieceRectangles[i][j] = ghostRect;
-                }
-            }
-        }
-    }
-
-    /**
-     * Instantly drops the brick to its lowest valid position.
-     * Updates score notifications if lines are cleared.
-     */
-
-    private void hardDrop() {
-        if (eventListener != null && !isPause.get() && !isGameOver.get()) {
-            DownData downData = eventListener.onHardDropEvent(new MoveEvent(EventType.HARD_DROP, EventSource.USER));
-            refreshBrick(downData.getViewData());
-
-            if (downData.getClearRow() != null && downData.getClearRow().getLinesRemoved() > 0) {
-                NotificationPanel notificationPanel = new NotificationPanel("+" + downData.getClearRow().getScoreBonus());
-                groupNotification.getChildren().add(notificationPanel);
-                notificationPanel.showScore(groupNotification.getChildren());
-            }
-        }
-    }
-
-    /**
-     * Updates the level display based on total lines cleared and adjusts the drop speed.
-     * Level starts at 1 and increases as 5 line cleared.
-     *
-     *
-     */
-    private void updateLevelImages(int totalLinesCleared) {
-
-        int level = totalLinesCleared / 5 + 1;  // Level starts at 1
-
-        int hundreds = (level / 100) % 10;
-        int tens = (level / 10) % 10;
-        int ones = level % 10;
-
-        levelHundreds.setImage(digits[hundreds]);
-        levelTens.setImage(digits[tens]);
-        levelOnes.setImage(digits[ones]);
-
-        if (timeLine != null) {
-            timeLine.stop();
-            timeLine.getKeyFrames().setAll(
-                    new KeyFrame(
-                            Duration.millis(getDropIntervalForLevel(level)),
-                            ae -> moveDown(new MoveEvent(EventType.DOWN, EventSource.THREAD))
-                    )
-            );
-            timeLine.play();
-        }
-    }
-
-
-
-    /**
-     * Returns the drop interval (ms) based on the current level.
-     * Higher levels drop faster.
-     *
-     * @param level the current level
-     * @return drop interval in milliseconds
-     */
-    private double getDropIntervalForLevel(int level) {
-        // Base interval (level 1) is 400ms
-        // Decrease by 20ms per level (example)
-        double interval = 400 - (level - 1) * 40;
-        return Math.max(interval, 100); // minimum 100ms
-    }
-
-    /**
-     * Handles the hold brick action when the 'C' key is pressed.
-     * Swaps the current brick with the held brick (if any).
-     */
-    private void hold() {
-        if (eventListener != null && !isPause.get() && !isGameOver.get()) {
-            HoldEvent holdEvent = eventListener.onHoldEvent();
-            if (holdEvent != null) {
-                // Update the current brick display
-                refreshBrick(holdEvent.getNewCurrentPiece());
-                // Update the held brick display
-                showHoldBlock(holdEvent.getHoldPiece());
-            }
-        }
+        long start = Perf.start();
+        boardRenderer.drawGhost(ghostData);
+        Perf.stop(Probe.DRAW_GHOST, start);
     }
 
     /**
@@ -753,7 +705,7 @@ public class GuiController implements Initializable {
      *
      * @param hold shape and color data of the held piece
      */
-    public void showHoldBlock(HoldShapeInfo hold) {
+    private void showHoldBlock(HoldShapeInfo hold) {
         if (holdBlockPane == null) return;
         
         holdBlockPane.getChildren().clear(); // clear previous preview
@@ -798,7 +750,7 @@ public class GuiController implements Initializable {
             for (int j = 0; j < shapeCols; j++) {
                 if (shape[i][j] != 0) {
                     Rectangle rect = new Rectangle(blockSize, blockSize);
-                    rect.setFill(getFillColor(shape[i][j]));
+                    rect.setFill(BrickColors.fill(shape[i][j]));
                     rect.setArcWidth(blockSize / 4);
                     rect.setArcHeight(blockSize / 4);
                     rect.setStroke(Color.BLACK);
@@ -816,7 +768,7 @@ public class GuiController implements Initializable {
     /**
      * Clears the held block preview pane.
      */
-    public void clearHoldBlock() {
+    private void clearHoldBlock() {
         if (holdBlockPane != null) {
             holdBlockPane.getChildren().clear();
         }
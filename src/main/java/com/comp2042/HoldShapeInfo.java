@@ -9,12 +9,16 @@ public class HoldShapeInfo {
         this.colorCode = colorCode;
     }
 
+    /**
+     * Returns a deep copy of the held piece shape.
+     *
+     * @return a 2D int array representing the shape
+     */
     public int[][] getShape() {
-        return shape;
+        return MatrixOperations.copy(shape);
     }
 
     public int getColorCode() {
         return colorCode;
     }
 }
-
@@ -2,50 +2,41 @@ package com.comp2042;
 
 /**
  * Interface for handling input events in the Tetris game.
- * Implementations of this interface respond to user or thread actions
- * like moving or rotating bricks, performing hard drops, and creating new games.
+ * Key presses and releases are queued and applied by {@link #onTick(long)}, so
+ * every move of the brick happens on a logic tick; the other calls start a new
+ * game, end it when the time runs out, or undo and redo bricks.
  */
 public interface InputEventListener {
 
     /**
-     * Handles the event when a brick moves downward.
+     * Runs one logic tick: applies the queued input up to the end of the tick,
+     * then advances the game by one tick.
      *
-     * @param event the move event (user or automatic thread)
-     * @return DownData containing updated board state, ghost piece info, and lock status
-     */
-    DownData onDownEvent(MoveEvent event);
-
-    /**
-     * Handles the event when a brick moves left.
-     *
-     * @param event the move event
-     * @return the updated ViewData of the brick
+     * @param tickEnd the end of the tick, on the {@link System#nanoTime()} clock
+     * @return DownData containing updated board state and lock information
      */
-    ViewData onLeftEvent(MoveEvent event);
+    DownData onTick(long tickEnd);
 
     /**
-     * Handles the event when a brick moves right.
-     *
-     * @param event the move event
-     * @return the updated ViewData of the brick
+     * Handles the end of the game when the countdown runs out.
      */
-    ViewData onRightEvent(MoveEvent event);
+    void onTimeUp();
 
     /**
-     * Handles the event when a brick rotates.
+     * Queues the press of a key bound to a command. The command is applied on the next tick.
      *
-     * @param event the move event
-     * @return the updated ViewData of the brick
+     * @param type  the command bound to the key
+     * @param nanos when the key was pressed, on the {@link System#nanoTime()} clock
      */
-    ViewData onRotateEvent(MoveEvent event);
+    void onInputPressed(EventType type, long nanos);
 
     /**
-     * Handles the event when a brick is dropped instantly to the bottom (hard drop).
+     * Queues the release of a key bound to a command.
      *
-     * @param event the move event
-     * @return DownData containing updated board state and lock information
+     * @param type  the command bound to the key
+     * @param nanos when the key was released, on the {@link System#nanoTime()} clock
      */
-    DownData onHardDropEvent(MoveEvent event);
+    void onInputReleased(EventType type, long nanos);
 
     /**
      * Creates a new game, resetting the board and score.
@@ -53,19 +44,16 @@ public interface InputEventListener {
     void createNewGame();
 
     /**
-     * Checks whether a brick can move down to a new Y position without colliding
-     * with existing blocks or going out of bounds.
+     * Handles the request to take back the last brick locked.
      *
-     * @param brick the current brick's ViewData
-     * @param newY the proposed Y position
-     * @return true if the brick can safely move down; false otherwise
+     * @return the ViewData of the brick the game went back to, or null if nothing could be undone
      */
-    boolean canMoveDown(ViewData brick, int newY);
+    ViewData onUndoEvent();
 
     /**
-     * Handles the event when a brick is held (swapped with the held brick).
+     * Handles the request to play an undone brick again.
      *
-     * @return HoldEvent containing the new current piece and held piece information, or null if hold was already used
+     * @return the ViewData of the brick the game went forward to, or null if nothing could be redone
      */
-    HoldEvent onHoldEvent();
+    ViewData onRedoEvent();
 }
@@ -0,0 +1,219 @@
+package com.comp2042;
+
+import java.util.Arrays;
+
+/**
+ * Turns key press and release edges into {@link GameEngine} commands on the logic tick.
+ * <p>
+ * The GUI only queues edges, stamped with the time they happened; nothing moves
+ * in the key handler. Each logic tick {@link #update} first repeats the keys held
+ * since earlier ticks, then applies, in order, the edges that happened up to the
+ * end of that tick:
+ * </p>
+ * <ul>
+ *   <li>left and right move once when pressed, then again after the delayed auto
+ *       shift (DAS) and every auto repeat rate (ARR) ticks after that; an ARR of 0
+ *       moves straight to the wall;</li>
+ *   <li>down soft drops once when pressed, then at the gravity speed multiplied by
+ *       the soft-drop factor;</li>
+ *   <li>rotate, hard drop and hold act once per press.</li>
+ * </ul>
+ * <p>
+ * Everything is counted in ticks, so movement no longer depends on the OS key
+ * repeat rate, whose repeated presses are ignored, and the same edges at the same
+ * ticks always produce the same commands. The commands reach the engine like any
+ * other, so a replay recorder sees exactly what was applied.
+ * </p>
+ */
+public class InputHandler {
+
+    /** Default delayed auto shift: ticks a direction must be held before it repeats. */
+    public static final int DEFAULT_DAS = 10;
+
+    /** Default auto repeat rate: ticks between repeated moves once DAS has passed. */
+    public static final int DEFAULT_ARR = 2;
+
+    /** Default soft-drop factor: how many times faster than gravity a held down key drops. */
+    public static final int DEFAULT_SOFT_DROP_FACTOR = 20;
+
+    private static final EventType[] TYPES = EventType.values();
+
+    private final int das;
+    private final int arr;
+    private final int softDropFactor;
+
+    private long[] edgeTimes = new long[16];
+    private int[] edgeCodes = new int[16];
+    private int edgeHead;
+    private int edgeCount;
+
+    private final boolean[] held = new boolean[TYPES.length];
+    private EventType shiftDirection;
+    private int shiftTicks;
+    private int softDropTicks;
+
+    /**
+     * Creates a handler with the default timings.
+     */
+    public InputHandler() {
+        this(DEFAULT_DAS, DEFAULT_ARR, DEFAULT_SOFT_DROP_FACTOR);
+    }
+
+    /**
+     * Creates a handler with the given timings.
+     *
+     * @param das            ticks a direction must be held before it repeats, at least 1
+     * @param arr            ticks between repeated moves, or 0 to move straight to the wall
+     * @param softDropFactor how many times faster than gravity a held down key drops, at least 1
+     */
+    public InputHandler(int das, int arr, int softDropFactor) {
+        this.das = Math.max(1, das);
+        this.arr = Math.max(0, arr);
+        this.softDropFactor = Math.max(1, softDropFactor);
+    }
+
+    /**
+     * Creates a handler with the timings given by the {@code tetris.das},
+     * {@code tetris.arr} and {@code tetris.sdf} system properties, in ticks
+     * (and a plain factor for the soft drop), falling back to the defaults.
+     *
+     * @return the handler
+     */
+    public static InputHandler fromSystemProperties() {
+        return new InputHandler(
+                Integer.getInteger("tetris.das", DEFAULT_DAS),
+                Integer.getInteger("tetris.arr", DEFAULT_ARR),
+                Integer.getInteger("tetris.sdf", DEFAULT_SOFT_DROP_FACTOR));
+    }
+
+    /**
+     * Queues a key press.
+     *
+     * @param type  the command bound to the key
+     * @param nanos when the key was pressed, on the {@link System#nanoTime()} clock
+     */
+    public void press(EventType type, long nanos) {
+        enqueue(nanos, type.ordinal() << 1 | 1);
+    }
+
+    /**
+     * Queues a key release.
+     *
+     * @param type  the command bound to the key
+     * @param nanos when the key was released, on the {@link System#nanoTime()} clock
+     */
+    public void release(EventType type, long nanos) {
+        enqueue(nanos, type.ordinal() << 1);
+    }
+
+    /**
+     * Forgets all queued edges and held keys, e.g. when a new game starts.
+     */
+    public void clear() {
+        edgeHead = 0;
+        edgeCount = 0;
+        Arrays.fill(held, false);
+        shiftDirection = null;
+    }
+
+    /**
+     * Runs one logic tick of input: the auto repeat of the keys held since earlier
+     * ticks, then the edges queued up to the end of this tick.
+     *
+     * @param engine  the engine to send commands to
+     * @param tickEnd the end of this tick, on the {@link System#nanoTime()} clock
+     */
+    public void update(GameEngine engine, long tickEnd) {
+        if (shiftDirection != null) {
+            repeatShift(engine);
+        }
+        if (held[EventType.DOWN.ordinal()]) {
+            int interval = Math.max(1, engine.getGravityInterval() / softDropFactor);
+            if (++softDropTicks >= interval) {
+                softDropTicks = 0;
+                engine.moveDown();
+            }
+        }
+        while (edgeCount > 0 && edgeTimes[edgeHead] - tickEnd <= 0) {
+            int code = edgeCodes[edgeHead];
+            edgeHead = (edgeHead + 1) % edgeCodes.length;
+            edgeCount--;
+            EventType type = TYPES[code >>> 1];
+            if ((code & 1) != 0) {
+                pressed(engine, type);
+            } else {
+                released(type);
+            }
+        }
+    }
+
+    private void pressed(GameEngine engine, EventType type) {
+        if (held[type.ordinal()]) {
+            // OS key repeat; the handler repeats on its own schedule
+            return;
+        }
+        held[type.ordinal()] = true;
+        switch (type) {
+            case LEFT:
+            case RIGHT:
+                shiftDirection = type;
+                shiftTicks = 0;
+                engine.apply(type);
+                break;
+            case DOWN:
+                softDropTicks = 0;
+                engine.moveDown();
+                break;
+            default:
+                engine.apply(type);
+                break;
+        }
+    }
+
+    private void released(EventType type) {
+        held[type.ordinal()] = false;
+        if (type == shiftDirection) {
+            // Fall back to the other direction if it is still held, charging DAS afresh
+            EventType other = type == EventType.LEFT ? EventType.RIGHT : EventType.LEFT;
+            shiftDirection = held[other.ordinal()] ? other : null;
+            shiftTicks = 0;
+        }
+    }
+
+    private void repeatShift(GameEngine engine) {
+        if (++shiftTicks < das) {
+            return;
+        }
+        if (arr == 0) {
+            while (engine.apply(shiftDirection)) {
+                // slide to the wall
+            }
+            shiftTicks = das;
+        } else if ((shiftTicks - das) % arr == 0) {
+            engine.apply(shiftDirection);
+            shiftTicks = das;
+        }
+    }
+
+    private void enqueue(long nanos, int code) {
+        if (edgeCount == edgeCodes.length) {
+            grow();
+        }
+        int tail = (edgeHead + edgeCount) % edgeCodes.length;
+        edgeTimes[tail] = nanos;
+        edgeCodes[tail] = code;
+        edgeCount++;
+    }
+
+    private void grow() {
+        long[] times = new long[edgeTimes.length * 2];
+        int[] codes = new int[edgeCodes.length * 2];
+        for (int i = 0; i < edgeCount; i++) {
+            times[i] = edgeTimes[(edgeHead + i) % edgeTimes.length];
+            codes[i] = edgeCodes[(edgeHead + i) % edgeCodes.length];
+        }
+        edgeTimes = times;
+        edgeCodes = codes;
+        edgeHead = 0;
+    }
+}
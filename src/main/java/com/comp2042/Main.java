@@ -1,45 +1,271 @@
 package com.comp2042;
 
+import com.comp2042.audio.AudioEngine;
+import com.comp2042.audio.GameSounds;
+import com.comp2042.logic.bricks.BrickGenerator;
+import com.comp2042.logic.bricks.RandomBrickGenerator;
+import com.comp2042.logic.bricks.RewindableBrickGenerator;
+import com.comp2042.logic.bricks.SeededBrickGenerator;
+import com.comp2042.perf.InstrumentedBoard;
+import com.comp2042.perf.Perf;
+import com.comp2042.replay.Replay;
+import com.comp2042.stats.StatsStore;
+import com.comp2042.versus.MatchServer;
+import com.comp2042.versus.VersusClient;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.URL;
+import java.nio.file.Path;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 /**
  * Main entry point for the Tetris JavaFX application.
  *
  * This class extends {@link javafx.application.Application} and initializes
  * the JavaFX stage, loads the FXML layout, sets up the scene, and starts
- * the game controller. It also plays background music on launch.
+ * the game controller. It also starts the audio and preloads the assets on launch.
+ * With {@code -Dtetris.versus=<host:port>} it joins a versus match on a
+ * {@link MatchServer} and starts the game once all players are there.
  */
 public class Main extends Application {
 
+    /** How many bricks back a game can be undone. */
+    private static final int HISTORY_BRICKS = 1000;
+
+    private AudioEngine audio;
+    private StatsStore stats;
+    private GameController controller;
+    private volatile VersusClient versus;
+
     /**
      * Starts the JavaFX application.
+     * <p>
+     * The window is shown straight away with a loading message while the images,
+     * the font and the audio are decoded in parallel in the background; the game
+     * view is built once they are ready. The time to the first game frame is
+     * printed when it is drawn.
+     * </p>
      *
      * @param primaryStage the primary stage for this application
-     * @throws Exception if loading the FXML or initializing the scene fails
      */
     @Override
-    public void start(Stage primaryStage) throws Exception {
-        MusicPlayerWav musicPlayer = new MusicPlayerWav();
-        musicPlayer.playMusic("/chill_music.wav");   // play background music
+    public void start(Stage primaryStage) {
+        long startNanos = System.nanoTime();
+        CompletableFuture<Void> assets = AssetCache.preload();
+
+        // Music streams and effects load on their own threads, so this returns at once
+        audio = new AudioEngine();
+        audio.start();
+        audio.playMusic("/chill_music.wav");
+
+        Label loading = new Label("Loading...");
+        loading.setStyle("-fx-text-fill: white; -fx-font-size: 24;");
+        StackPane loadingPane = new StackPane(loading);
+        loadingPane.setStyle("-fx-background-color: black;");
+
+        primaryStage.setTitle("TetrisJFX");
+        Scene scene = new Scene(loadingPane, 300, 510);
+        primaryStage.setScene(scene);
+        primaryStage.setMaximized(true);    // Full screen
+        primaryStage.show();
+        long shownNanos = System.nanoTime();
+
+        assets.whenCompleteAsync((ignored, error) -> {
+            if (error != null) {
+                loading.setText("Could not load the game");
+                error.printStackTrace();
+                return;
+            }
+            long loadedNanos = System.nanoTime();
+            // -Dtetris.versus=<host:port> joins a match of -Dtetris.versus.players players, 2 by default
+            String versusServer = System.getProperty("tetris.versus");
+            if (versusServer != null) {
+                joinMatch(scene, loading, versusServer);
+                return;
+            }
+            try {
+                GuiController c = startGame(scene);
+                c.setOnFirstFrame(() -> System.out.printf(
+                        "Startup: window shown after %d ms, assets ready after %d ms, first game frame after %d ms%n",
+                        millisSince(startNanos, shownNanos), millisSince(startNanos, loadedNanos),
+                        millisSince(startNanos, System.nanoTime())));
+            } catch (IOException e) {
+                loading.setText("Could not start the game");
+                e.printStackTrace();
+            }
+        }, Platform::runLater);
+    }
+
+    /**
+     * Stores the game in progress, finishes the replay and releases the audio and
+     * the statistics file when the application exits.
+     */
+    @Override
+    public void stop() {
+        if (controller != null) {
+            controller.shutdown();
+        }
+        if (versus != null) {
+            versus.close();
+        }
+        if (stats != null) {
+            try {
+                stats.close();
+            } catch (IOException e) {
+                System.err.println("Could not close the statistics: " + e.getMessage());
+            }
+        }
+        if (audio != null) {
+            audio.close();
+        }
+    }
+
+    /**
+     * Loads the game view into the scene and starts the game. Runs on the FX thread
+     * once the assets are decoded.
+     *
+     * @return the controller of the game view
+     * @throws IOException if the layout or a replay file cannot be read
+     */
+    private GuiController startGame(Scene scene) throws IOException {
+        GuiController c = loadView(scene);
+
+        // -Dtetris.replay=<file> watches a recorded game instead of playing
+        String replayFile = System.getProperty("tetris.replay");
+        if (replayFile != null) {
+            Replay replay = Replay.read(Path.of(replayFile));
+            controller = new GameController(c, InstrumentedBoard.wrap(replay.createBoard()), replay);
+            controller.addGameListener(new GameSounds(audio));
+            return c;
+        }
+
+        // -Dtetris.seed=<n> plays a reproducible 7-bag sequence instead of uniform random bricks.
+        // -Dtetris.record=<file> records the first game, which needs a seed, so one is picked if missing
+        String seed = System.getProperty("tetris.seed");
+        String recordFile = System.getProperty("tetris.record");
+        SeededBrickGenerator seeded = null;
+        if (seed != null || recordFile != null) {
+            seeded = new SeededBrickGenerator(seed != null ? Long.parseLong(seed) : System.nanoTime());
+        }
+        BrickGenerator bricks = seeded != null ? seeded : new RandomBrickGenerator();
+        // Keep enough bricks to deal the same ones again after an undo, holds and preview included
+        BrickGenerator generator = new RewindableBrickGenerator(bricks, 2 * HISTORY_BRICKS + bricks.getPreviewSize());
+        controller = new GameController(c, createBoard(generator));
+        controller.enableHistory(HISTORY_BRICKS);
+        controller.addGameListener(new GameSounds(audio));
+        enableStats(seeded != null ? seeded.getSeed() : null);
+        if (recordFile != null) {
+            controller.startRecording(Path.of(recordFile), seeded);
+        }
+        return c;
+    }
 
+    /**
+     * Connects to the match server on a virtual thread and shows a waiting message
+     * until the match starts; the game is then built on the FX thread with the seed
+     * of the match, so every player gets the same bricks. Versus games are not recorded.
+     */
+    private void joinMatch(Scene scene, Label loading, String server) {
+        int colon = server.lastIndexOf(':');
+        String host = colon < 0 ? server : server.substring(0, colon);
+        int port = colon < 0 ? MatchServer.DEFAULT_PORT : Integer.parseInt(server.substring(colon + 1));
+        int players = Integer.getInteger("tetris.versus.players", 2);
+        BoardSize size = BoardSize.fromSystemProperties();
+        loading.setText("Waiting for opponents...");
+
+        VersusClient.Listener waiting = new VersusClient.Listener() {
+            @Override
+            public void onMatchStarted(int player, int matchPlayers, long seed) {
+                try {
+                    GuiController c = loadView(scene);
+                    controller = new GameController(c, createBoard(new SeededBrickGenerator(seed)));
+                    controller.addGameListener(new GameSounds(audio));
+                    enableStats(seed);
+                    controller.enableVersus(versus, player, matchPlayers);
+                    versus = null;
+                } catch (IOException e) {
+                    loading.setText("Could not start the game");
+                    e.printStackTrace();
+                }
+            }
+
+            @Override
+            public void onDisconnected(IOException error) {
+                loading.setText("Lost the match server");
+            }
+        };
+        Thread.ofVirtual().name("versus-connect").start(() -> {
+            try {
+                VersusClient client = VersusClient.connect(new InetSocketAddress(host, port), players,
+                        size.getRows(), size.getColumns(), waiting, Platform::runLater);
+                Platform.runLater(() -> {
+                    versus = client;
+                    client.start();
+                });
+            } catch (IOException | IllegalArgumentException e) {
+                Platform.runLater(() -> loading.setText("Could not reach " + server));
+                System.err.println("Could not join a match on " + server + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Loads the game view into the scene.
+     *
+     * @return the controller of the game view
+     * @throws IOException if the layout cannot be read
+     */
+    private GuiController loadView(Scene scene) throws IOException {
         URL location = getClass().getClassLoader().getResource("gameLayout.fxml");
         ResourceBundle resources = null;
         FXMLLoader fxmlLoader = new FXMLLoader(location, resources);
         Parent root = fxmlLoader.load();
         GuiController c = fxmlLoader.getController();
+        scene.setRoot(root);
 
-        primaryStage.setTitle("TetrisJFX");
-        Scene scene = new Scene(root, 300, 510);
-        primaryStage.setScene(scene);
-        primaryStage.setMaximized(true);    // Full screen
-        primaryStage.show();
+        // -Dtetris.perf=true times the hot paths, shows them in an overlay and publishes them over JMX
+        Perf.registerMBeans();
+        return c;
+    }
+
+    /**
+     * Creates the board of a new game.
+     */
+    private static Board createBoard(BrickGenerator generator) {
+        // -Dtetris.size=<rows>x<columns> plays on another board size than 25x10.
+        // -Dtetris.board=bit plays on the bitmask board instead of SimpleBoard, if the board is narrow enough
+        BoardSize size = BoardSize.fromSystemProperties();
+        Board board = size.createBoard(generator, "bit".equals(System.getProperty("tetris.board")));
+        return InstrumentedBoard.wrap(board);
+    }
+
+    /**
+     * Stores the statistics of the games of the controller, unless the statistics file cannot be opened.
+     *
+     * @param seed the seed of the game, or {@code null} for random bricks
+     */
+    private void enableStats(Long seed) {
+        // -Dtetris.stats=<file> keeps the statistics and leaderboard somewhere else than the home directory
+        String statsFile = System.getProperty("tetris.stats",
+                Path.of(System.getProperty("user.home"), ".tetrisjfx", "stats.dat").toString());
+        try {
+            stats = StatsStore.open(Path.of(statsFile));
+            controller.enableStats(stats, seed);
+        } catch (IOException e) {
+            System.err.println("Playing without statistics, cannot open " + statsFile + ": " + e.getMessage());
+        }
+    }
 
-        new GameController(c);
+    private static long millisSince(long startNanos, long nanos) {
+        return (nanos - startNanos) / 1_000_000;
     }
 }
@@ -2,6 +2,7 @@ package com.comp2042;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -91,6 +92,107 @@ public class MatrixOperations {
         return copy;
     }
 
+    /**
+     * Merges a brick directly into the board matrix at a specified position,
+     * without copying the board.
+     *
+     * @param filledFields the board matrix, modified in place
+     * @param brick the brick shape matrix
+     * @param x x-coordinate on the board
+     * @param y y-coordinate on the board
+     */
+    public static void mergeInPlace(int[][] filledFields, int[][] brick, int x, int y) {
+        for (int i = 0; i < brick.length; i++) {
+            for (int j = 0; j < brick[i].length; j++) {
+                if (brick[j][i] != 0) {
+                    filledFields[y + j][x + i] = brick[j][i];
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the full rows among {@code top..bottom} by compacting the board in place.
+     * Same as {@link #clearFullRows(int[][], int, int, int)} without a known stack top.
+     *
+     * @param matrix the board matrix, modified in place
+     * @param top    the first row to scan (clamped to the board)
+     * @param bottom the last row to scan (clamped to the board), at most 32 rows below {@code top}
+     * @return a bitmask with bit {@code i} set if row {@code top + i} was cleared; 0 if none were
+     */
+    public static int clearFullRows(int[][] matrix, int top, int bottom) {
+        return clearFullRows(matrix, top, bottom, 0);
+    }
+
+    /**
+     * Removes the full rows among {@code top..bottom} by compacting the board in place.
+     * <p>
+     * Only the given rows are scanned, which is enough after a lock since no other
+     * row can have become full. Surviving rows between the stack top and the lowest
+     * cleared row are shifted down by swapping row references, and the cleared row
+     * arrays are zeroed and reused just above them, so nothing is allocated. The
+     * empty rows above the stack top are left alone, so the cost depends on the
+     * height of the stack, not of the board.
+     * </p>
+     *
+     * @param matrix   the board matrix, modified in place
+     * @param top      the first row to scan (clamped to the board)
+     * @param bottom   the last row to scan (clamped to the board), at most 32 rows below {@code top}
+     * @param stackTop the highest row holding a cell; every row above it must be empty
+     * @return a bitmask with bit {@code i} set if row {@code top + i} was cleared; 0 if none were
+     */
+    public static int clearFullRows(int[][] matrix, int top, int bottom, int stackTop) {
+        top = Math.max(top, 0);
+        bottom = Math.min(bottom, matrix.length - 1);
+        int cleared = 0;
+        for (int i = top; i <= bottom; i++) {
+            if (isFull(matrix[i])) {
+                cleared |= 1 << (i - top);
+            }
+        }
+        if (cleared == 0) {
+            return 0;
+        }
+
+        stackTop = Math.max(0, Math.min(stackTop, top));
+        int write = top + 31 - Integer.numberOfLeadingZeros(cleared);
+        for (int read = write; read >= stackTop; read--) {
+            if (read >= top && (cleared & (1 << (read - top))) != 0) {
+                continue;
+            }
+            if (read != write) {
+                int[] row = matrix[write];
+                matrix[write] = matrix[read];
+                matrix[read] = row;
+            }
+            write--;
+        }
+        for (int i = stackTop; i <= write; i++) {
+            Arrays.fill(matrix[i], 0);
+        }
+        return cleared;
+    }
+
+    private static boolean isFull(int[] row) {
+        for (int cell : row) {
+            if (cell == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the score bonus for clearing the given number of rows at once,
+     * 50 * (number of cleared rows)^2.
+     *
+     * @param linesRemoved the number of rows cleared
+     * @return the score bonus
+     */
+    public static int scoreBonus(int linesRemoved) {
+        return 50 * linesRemoved * linesRemoved;
+    }
+
     /**
      * Checks the board matrix for fully filled rows and removes them.
      * The cleared rows are replaced with empty rows at the top.
@@ -130,8 +232,14 @@ public class MatrixOperations {
             }
         }
 
-        int scoreBonus = 50 * clearedRows.size() * clearedRows.size();
-        return new ClearRow(clearedRows.size(), tmp, scoreBonus);
+        int firstRow = clearedRows.isEmpty() ? -1 : clearedRows.get(0);
+        int mask = 0;
+        for (int row : clearedRows) {
+            if (row - firstRow < Integer.SIZE) {
+                mask |= 1 << (row - firstRow);
+            }
+        }
+        return new ClearRow(clearedRows.size(), tmp, scoreBonus(clearedRows.size()), mask, firstRow);
     }
 
     /**
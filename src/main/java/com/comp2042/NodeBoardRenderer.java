@@ -0,0 +1,156 @@
+package com.comp2042;
+
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.shape.StrokeType;
+
+/**
+ * Renders the board with one {@link Rectangle} per cell in a {@link GridPane},
+ * plus pooled rectangles for the falling brick and its ghost.
+ * <p>
+ * This is the original scene-graph rendering path, kept behind
+ * {@link BoardRenderer} so it can be compared with {@link CanvasBoardRenderer}.
+ * </p>
+ */
+public class NodeBoardRenderer implements BoardRenderer {
+
+    private final GridPane gamePanel;
+    private final Pane brickOverlay;
+    private final int brickSize;
+
+    private Rectangle[][] displayMatrix;
+    private Rectangle[][] activeBrick;
+    private Rectangle[][] ghostBrick;
+
+    /**
+     * Creates a renderer drawing into the given panes.
+     *
+     * @param gamePanel    the grid holding the landed bricks and the ghost piece
+     * @param brickOverlay the pane holding the falling brick
+     * @param brickSize    the size of each brick in pixels
+     */
+    public NodeBoardRenderer(GridPane gamePanel, Pane brickOverlay, int brickSize) {
+        this.gamePanel = gamePanel;
+        this.brickOverlay = brickOverlay;
+        this.brickSize = brickSize;
+    }
+
+    @Override
+    public void init(int[][] boardMatrix, ViewData brick) {
+        displayMatrix = new Rectangle[boardMatrix.length][boardMatrix[0].length];
+        for (int i = 0; i < boardMatrix.length; i++) {
+            for (int j = 0; j < boardMatrix[i].length; j++) {
+                Rectangle rectangle = new Rectangle(brickSize, brickSize);
+                rectangle.setFill(Color.TRANSPARENT);
+                rectangle.setArcHeight(9);
+                rectangle.setArcWidth(9);
+                displayMatrix[i][j] = rectangle;
+                gamePanel.add(rectangle, j, i);
+            }
+        }
+
+        int[][] brickData = brick.getBrickData();
+        activeBrick = new Rectangle[brickData.length][brickData[0].length];
+        ghostBrick = new Rectangle[brickData.length][brickData[0].length];
+
+        for (int i = 0; i < brickData.length; i++) {
+            for (int j = 0; j < brickData[i].length; j++) {
+                // ghost brick, kept in the grid and only moved or recoloured afterwards
+                Rectangle ghost = new Rectangle(brickSize, brickSize);
+                ghost.setFill(Color.TRANSPARENT);
+                ghost.setStroke(Color.WHITE);
+                ghost.setStrokeWidth(1);
+                ghost.setArcWidth(9);
+                ghost.setArcHeight(9);
+                ghost.setVisible(false);
+                ghostBrick[i][j] = ghost;
+                gamePanel.add(ghost, j, i);
+
+                // normal brick
+                Rectangle active = new Rectangle(brickSize - 1, brickSize - 1);
+                active.setFill(BrickColors.fill(brickData[i][j]));
+                active.setStrokeWidth(1.2);
+                active.setStrokeType(StrokeType.CENTERED);
+                active.setArcWidth(9);
+                active.setArcHeight(9);
+                activeBrick[i][j] = active;
+                brickOverlay.getChildren().add(active);
+            }
+        }
+    }
+
+    /**
+     * Refills only the rectangles of the dirty rows.
+     */
+    @Override
+    public void drawBackground(int[][] boardMatrix, BoardChanges changes) {
+        for (int i = changes.nextDirtyRow(0); i >= 0; i = changes.nextDirtyRow(i + 1)) {
+            for (int j = 0; j < boardMatrix[i].length; j++) {
+                displayMatrix[i][j].setFill(BrickColors.fill(boardMatrix[i][j]));
+            }
+        }
+    }
+
+    @Override
+    public void drawBrick(ViewData brick) {
+        int[][] brickData = brick.getBrickData();
+        for (int i = 0; i < brickData.length; i++) {
+            for (int j = 0; j < brickData[i].length; j++) {
+                Rectangle r = activeBrick[i][j];
+                int value = brickData[i][j];
+                r.setVisible(value != 0);
+                r.setFill(BrickColors.fill(value));
+                r.setX((brick.getxPosition() + j) * brickSize);
+                r.setY((brick.getyPosition() + i) * brickSize);
+            }
+        }
+    }
+
+    /**
+     * Reuses the pooled ghost rectangles: cells are only shown, hidden, moved or
+     * recoloured, so the scene graph never changes shape.
+     *
+     * @param ghostData the rows of the brick shape followed by a row holding the ghost {x, y}
+     */
+    @Override
+    public void drawGhost(int[][] ghostData) {
+        int ghostX = ghostData[ghostData.length - 1][0];
+        int ghostY = ghostData[ghostData.length - 1][1];
+
+        for (int i = 0; i < ghostBrick.length; i++) {
+            for (int j = 0; j < ghostBrick[i].length; j++) {
+                Rectangle ghost = ghostBrick[i][j];
+                int value = ghostData[i][j];
+                if (value == 0) {
+                    ghost.setVisible(false);
+                    continue;
+                }
+                ghost.setFill(BrickColors.ghost(value));
+                // Only touch the grid constraints when the cell actually moves
+                Integer column = GridPane.getColumnIndex(ghost);
+                Integer row = GridPane.getRowIndex(ghost);
+                if (column == null || column != ghostX + j) {
+                    GridPane.setColumnIndex(ghost, ghostX + j);
+                }
+                if (row == null || row != ghostY + i) {
+                    GridPane.setRowIndex(ghost, ghostY + i);
+                }
+                ghost.setVisible(true);
+            }
+        }
+    }
+
+    @Override
+    public void clearGhost() {
+        if (ghostBrick == null) {
+            return;
+        }
+        for (Rectangle[] row : ghostBrick) {
+            for (Rectangle ghost : row) {
+                ghost.setVisible(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.comp2042;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * A small picture of an opponent's board in versus mode.
+ * <p>
+ * Draws the board copies received from the match server, one small square per
+ * occupied cell, and greys the board out once the opponent is out.
+ * </p>
+ */
+public class OpponentView extends Canvas {
+
+    /** Size of one cell in pixels. */
+    private static final int CELL = 8;
+
+    private int[][] board;
+    private boolean out;
+
+    /**
+     * Creates an empty view of a board.
+     *
+     * @param rows    the number of rows of the board
+     * @param columns the number of columns of the board
+     */
+    public OpponentView(int rows, int columns) {
+        super(columns * CELL, rows * CELL);
+        this.board = new int[rows][columns];
+        draw();
+    }
+
+    /**
+     * Shows a new state of the board.
+     *
+     * @param board the opponent's board
+     */
+    public void setBoard(int[][] board) {
+        this.board = board;
+        draw();
+    }
+
+    /**
+     * Greys the board out once the opponent has topped out or left.
+     */
+    public void setOut() {
+        out = true;
+        draw();
+    }
+
+    private void draw() {
+        GraphicsContext graphics = getGraphicsContext2D();
+        graphics.setFill(Color.rgb(0, 0, 0, 0.6));
+        graphics.fillRect(0, 0, getWidth(), getHeight());
+        for (int row = 0; row < board.length; row++) {
+            for (int column = 0; column < board[row].length; column++) {
+                if (board[row][column] != 0) {
+                    graphics.setFill(out ? Color.DARKGRAY : BrickColors.fill(board[row][column]));
+                    graphics.fillRect(column * CELL, row * CELL, CELL - 1, CELL - 1);
+                }
+            }
+        }
+        graphics.setStroke(out ? Color.DARKGRAY : Color.WHITE);
+        graphics.strokeRect(0, 0, getWidth(), getHeight());
+    }
+}
@@ -0,0 +1,99 @@
+package com.comp2042;
+
+import com.comp2042.perf.LatencyHistogram;
+import com.comp2042.perf.Perf;
+import com.comp2042.perf.Probe;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+
+/**
+ * A small in-game panel showing the live {@link Perf} figures: input-to-render
+ * latency, allocations per frame, dropped frames and the slowest hot-path sections.
+ * <p>
+ * The panel sits over the board next to the score notifications. It is only
+ * filled in when the instrumentation is enabled, and its text is rebuilt a
+ * couple of times per second rather than every frame, so showing it does not
+ * itself show up in the figures.
+ * </p>
+ */
+public class PerfOverlay extends VBox {
+
+    /** Frames between two refreshes of the text. */
+    private static final int REFRESH_FRAMES = 30;
+
+    private Text latency;
+    private Text allocation;
+    private Text frames;
+    private Text sections;
+    private int framesUntilRefresh;
+
+    /**
+     * Creates an empty, hidden overlay.
+     */
+    public PerfOverlay() {
+        setVisible(false);
+        setMouseTransparent(true);
+        setStyle("-fx-background-color: rgba(0,0,0,0.6); -fx-padding: 4;");
+    }
+
+    /**
+     * Fills in the overlay and shows it. Does nothing when the instrumentation is disabled.
+     */
+    public void start() {
+        if (!Perf.ENABLED || latency != null) {
+            return;
+        }
+        latency = line();
+        allocation = line();
+        frames = line();
+        sections = line();
+        getChildren().addAll(latency, allocation, frames, sections);
+        setVisible(true);
+    }
+
+    /**
+     * Shows or hides a started overlay.
+     */
+    public void toggle() {
+        if (latency != null) {
+            setVisible(!isVisible());
+        }
+    }
+
+    /**
+     * Counts a rendered frame and refreshes the text every {@value #REFRESH_FRAMES} frames.
+     */
+    public void onFrame() {
+        if (latency == null || !isVisible() || --framesUntilRefresh > 0) {
+            return;
+        }
+        framesUntilRefresh = REFRESH_FRAMES;
+        LatencyHistogram input = Probe.INPUT_TO_RENDER.getHistogram();
+        latency.setText("input->render p50 " + millis(input.getValueAtPercentile(50))
+                + "  p99 " + millis(input.getValueAtPercentile(99)));
+        LatencyHistogram bytes = Probe.FRAME_ALLOCATION.getHistogram();
+        allocation.setText("alloc/frame p50 " + kilobytes(bytes.getValueAtPercentile(50))
+                + "  p99 " + kilobytes(bytes.getValueAtPercentile(99)));
+        frames.setText("dropped " + Perf.getDroppedFrames() + " of " + Perf.getFrames() + " frames");
+        sections.setText("p99 pulse " + millis(Probe.PULSE.getHistogram().getValueAtPercentile(99))
+                + "  tick " + millis(Probe.INPUT_LISTENER.getHistogram().getValueAtPercentile(99))
+                + "  rows " + millis(Probe.REFRESH_BACKGROUND.getHistogram().getValueAtPercentile(99)));
+    }
+
+    private static Text line() {
+        Text text = new Text();
+        text.setFill(Color.WHITE);
+        text.setFont(Font.font("Monospaced", 10));
+        return text;
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2fms", nanos / 1_000_000.0);
+    }
+
+    private static String kilobytes(long bytes) {
+        return String.format("%.1fKB", bytes / 1024.0);
+    }
+}
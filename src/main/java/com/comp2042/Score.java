@@ -1,30 +1,31 @@
 package com.comp2042;
 
-import javafx.beans.property.IntegerProperty;
-import javafx.beans.property.SimpleIntegerProperty;
-
 /**
  * Represents the player's score and the number of lines cleared during the game.
  * Provides methods to update and reset these values.
+ * <p>
+ * Plain values with no JavaFX dependency, so the game logic can run headless.
+ * The GUI observes changes through {@link GameEventListener#onScoreChanged(int, int)}.
+ * </p>
  */
 public final class Score {
 
-    private final IntegerProperty score = new SimpleIntegerProperty(0);
-    private final IntegerProperty line = new SimpleIntegerProperty(0);
+    private int score;
+    private int line;
 
     /**
-     * Returns the score property used for binding in the UI.
-     * @return the score property
+     * Returns the current score.
+     * @return the score
      */
-    public IntegerProperty scoreProperty() {
+    public int getScore() {
         return score;
     }
 
     /**
-     * Returns the line count property used for binding in the UI.
-     * @return the line count property
+     * Returns the number of lines cleared so far.
+     * @return the line count
      */
-    public IntegerProperty lineProperty() {
+    public int getLines() {
         return line;
     }
 
@@ -33,7 +34,7 @@ public final class Score {
      * @param value the amount to add to the score
      */
     public void add(int value) {
-        score.set(score.get() + value);
+        score += value;
     }
 
     /**
@@ -41,14 +42,24 @@ public final class Score {
      * @param value the number of lines to add
      */
     public void addLine(int value) {
-        line.set(line.get() + value);
+        line += value;
     }
 
     /**
      * Resets both score and cleared line count to zero.
      */
     public void reset() {
-        score.set(0);
-        line.set(0);
+        score = 0;
+        line = 0;
+    }
+
+    /**
+     * Sets both values at once, e.g. when a board is restored from a snapshot.
+     * @param score the score
+     * @param lines the cleared line count
+     */
+    void set(int score, int lines) {
+        this.score = score;
+        this.line = lines;
     }
 }
@@ -3,8 +3,10 @@ package com.comp2042;
 import com.comp2042.logic.bricks.Brick;
 import com.comp2042.logic.bricks.BrickGenerator;
 import com.comp2042.logic.bricks.RandomBrickGenerator;
+import com.comp2042.logic.bricks.RotationTable;
 
 import java.awt.*;
+import java.util.Arrays;
 
 /**
  * Represents the Tetris game board with the current state of bricks and game logic.
@@ -12,11 +14,16 @@ import java.awt.*;
  * Handles movement of bricks, rotation, row clearing, score tracking, and next brick preview.
  * Provides methods for game updates and collision detection.
  * </p>
+ * <p>
+ * Once a {@link #snapshot()} has been taken, rows are copied on write: a bit per
+ * row slot records whether the board owns the row array there, and any row not
+ * owned is copied before it is merged into, so snapshots keep their rows intact.
+ * </p>
  */
 public class SimpleBoard implements Board {
 
-    private final int width;
-    private final int height;
+    private final int rows;
+    private final int columns;
     private final BrickGenerator brickGenerator;
     private final BrickRotator brickRotator;
     private int[][] currentGameMatrix;
@@ -26,26 +33,52 @@ public class SimpleBoard implements Board {
     private Brick heldBrick;
     private Brick currentBrick;
     private boolean holdUsed;
+    private int mergedTop = -1;
+    private int mergedBottom = -1;
+    private final ColumnHeights columnHeights;
+    private final BoardChanges changes;
+    private final long[] ownedRows;
+    private boolean shared;
 
     /**
      * Constructs a SimpleBoard with the specified width and height.
      * Initializes the matrix, brick generator, brick rotator, and score.
+     * As with {@link BitBoard}, {@code width} is the number of rows and
+     * {@code height} the number of columns, the order of the matrix indices.
      *
-     * @param width  the width of the board in blocks
-     * @param height the height of the board in blocks
+     * @param width  the number of rows of the board
+     * @param height the number of columns of the board
      */
     public SimpleBoard(int width, int height) {
-        this.width = width;
-        this.height = height;
-        currentGameMatrix = new int[width][height];
-        brickGenerator = new RandomBrickGenerator();
+        this(width, height, new RandomBrickGenerator());
+    }
+
+    /**
+     * Constructs a SimpleBoard that draws its bricks from the given generator,
+     * e.g. a {@link com.comp2042.logic.bricks.SeededBrickGenerator} for a reproducible game.
+     *
+     * @param width          the number of rows of the board
+     * @param height         the number of columns of the board
+     * @param brickGenerator the source of new bricks
+     */
+    public SimpleBoard(int width, int height, BrickGenerator brickGenerator) {
+        this.rows = width;
+        this.columns = height;
+        currentGameMatrix = new int[rows][columns];
+        this.brickGenerator = brickGenerator;
         brickRotator = new BrickRotator();
         score = new Score();
+        columnHeights = new ColumnHeights(rows, columns);
+        changes = new BoardChanges(rows);
+        ownedRows = new long[(rows + Long.SIZE - 1) / Long.SIZE];
     }
 
+    // Collision tests only read the matrix, so moves test it directly instead of a copy:
+    // on a large board a copy per move costs far more than the test itself
+
     @Override
     public boolean moveBrickDown() {
-        int[][] currentMatrix = MatrixOperations.copy(currentGameMatrix);
+        int[][] currentMatrix = currentGameMatrix;
         Point p = new Point(currentOffset);
         p.translate(0, 1);
 
@@ -59,9 +92,16 @@ public class SimpleBoard implements Board {
         }
     }
 
+    @Override
+    public int dropBrick() {
+        int distance = getDropDistance();
+        currentOffset = new Point((int) currentOffset.getX(), (int) currentOffset.getY() + distance);
+        return distance;
+    }
+
     @Override
     public boolean moveBrickLeft() {
-        int[][] currentMatrix = MatrixOperations.copy(currentGameMatrix);
+        int[][] currentMatrix = currentGameMatrix;
         Point p = new Point(currentOffset);
         p.translate(-1, 0);
 
@@ -77,7 +117,7 @@ public class SimpleBoard implements Board {
 
     @Override
     public boolean moveBrickRight() {
-        int[][] currentMatrix = MatrixOperations.copy(currentGameMatrix);
+        int[][] currentMatrix = currentGameMatrix;
         Point p = new Point(currentOffset);
         p.translate(1, 0);
 
@@ -93,16 +133,16 @@ public class SimpleBoard implements Board {
 
     @Override
     public boolean rotateLeftBrick() {
-        int[][] currentMatrix = MatrixOperations.copy(currentGameMatrix);
-        NextShapeInfo nextShape = brickRotator.getNextShape();
+        int[][] currentMatrix = currentGameMatrix;
+        int nextRotation = brickRotator.getNextRotation();
 
-        boolean conflict = MatrixOperations.intersect(currentMatrix, nextShape.getShape(),
+        boolean conflict = MatrixOperations.intersect(currentMatrix, brickRotator.getRotations().getShape(nextRotation),
                 (int) currentOffset.getX(), (int) currentOffset.getY());
 
         if (conflict) {
             return false;
         } else {
-            brickRotator.setCurrentShape(nextShape.getPosition());
+            brickRotator.setCurrentShape(nextRotation);
             return true;
         }
     }
@@ -129,7 +169,7 @@ public class SimpleBoard implements Board {
         // Center and place brick at the top
         int[][] shape = brickRotator.getCurrentShape();
         int shapeWidth = shape[0].length;
-        int centerX = (height - shapeWidth) / 2;
+        int centerX = (columns - shapeWidth) / 2;
         currentOffset = new Point(centerX, 0);
 
         return MatrixOperations.intersect(currentGameMatrix, brickRotator.getCurrentShape(),
@@ -146,33 +186,149 @@ public class SimpleBoard implements Board {
         return new ViewData(brickRotator.getCurrentShape(),
                 (int) currentOffset.getX(),
                 (int) currentOffset.getY(),
-                brickGenerator.getNextBrick().getShapeMatrix().get(0));
+                brickGenerator.getNextBrick().getRotations().getShape(0));
+    }
+
+    /**
+     * Uses the column height cache; only when the brick sits below the skyline
+     * of one of its columns (slid under an overhang) does it test row by row.
+     *
+     * @return the drop distance in rows
+     */
+    @Override
+    public int getDropDistance() {
+        int x = (int) currentOffset.getX();
+        int y = (int) currentOffset.getY();
+        int distance = columnHeights.dropDistance(brickRotator.getRotations(), brickRotator.getCurrentRotation(), x, y);
+        if (distance >= 0) {
+            return distance;
+        }
+        int[][] shape = brickRotator.getCurrentShape();
+        distance = 0;
+        while (!MatrixOperations.intersect(currentGameMatrix, shape, x, y + distance + 1)) {
+            distance++;
+        }
+        return distance;
+    }
+
+    /**
+     * Rebuilds the column height cache from the board matrix. Only needed after
+     * the matrix returned by {@link #getBoardMatrix()} was modified directly.
+     */
+    void refreshColumnHeights() {
+        columnHeights.rebuild(currentGameMatrix);
+    }
+
+    /**
+     * Marks rows as touched by the last merged brick, as a lock would, so that the
+     * next {@link #clearRows()} only scans them. Only needed after the matrix
+     * returned by {@link #getBoardMatrix()} was modified directly.
+     *
+     * @param top    the first row
+     * @param bottom the last row, at most 32 rows below {@code top}
+     */
+    void markMerged(int top, int bottom) {
+        mergedTop = top;
+        mergedBottom = bottom;
     }
 
     @Override
     public void mergeBrickToBackground() {
-        currentGameMatrix = MatrixOperations.merge(currentGameMatrix,
+        // Remember the rows the brick touches: only they can become full
+        RotationTable rotations = brickRotator.getRotations();
+        int rotation = brickRotator.getCurrentRotation();
+        mergedTop = (int) currentOffset.getY() + rotations.getMinY(rotation);
+        mergedBottom = (int) currentOffset.getY() + rotations.getMaxY(rotation);
+        ownRows(mergedTop, mergedBottom);
+
+        MatrixOperations.mergeInPlace(currentGameMatrix,
                 brickRotator.getCurrentShape(),
                 (int) currentOffset.getX(),
                 (int) currentOffset.getY());
+        columnHeights.onMerge(rotations, rotation, (int) currentOffset.getX(), (int) currentOffset.getY());
+        changes.markRows(mergedTop, mergedBottom);
     }
 
     /**
-     * Clears completed rows, updates the score, and returns information about cleared rows.
+     * Clears completed rows in place, updates the score, and returns information about cleared rows.
+     * Only the rows touched by the last merged brick are scanned; if nothing was merged
+     * since the last clear, the whole board is scanned.
      *
-     * @return a {@link ClearRow} object containing removed row count and updated matrix
+     * @return a {@link ClearRow} object containing removed row count, cleared rows and updated matrix
      */
     @Override
     public ClearRow clearRows() {
-        ClearRow clearRow = MatrixOperations.checkRemoving(currentGameMatrix);
-        currentGameMatrix = clearRow.getNewMatrix();
+        int top = mergedTop >= 0 ? mergedTop : 0;
+        int bottom = mergedTop >= 0 ? mergedBottom : currentGameMatrix.length - 1;
+        mergedTop = -1;
+        mergedBottom = -1;
+
+        int stackTop = columnHeights.getStackTop();
+        // Full rows are zeroed and reused, so they must not be shared with a snapshot
+        ownRows(top, bottom);
+        int rowsCleared = 0;
+        int clearedMask = 0;
+        if (bottom - top < Integer.SIZE) {
+            clearedMask = MatrixOperations.clearFullRows(currentGameMatrix, top, bottom, stackTop);
+            rowsCleared = Integer.bitCount(clearedMask);
+        } else {
+            // Full scan of a tall board: clear 32 rows at a time, row indices are not reported
+            for (int from = top; from <= bottom; from += Integer.SIZE) {
+                int mask = MatrixOperations.clearFullRows(currentGameMatrix, from,
+                        Math.min(bottom, from + Integer.SIZE - 1), stackTop);
+                rowsCleared += Integer.bitCount(mask);
+            }
+            top = -1;
+        }
 
-        int rowsCleared = clearRow.getLinesRemoved();
+        if (rowsCleared > 0 && top >= 0) {
+            // Only the rows between the old stack top and the lowest cleared row moved down
+            int lowestRow = top + 31 - Integer.numberOfLeadingZeros(clearedMask);
+            changes.markRows(stackTop, lowestRow);
+        } else if (rowsCleared > 0) {
+            changes.markAll();
+        }
         if (rowsCleared > 0) {
             score.addLine(rowsCleared); // update line counter
+            columnHeights.onClear(currentGameMatrix);
+            // The rows that moved may now sit in slots owned by other arrays
+            disownRows(top >= 0 ? stackTop : 0, top >= 0 ? top + 31 - Integer.numberOfLeadingZeros(clearedMask) : rows - 1);
         }
 
-        return clearRow;
+        return new ClearRow(rowsCleared, currentGameMatrix, MatrixOperations.scoreBonus(rowsCleared),
+                clearedMask, top);
+    }
+
+    @Override
+    public boolean addGarbage(int rows, int hole) {
+        int[][] matrix = currentGameMatrix;
+        rows = Math.min(rows, matrix.length);
+        boolean toppedOut = false;
+        for (int row = 0; row < rows; row++) {
+            for (int cell : matrix[row]) {
+                toppedOut |= cell != 0;
+            }
+        }
+        // Reuse the arrays of the rows pushed off the top as the new bottom rows,
+        // unless a snapshot may still hold them
+        int[][] pushedOff = new int[rows][];
+        System.arraycopy(matrix, 0, pushedOff, 0, rows);
+        System.arraycopy(matrix, rows, matrix, 0, matrix.length - rows);
+        for (int i = 0; i < rows; i++) {
+            int[] row = shared ? new int[columns] : pushedOff[i];
+            Arrays.fill(row, GARBAGE_COLOR);
+            row[hole] = 0;
+            matrix[matrix.length - rows + i] = row;
+        }
+        disownRows(0, matrix.length - rows - 1);
+        columnHeights.rebuild(matrix);
+        changes.markAll();
+        return toppedOut;
+    }
+
+    @Override
+    public BoardChanges getChanges() {
+        return changes;
     }
 
     @Override
@@ -182,13 +338,79 @@ public class SimpleBoard implements Board {
 
     @Override
     public void newGame() {
-        currentGameMatrix = new int[width][height];
+        currentGameMatrix = new int[rows][columns];
+        shared = false;
+        mergedTop = -1;
+        mergedBottom = -1;
+        columnHeights.clear();
+        changes.markAll();
         score.reset();
         heldBrick = null;
         holdUsed = false;
         createNewBrick();
     }
 
+    @Override
+    public BoardSnapshot snapshot() {
+        shared = true;
+        Arrays.fill(ownedRows, 0);
+        return new BoardSnapshot(currentGameMatrix.clone(), currentBrick, brickRotator.getCurrentRotation(),
+                (int) currentOffset.getX(), (int) currentOffset.getY(), nextBrick, heldBrick, holdUsed,
+                score, brickGenerator.mark());
+    }
+
+    @Override
+    public void restore(BoardSnapshot snapshot) {
+        currentGameMatrix = snapshot.getRows().clone();
+        shared = true;
+        Arrays.fill(ownedRows, 0);
+        currentBrick = snapshot.getCurrentBrick();
+        brickRotator.setBrick(currentBrick);
+        brickRotator.setCurrentShape(snapshot.getRotation());
+        currentOffset = new Point(snapshot.getX(), snapshot.getY());
+        nextBrick = snapshot.getNextBrick();
+        heldBrick = snapshot.getHeldBrick();
+        holdUsed = snapshot.isHoldUsed();
+        score.set(snapshot.getScore(), snapshot.getLines());
+        if (snapshot.getGeneratorMark() >= 0) {
+            brickGenerator.rewind(snapshot.getGeneratorMark());
+        }
+        mergedTop = -1;
+        mergedBottom = -1;
+        columnHeights.rebuild(currentGameMatrix);
+        changes.markAll();
+    }
+
+    /**
+     * Makes sure the board owns the row arrays in {@code from..to}, copying the
+     * ones a snapshot may share, so they can be written to.
+     */
+    private void ownRows(int from, int to) {
+        if (!shared) {
+            return;
+        }
+        for (int row = Math.max(0, from); row <= to && row < rows; row++) {
+            long bit = 1L << row;
+            if ((ownedRows[row >>> 6] & bit) == 0) {
+                currentGameMatrix[row] = currentGameMatrix[row].clone();
+                ownedRows[row >>> 6] |= bit;
+            }
+        }
+    }
+
+    /**
+     * Forgets which of the row slots in {@code from..to} the board owns, after
+     * rows were moved between them.
+     */
+    private void disownRows(int from, int to) {
+        if (!shared) {
+            return;
+        }
+        for (int row = Math.max(0, from); row <= to && row < rows; row++) {
+            ownedRows[row >>> 6] &= ~(1L << row);
+        }
+    }
+
     /**
      * Returns the next brick's shape information for preview in the UI.
      *
@@ -197,7 +419,7 @@ public class SimpleBoard implements Board {
     @Override
     public NextShapeInfo getNextShape() {
         if (nextBrick == null) return null;
-        return new NextShapeInfo(nextBrick.getShapeMatrix().get(0), 0); // default rotation index
+        return new NextShapeInfo(nextBrick.getRotations().getShape(0), 0); // default rotation index
     }
 
     /**
@@ -213,10 +435,6 @@ public class SimpleBoard implements Board {
             return null;
         }
 
-        // Get the current brick's shape and color code
-        int[][] currentShape = brickRotator.getCurrentShape();
-        int colorCode = extractColorCode(currentShape);
-
         // Swap current and held brick
         Brick temp = heldBrick;
         heldBrick = currentBrick;
@@ -231,7 +449,7 @@ public class SimpleBoard implements Board {
             // Center and place brick at the top
             int[][] shape = brickRotator.getCurrentShape();
             int shapeWidth = shape[0].length;
-            int centerX = (height - shapeWidth) / 2;
+            int centerX = (columns - shapeWidth) / 2;
             currentOffset = new Point(centerX, 0);
             // Reset hold flag for the swapped-in piece (it can be held again)
             holdUsed = false;
@@ -241,13 +459,7 @@ public class SimpleBoard implements Board {
         }
 
         // Return the shape info of what's now in hold
-        if (heldBrick != null) {
-            int[][] heldShape = heldBrick.getShapeMatrix().get(0);
-            int heldColorCode = extractColorCode(heldShape);
-            return new HoldShapeInfo(heldShape, heldColorCode);
-        }
-
-        return null;
+        return getHeldShape();
     }
 
     /**
@@ -260,26 +472,22 @@ public class SimpleBoard implements Board {
         if (heldBrick == null) {
             return null;
         }
-        int[][] heldShape = heldBrick.getShapeMatrix().get(0);
-        int colorCode = extractColorCode(heldShape);
-        return new HoldShapeInfo(heldShape, colorCode);
+        RotationTable rotations = heldBrick.getRotations();
+        return new HoldShapeInfo(rotations.getShape(0), rotations.getColorCode());
     }
 
-    /**
-     * Extracts the color code from a brick shape matrix.
-     * Finds the first non-zero value in the matrix.
-     *
-     * @param shape the brick shape matrix
-     * @return the color code (1-7), or 0 if no color found
-     */
-    private int extractColorCode(int[][] shape) {
-        for (int[] row : shape) {
-            for (int cell : row) {
-                if (cell != 0) {
-                    return cell;
-                }
-            }
-        }
-        return 0;
+    @Override
+    public Brick getCurrentBrick() {
+        return currentBrick;
+    }
+
+    @Override
+    public Brick getNextBrick() {
+        return nextBrick;
+    }
+
+    @Override
+    public Brick getHeldBrick() {
+        return heldBrick;
     }
 }
@@ -0,0 +1,194 @@
+package com.comp2042;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Carries the changes of the game to the panels around the board, at most once
+ * per frame.
+ * <p>
+ * Each kind of change is a typed {@link Topic}. {@link #publish} only keeps the
+ * latest value of a topic and marks it as changed; {@link #flush()}, called once
+ * per pulse by the view, hands each changed topic's latest value to its
+ * subscribers. However many locks, holds or rewinds happen within a frame, every
+ * counter and preview is redrawn once, with the value it ends up with.
+ * </p>
+ * <p>
+ * Subscriptions are opened through a {@link Scope} and end when it is closed, so
+ * a view subscribes once for its whole life instead of once per game. Only used
+ * on the FX thread, so nothing is synchronized.
+ * </p>
+ */
+public final class UiEventBus {
+
+    /** The score. */
+    public static final Topic<Integer> SCORE = new Topic<>("score", 0);
+
+    /** The number of cleared lines. */
+    public static final Topic<Integer> LINES = new Topic<>("lines", 1);
+
+    /** The level, which follows from the cleared lines. */
+    public static final Topic<Integer> LEVEL = new Topic<>("level", 2);
+
+    /** The next brick. */
+    public static final Topic<NextShapeInfo> NEXT = new Topic<>("next", 3);
+
+    /** The held brick, or null while nothing is held. */
+    public static final Topic<HoldShapeInfo> HOLD = new Topic<>("hold", 4);
+
+    private static final int TOPICS = 5;
+
+    private final Object[] latest = new Object[TOPICS];
+    private final List<List<Consumer<Object>>> subscribers = new ArrayList<>(TOPICS);
+    private int published;
+    private int changed;
+
+    /**
+     * Creates a bus with no subscribers.
+     */
+    public UiEventBus() {
+        for (int i = 0; i < TOPICS; i++) {
+            subscribers.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Records the new value of a topic, to be delivered on the next {@link #flush()}.
+     * A value published before an earlier one was delivered replaces it.
+     *
+     * @param topic the topic
+     * @param value the new value
+     * @param <T>   the type of the values of the topic
+     */
+    public <T> void publish(Topic<T> topic, T value) {
+        latest[topic.index] = value;
+        published |= 1 << topic.index;
+        changed |= 1 << topic.index;
+    }
+
+    /**
+     * Delivers the latest value of every topic that changed since the last flush,
+     * once to each subscriber.
+     */
+    public void flush() {
+        while (changed != 0) {
+            int index = Integer.numberOfTrailingZeros(changed);
+            changed &= ~(1 << index);
+            // A copy, so handlers may open or close subscriptions
+            Object value = latest[index];
+            for (Object handler : subscribers.get(index).toArray()) {
+                @SuppressWarnings("unchecked")
+                Consumer<Object> consumer = (Consumer<Object>) handler;
+                consumer.accept(value);
+            }
+        }
+    }
+
+    /**
+     * Opens a scope to subscribe through.
+     *
+     * @return a new scope with no subscriptions
+     */
+    public Scope openScope() {
+        return new Scope();
+    }
+
+    /**
+     * Returns the number of open subscriptions to a topic.
+     *
+     * @param topic the topic
+     * @return the subscriber count
+     */
+    int getSubscriberCount(Topic<?> topic) {
+        return subscribers.get(topic.index).size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void subscribe(Topic<T> topic, Consumer<? super T> handler) {
+        subscribers.get(topic.index).add((Consumer<Object>) handler);
+        if ((published & (1 << topic.index)) != 0) {
+            // Late subscribers get the current value on the next flush as well
+            changed |= 1 << topic.index;
+        }
+    }
+
+    private void unsubscribe(Topic<?> topic, Consumer<?> handler) {
+        List<Consumer<Object>> list = subscribers.get(topic.index);
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == handler) {
+                list.remove(i);
+                return;
+            }
+        }
+    }
+
+    /**
+     * A kind of change, with the type of its values.
+     *
+     * @param <T> the type of the values
+     */
+    public static final class Topic<T> {
+        private final String name;
+        private final int index;
+
+        private Topic(String name, int index) {
+            this.name = name;
+            this.index = index;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * The lifetime of a group of subscriptions, e.g. those of one view.
+     * Closing the scope ends all of them; it cannot be used afterwards.
+     */
+    public final class Scope implements AutoCloseable {
+        private final List<Topic<?>> topics = new ArrayList<>();
+        private final List<Consumer<?>> handlers = new ArrayList<>();
+        private boolean closed;
+
+        private Scope() { }
+
+        /**
+         * Subscribes to a topic until the scope is closed. The handler receives the
+         * latest value on every flush after the topic changed, starting with the
+         * current value if one was published before.
+         *
+         * @param topic   the topic
+         * @param handler receives the values
+         * @param <T>     the type of the values of the topic
+         * @return this scope
+         * @throws IllegalStateException if the scope is closed
+         */
+        public <T> Scope subscribe(Topic<T> topic, Consumer<? super T> handler) {
+            if (closed) {
+                throw new IllegalStateException("Scope is closed");
+            }
+            UiEventBus.this.subscribe(topic, handler);
+            topics.add(topic);
+            handlers.add(handler);
+            return this;
+        }
+
+        /**
+         * Ends every subscription of the scope.
+         */
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (int i = 0; i < topics.size(); i++) {
+                unsubscribe(topics.get(i), handlers.get(i));
+            }
+            topics.clear();
+            handlers.clear();
+        }
+    }
+}
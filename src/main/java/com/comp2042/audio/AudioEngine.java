@@ -0,0 +1,253 @@
+package com.comp2042.audio;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Clip;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Plays the background music and the sound effects without blocking the FX thread.
+ * <p>
+ * Music is streamed, never loaded whole: a dedicated thread decodes the WAV in
+ * small chunks into a {@link SourceDataLine} whose buffer holds about a quarter
+ * of a second, and reopens the file when it ends to loop it. A missing or
+ * unplayable file is reported once and the game goes on silently.
+ * </p>
+ * <p>
+ * Sound effects are decoded or synthesized once, on a second thread, into a small
+ * pool of open {@link Clip}s per effect. {@link #play(SoundEffect)} only puts the
+ * effect's ordinal into a fixed single-producer ring and wakes that thread, which
+ * rewinds and starts the next clip of the pool; the caller never allocates or
+ * waits on the audio system. Effects triggered before the pool is ready, or
+ * while the ring is full, are dropped.
+ * </p>
+ */
+public class AudioEngine implements Closeable {
+
+    /** Clips per effect, so an effect can overlap itself a couple of times. */
+    private static final int CLIPS_PER_EFFECT = 3;
+
+    /** Capacity of the trigger ring; a power of two. */
+    private static final int QUEUE_SIZE = 16;
+
+    /** Seconds of music held in the line's buffer. */
+    private static final float MUSIC_BUFFER_SECONDS = 0.25f;
+
+    /** Format of the synthesized fallback effects. */
+    private static final AudioFormat TONE_FORMAT = new AudioFormat(44100f, 16, 1, true, false);
+
+    private static final SoundEffect[] EFFECTS = SoundEffect.values();
+
+    private final int[] queue = new int[QUEUE_SIZE];
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final Clip[][] clips = new Clip[EFFECTS.length][];
+    private final int[] nextClip = new int[EFFECTS.length];
+
+    private volatile boolean closed;
+    private volatile boolean effectsReady;
+    private Thread effectsThread;
+    private Thread musicThread;
+
+    /**
+     * Starts the sound effect thread, which loads the effects and then waits for triggers.
+     * Returns at once.
+     */
+    public void start() {
+        effectsThread = new Thread(this::runEffects, "audio-effects");
+        effectsThread.setDaemon(true);
+        effectsThread.start();
+    }
+
+    /**
+     * Starts streaming a WAV file from the classpath in a loop on its own thread.
+     * Returns at once; does nothing if the file does not exist.
+     *
+     * @param resourcePath the path to the WAV file within the classpath
+     */
+    public void playMusic(String resourcePath) {
+        URL url = getClass().getResource(resourcePath);
+        if (url == null) {
+            System.err.println("Music not found, playing without it: " + resourcePath);
+            return;
+        }
+        stopMusic();
+        musicThread = new Thread(() -> streamMusic(url), "audio-music");
+        musicThread.setDaemon(true);
+        musicThread.start();
+    }
+
+    /**
+     * Stops the music, if it is playing.
+     */
+    public void stopMusic() {
+        if (musicThread != null) {
+            musicThread.interrupt();
+            musicThread = null;
+        }
+    }
+
+    /**
+     * Triggers a sound effect. Must always be called from the same thread, the FX
+     * thread in the game; it never blocks and never allocates.
+     *
+     * @param effect the effect to play
+     */
+    public void play(SoundEffect effect) {
+        if (!effectsReady) {
+            return;
+        }
+        long h = head.get();
+        if (h - tail.get() >= QUEUE_SIZE) {
+            return;
+        }
+        queue[(int) h & (QUEUE_SIZE - 1)] = effect.ordinal();
+        head.lazySet(h + 1);
+        LockSupport.unpark(effectsThread);
+    }
+
+    /**
+     * Stops the music and the effect thread and releases the audio lines.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        stopMusic();
+        if (effectsThread != null) {
+            LockSupport.unpark(effectsThread);
+        }
+    }
+
+    private void runEffects() {
+        boolean lineAvailable = true;
+        for (SoundEffect effect : EFFECTS) {
+            // Without an audio line for the first effect there is none for the others either
+            clips[effect.ordinal()] = lineAvailable ? loadClips(effect) : new Clip[0];
+            lineAvailable = clips[effect.ordinal()].length > 0;
+        }
+        effectsReady = lineAvailable;
+        while (!closed) {
+            long t = tail.get();
+            if (t == head.get()) {
+                LockSupport.park(this);
+                continue;
+            }
+            int ordinal = queue[(int) t & (QUEUE_SIZE - 1)];
+            tail.lazySet(t + 1);
+            trigger(ordinal);
+        }
+        for (Clip[] pool : clips) {
+            for (Clip clip : pool) {
+                clip.close();
+            }
+        }
+    }
+
+    private void trigger(int ordinal) {
+        Clip[] pool = clips[ordinal];
+        if (pool.length == 0) {
+            return;
+        }
+        Clip clip = pool[nextClip[ordinal]];
+        nextClip[ordinal] = (nextClip[ordinal] + 1) % pool.length;
+        clip.stop();
+        clip.setFramePosition(0);
+        clip.start();
+    }
+
+    /**
+     * Decodes the effect's WAV file, or synthesizes its tone, and opens a pool of clips on it.
+     *
+     * @return the open clips, empty if no audio line is available
+     */
+    private Clip[] loadClips(SoundEffect effect) {
+        AudioFormat format = TONE_FORMAT;
+        byte[] data = null;
+        URL url = getClass().getResource(effect.getResource());
+        if (url != null) {
+            try (AudioInputStream in = AudioSystem.getAudioInputStream(url)) {
+                format = in.getFormat();
+                data = in.readAllBytes();
+            } catch (UnsupportedAudioFileException | IOException e) {
+                System.err.println("Could not load " + effect.getResource() + ": " + e.getMessage());
+            }
+        }
+        if (data == null) {
+            format = TONE_FORMAT;
+            data = effect.synthesize(TONE_FORMAT.getSampleRate());
+        }
+        Clip[] pool = new Clip[CLIPS_PER_EFFECT];
+        try {
+            for (int i = 0; i < pool.length; i++) {
+                pool[i] = AudioSystem.getClip();
+                pool[i].open(format, data, 0, data.length);
+            }
+            return pool;
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            System.err.println("No audio line for sound effects: " + e.getMessage());
+            for (Clip clip : pool) {
+                if (clip != null) {
+                    clip.close();
+                }
+            }
+            return new Clip[0];
+        }
+    }
+
+    /**
+     * Streams the music file to a source line until the engine is closed or the
+     * music is stopped, starting over whenever the file ends.
+     */
+    private void streamMusic(URL url) {
+        SourceDataLine line = null;
+        byte[] chunk = null;
+        try {
+            while (!closed && !Thread.currentThread().isInterrupted()) {
+                try (AudioInputStream in = pcm(AudioSystem.getAudioInputStream(url))) {
+                    if (line == null) {
+                        AudioFormat format = in.getFormat();
+                        int frameSize = format.getFrameSize();
+                        int bufferBytes = (int) (format.getFrameRate() * MUSIC_BUFFER_SECONDS) * frameSize;
+                        line = AudioSystem.getSourceDataLine(format);
+                        line.open(format, bufferBytes);
+                        line.start();
+                        // Write a quarter of the line buffer at a time, whole frames only
+                        chunk = new byte[Math.max(frameSize, line.getBufferSize() / 4 / frameSize * frameSize)];
+                    }
+                    int read;
+                    while (!closed && !Thread.currentThread().isInterrupted() && (read = in.read(chunk)) > 0) {
+                        line.write(chunk, 0, read);
+                    }
+                }
+            }
+        } catch (UnsupportedAudioFileException | IOException | LineUnavailableException | IllegalArgumentException e) {
+            System.err.println("Could not play music: " + e.getMessage());
+        } finally {
+            if (line != null) {
+                line.stop();
+                line.close();
+            }
+        }
+    }
+
+    /**
+     * Converts a compressed stream to 16-bit signed PCM so it can be written to a line.
+     */
+    private static AudioInputStream pcm(AudioInputStream in) {
+        AudioFormat format = in.getFormat();
+        AudioFormat.Encoding encoding = format.getEncoding();
+        if (encoding == AudioFormat.Encoding.PCM_SIGNED || encoding == AudioFormat.Encoding.PCM_UNSIGNED) {
+            return in;
+        }
+        AudioFormat target = new AudioFormat(format.getSampleRate(), 16, format.getChannels(), true, false);
+        return AudioSystem.getAudioInputStream(target, in);
+    }
+}
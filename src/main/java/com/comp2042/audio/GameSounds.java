@@ -0,0 +1,36 @@
+package com.comp2042.audio;
+
+import com.comp2042.ClearRow;
+import com.comp2042.GameEventListener;
+
+/**
+ * Plays the sound effect that goes with each game event.
+ */
+public class GameSounds implements GameEventListener {
+
+    private final AudioEngine audio;
+
+    /**
+     * Creates the listener.
+     *
+     * @param audio the engine to play the effects on
+     */
+    public GameSounds(AudioEngine audio) {
+        this.audio = audio;
+    }
+
+    @Override
+    public void onBrickLocked(ClearRow clearRow) {
+        audio.play(clearRow.getLinesRemoved() > 0 ? SoundEffect.LINE_CLEAR : SoundEffect.LOCK);
+    }
+
+    @Override
+    public void onHold() {
+        audio.play(SoundEffect.HOLD);
+    }
+
+    @Override
+    public void onGameOver() {
+        audio.play(SoundEffect.GAME_OVER);
+    }
+}
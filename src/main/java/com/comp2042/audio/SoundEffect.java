@@ -0,0 +1,63 @@
+package com.comp2042.audio;
+
+/**
+ * The short sound effects triggered by game events.
+ * <p>
+ * Each effect is loaded from a WAV file under {@code /sfx} on the classpath if
+ * one is there; otherwise a short tone sweeping between two pitches is
+ * synthesized instead, so the game has effects without shipping any.
+ * </p>
+ */
+public enum SoundEffect {
+    /** A brick locked without clearing a row. */
+    LOCK("/sfx/lock.wav", 180, 120, 0.06),
+    /** One or more rows were cleared. */
+    LINE_CLEAR("/sfx/line_clear.wav", 660, 990, 0.18),
+    /** The falling brick was swapped with the held one. */
+    HOLD("/sfx/hold.wav", 520, 520, 0.05),
+    /** The game ended. */
+    GAME_OVER("/sfx/game_over.wav", 330, 110, 0.7);
+
+    private final String resource;
+    private final double fromHz;
+    private final double toHz;
+    private final double seconds;
+
+    SoundEffect(String resource, double fromHz, double toHz, double seconds) {
+        this.resource = resource;
+        this.fromHz = fromHz;
+        this.toHz = toHz;
+        this.seconds = seconds;
+    }
+
+    /**
+     * Returns the classpath location of the effect's WAV file.
+     *
+     * @return the resource path
+     */
+    public String getResource() {
+        return resource;
+    }
+
+    /**
+     * Synthesizes the fallback tone as signed 16-bit little-endian mono PCM.
+     *
+     * @param sampleRate the sample rate in Hz
+     * @return the samples
+     */
+    byte[] synthesize(float sampleRate) {
+        int samples = (int) (seconds * sampleRate);
+        byte[] pcm = new byte[samples * 2];
+        double phase = 0;
+        for (int i = 0; i < samples; i++) {
+            double t = (double) i / samples;
+            phase += 2 * Math.PI * (fromHz + (toHz - fromHz) * t) / sampleRate;
+            // Short attack, then a linear fade so the tone does not click
+            double envelope = Math.min(1, i / (sampleRate * 0.005)) * (1 - t);
+            short value = (short) (Math.sin(phase) * envelope * 0.4 * Short.MAX_VALUE);
+            pcm[2 * i] = (byte) value;
+            pcm[2 * i + 1] = (byte) (value >> 8);
+        }
+        return pcm;
+    }
+}
@@ -0,0 +1,89 @@
+package com.comp2042.bot;
+
+/**
+ * Weights of the board features used by {@link PlacementBot} to score a placement.
+ * <p>
+ * The score of a board is a weighted sum of its aggregate column height, the
+ * number of rows cleared to reach it, the number of holes (empty cells below a
+ * filled cell in the same column) and its bumpiness (the summed height difference
+ * of neighbouring columns). Higher scores are better, so the penalties carry
+ * negative weights.
+ * </p>
+ */
+public final class HeuristicWeights {
+
+    /** Well-known general-purpose weights that clear lines steadily and keep the stack low. */
+    public static final HeuristicWeights DEFAULT = new HeuristicWeights(-0.510066, 0.760666, -0.35663, -0.184483);
+
+    private final double aggregateHeight;
+    private final double lines;
+    private final double holes;
+    private final double bumpiness;
+
+    /**
+     * Creates a set of weights.
+     *
+     * @param aggregateHeight weight of the summed column heights
+     * @param lines           weight of the rows cleared
+     * @param holes           weight of the number of holes
+     * @param bumpiness       weight of the summed height differences of neighbouring columns
+     */
+    public HeuristicWeights(double aggregateHeight, double lines, double holes, double bumpiness) {
+        this.aggregateHeight = aggregateHeight;
+        this.lines = lines;
+        this.holes = holes;
+        this.bumpiness = bumpiness;
+    }
+
+    /**
+     * Combines the board features into a score.
+     *
+     * @param aggregateHeight the summed column heights
+     * @param lines           the rows cleared
+     * @param holes           the number of holes
+     * @param bumpiness       the summed height differences of neighbouring columns
+     * @return the weighted score, higher is better
+     */
+    public double score(int aggregateHeight, int lines, int holes, int bumpiness) {
+        return this.aggregateHeight * aggregateHeight
+                + this.lines * lines
+                + this.holes * holes
+                + this.bumpiness * bumpiness;
+    }
+
+    /**
+     * Returns the weight of the summed column heights.
+     *
+     * @return the weight
+     */
+    public double getAggregateHeight() {
+        return aggregateHeight;
+    }
+
+    /**
+     * Returns the weight of the rows cleared.
+     *
+     * @return the weight
+     */
+    public double getLines() {
+        return lines;
+    }
+
+    /**
+     * Returns the weight of the number of holes.
+     *
+     * @return the weight
+     */
+    public double getHoles() {
+        return holes;
+    }
+
+    /**
+     * Returns the weight of the summed height differences of neighbouring columns.
+     *
+     * @return the weight
+     */
+    public double getBumpiness() {
+        return bumpiness;
+    }
+}
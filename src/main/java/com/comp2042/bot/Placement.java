@@ -0,0 +1,97 @@
+package com.comp2042.bot;
+
+/**
+ * A landing spot chosen by {@link PlacementBot}, together with how to reach it.
+ * <p>
+ * The spot is reached by optionally holding first, rotating {@link #getRotateCount()}
+ * times, shifting to column {@link #getX()} and hard dropping.
+ * </p>
+ */
+public final class Placement {
+
+    private final boolean hold;
+    private final int rotateCount;
+    private final int rotation;
+    private final int x;
+    private final int y;
+    private final double score;
+
+    /**
+     * Creates a placement.
+     *
+     * @param hold        whether the brick has to be swapped with the held one first
+     * @param rotateCount the number of rotate commands to issue
+     * @param rotation    the rotation index the brick lands in
+     * @param x           the column of the brick's top-left corner
+     * @param y           the row of the brick's top-left corner after the drop
+     * @param score       the heuristic score of the resulting board
+     */
+    public Placement(boolean hold, int rotateCount, int rotation, int x, int y, double score) {
+        this.hold = hold;
+        this.rotateCount = rotateCount;
+        this.rotation = rotation;
+        this.x = x;
+        this.y = y;
+        this.score = score;
+    }
+
+    /**
+     * Returns whether the brick has to be swapped with the held one first.
+     *
+     * @return true to hold before moving
+     */
+    public boolean isHold() {
+        return hold;
+    }
+
+    /**
+     * Returns the number of rotate commands to issue.
+     *
+     * @return the rotate count
+     */
+    public int getRotateCount() {
+        return rotateCount;
+    }
+
+    /**
+     * Returns the rotation index the brick lands in.
+     *
+     * @return the rotation index
+     */
+    public int getRotation() {
+        return rotation;
+    }
+
+    /**
+     * Returns the column of the brick's top-left corner.
+     *
+     * @return the column
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Returns the row of the brick's top-left corner after the drop.
+     *
+     * @return the landing row
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Returns the heuristic score of the resulting board.
+     *
+     * @return the score, higher is better
+     */
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return "Placement{hold=" + hold + ", rotation=" + rotation + ", x=" + x + ", y=" + y
+                + ", score=" + score + '}';
+    }
+}
@@ -0,0 +1,421 @@
+package com.comp2042.bot;
+
+import com.comp2042.Board;
+import com.comp2042.ColumnHeights;
+import com.comp2042.GameEngine;
+import com.comp2042.MatrixOperations;
+import com.comp2042.ViewData;
+import com.comp2042.logic.bricks.Brick;
+import com.comp2042.logic.bricks.RotationTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A bot that picks where to place the falling brick by searching every reachable landing spot.
+ * <p>
+ * A spot is reachable when the brick can rotate in place, shift sideways and then
+ * fall straight down to it, which is exactly how {@link #playMove(GameEngine)} plays
+ * it. Each spot is merged into a copy of the board, full rows are cleared, and the
+ * result is scored with {@link HeuristicWeights}. At depth 2 every spot is scored by
+ * the best spot of the following brick on top of it. When hold is enabled the held
+ * brick is searched too (or, with an empty hold, the next brick, followed by the
+ * current one taken back out of hold).
+ * </p>
+ * <p>
+ * Candidates of the first brick are scored in parallel on a {@link ForkJoinPool}.
+ * Each move has a time budget, counted from the start of the search. The depth 1
+ * pass, one board evaluation per candidate, always completes; if the depth 2
+ * search runs out of the time left, the depth 1 result is used, so a move is
+ * always returned promptly. Ties go to the first candidate in search order, so
+ * results do not depend on thread scheduling.
+ * </p>
+ */
+public class PlacementBot {
+
+    /** Default time budget of a move, both passes included, in nanoseconds. */
+    public static final long DEFAULT_BUDGET_NANOS = 1_000_000L;
+
+    /** Added to the score of a spot after which the following brick cannot spawn. */
+    private static final double TOP_OUT_PENALTY = -1e9;
+
+    private final HeuristicWeights weights;
+    private final int depth;
+    private final boolean useHold;
+    private final long budgetNanos;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a depth 2 bot with the default weights and budget, using hold and the common pool.
+     */
+    public PlacementBot() {
+        this(HeuristicWeights.DEFAULT, 2, true, DEFAULT_BUDGET_NANOS, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a bot.
+     *
+     * @param weights     the heuristic used to score boards
+     * @param depth       1 to look at the current brick only, 2 to also place the next brick
+     * @param useHold     whether to consider swapping with the held brick
+     * @param budgetNanos the time budget of a move, depth 1 pass included
+     * @param pool        the pool the search runs on
+     * @throws IllegalArgumentException if the depth is not 1 or 2
+     */
+    public PlacementBot(HeuristicWeights weights, int depth, boolean useHold, long budgetNanos, ForkJoinPool pool) {
+        if (depth < 1 || depth > 2) {
+            throw new IllegalArgumentException("Search depth must be 1 or 2");
+        }
+        this.weights = weights;
+        this.depth = depth;
+        this.useHold = useHold;
+        this.budgetNanos = budgetNanos;
+        this.pool = pool;
+    }
+
+    /**
+     * Finds the best placement for the falling brick of a board. The board is not modified.
+     *
+     * @param board the board to search
+     * @return the best placement, or null if the brick cannot move at all
+     */
+    public Placement findBest(Board board) {
+        Brick current = board.getCurrentBrick();
+        if (current == null) {
+            return null;
+        }
+        int[][] matrix = board.getBoardMatrix();
+        ViewData view = board.getViewData();
+        RotationTable table = current.getRotations();
+        Brick next = board.getNextBrick();
+        RotationTable nextTable = next != null ? next.getRotations() : null;
+
+        List<Candidate> candidates = new ArrayList<>();
+        forEachPlacement(matrix, null, table, findRotation(table, view.getBrickData()),
+                view.getxPosition(), view.getyPosition(),
+                (rotateCount, rotation, x, y) -> candidates.add(
+                        new Candidate(false, table, rotateCount, rotation, x, y, nextTable)));
+        if (useHold && next != null) {
+            Brick held = board.getHeldBrick();
+            // With an empty hold the next brick comes in, and the current one can be held back out
+            RotationTable first = held != null ? held.getRotations() : nextTable;
+            RotationTable second = held != null ? nextTable : table;
+            forEachPlacement(matrix, null, first, 0, spawnX(matrix, first), 0,
+                    (rotateCount, rotation, x, y) -> candidates.add(
+                            new Candidate(true, first, rotateCount, rotation, x, y, second)));
+        }
+        if (candidates.isEmpty()) {
+            return null;
+        }
+
+        Candidate[] array = candidates.toArray(new Candidate[0]);
+        // The budget covers the whole move: the depth 1 pass, which always finishes
+        // as the fallback, and then depth 2 for whatever time is left
+        long deadline = System.nanoTime() + budgetNanos;
+        AtomicBoolean timedOut = new AtomicBoolean();
+        Best best = pool.invoke(new SearchTask(matrix, array, 0, array.length, 1, Long.MAX_VALUE, timedOut));
+        if (depth > 1) {
+            Best deep = pool.invoke(new SearchTask(matrix, array, 0, array.length, 2, deadline, timedOut));
+            if (!timedOut.get()) {
+                best = deep;
+            }
+        }
+        Candidate c = array[best.index];
+        return new Placement(c.hold, c.rotateCount, c.rotation, c.x, c.y, best.score);
+    }
+
+    /**
+     * Finds and plays the best placement on an engine: hold if needed, rotate, shift and hard drop.
+     *
+     * @param engine the engine to play on
+     * @return the placement played, or null if the game is over or no placement was found
+     */
+    public Placement playMove(GameEngine engine) {
+        if (engine.isGameOver()) {
+            return null;
+        }
+        Placement placement = findBest(engine.getBoard());
+        if (placement == null) {
+            engine.hardDrop();
+            return null;
+        }
+        if (placement.isHold()) {
+            engine.hold();
+        }
+        for (int i = 0; i < placement.getRotateCount(); i++) {
+            engine.rotate();
+        }
+        int x = engine.getBoard().getViewData().getxPosition();
+        while (x < placement.getX() && engine.moveRight()) {
+            x++;
+        }
+        while (x > placement.getX() && engine.moveLeft()) {
+            x--;
+        }
+        engine.hardDrop();
+        return placement;
+    }
+
+    /**
+     * Returns the rotation index whose shape matches the brick shown in the view.
+     */
+    private static int findRotation(RotationTable table, int[][] shape) {
+        for (int r = 0; r < table.size(); r++) {
+            if (Arrays.deepEquals(table.getShape(r), shape)) {
+                return r;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the column a swapped-in brick spawns at, matching the boards.
+     */
+    private static int spawnX(int[][] matrix, RotationTable table) {
+        return (matrix[0].length - table.getColumnCount()) / 2;
+    }
+
+    /**
+     * Visits every spot a brick can reach from {@code (x0, y0)} in rotation
+     * {@code startRotation} by rotating in place, shifting sideways and dropping.
+     * Nothing is visited if the brick already collides where it starts. When the
+     * column heights of the matrix are given, drops above the stack are looked up
+     * instead of tested row by row.
+     */
+    static void forEachPlacement(int[][] matrix, ColumnHeights heights, RotationTable table, int startRotation,
+                                 int x0, int y0, PlacementVisitor visitor) {
+        int rotation = startRotation;
+        for (int rotateCount = 0; rotateCount < table.size(); rotateCount++) {
+            if (rotateCount > 0) {
+                rotation = table.next(rotation);
+            }
+            int[][] shape = table.getShape(rotation);
+            if (MatrixOperations.intersect(matrix, shape, x0, y0)) {
+                return;
+            }
+            int left = x0;
+            while (!MatrixOperations.intersect(matrix, shape, left - 1, y0)) {
+                left--;
+            }
+            int right = x0;
+            while (!MatrixOperations.intersect(matrix, shape, right + 1, y0)) {
+                right++;
+            }
+            for (int x = left; x <= right; x++) {
+                int distance = heights != null ? heights.dropDistance(table, rotation, x, y0) : -1;
+                int y = y0 + Math.max(distance, 0);
+                if (distance < 0) {
+                    while (!MatrixOperations.intersect(matrix, shape, x, y + 1)) {
+                        y++;
+                    }
+                }
+                visitor.visit(rotateCount, rotation, x, y);
+            }
+        }
+    }
+
+    /**
+     * Receives the reachable spots found by {@link #forEachPlacement}.
+     */
+    interface PlacementVisitor {
+        void visit(int rotateCount, int rotation, int x, int y);
+    }
+
+    /**
+     * One landing spot of the first brick, plus the brick that follows it.
+     */
+    private static final class Candidate {
+        final boolean hold;
+        final RotationTable table;
+        final int rotateCount;
+        final int rotation;
+        final int x;
+        final int y;
+        final RotationTable following;
+
+        Candidate(boolean hold, RotationTable table, int rotateCount, int rotation, int x, int y,
+                  RotationTable following) {
+            this.hold = hold;
+            this.table = table;
+            this.rotateCount = rotateCount;
+            this.rotation = rotation;
+            this.x = x;
+            this.y = y;
+            this.following = following;
+        }
+    }
+
+    /**
+     * The best candidate of a range, by index into the candidate array.
+     */
+    private static final class Best {
+        final int index;
+        final double score;
+
+        Best(int index, double score) {
+            this.index = index;
+            this.score = score;
+        }
+
+        /** Keeps the higher score; on a tie the earlier candidate wins. */
+        static Best pick(Best a, Best b) {
+            if (a == null) return b;
+            if (b == null) return a;
+            if (a.score != b.score) {
+                return a.score > b.score ? a : b;
+            }
+            return a.index < b.index ? a : b;
+        }
+    }
+
+    /**
+     * Scores a range of candidates, splitting it in halves until it is small enough.
+     * Never serialized; tasks only live for one search.
+     */
+    @SuppressWarnings("serial")
+    private final class SearchTask extends RecursiveTask<Best> {
+
+        private final int[][] board;
+        private final Candidate[] candidates;
+        private final int from;
+        private final int to;
+        private final int searchDepth;
+        private final long deadline;
+        private final AtomicBoolean timedOut;
+
+        SearchTask(int[][] board, Candidate[] candidates, int from, int to, int searchDepth, long deadline,
+                   AtomicBoolean timedOut) {
+            this.board = board;
+            this.candidates = candidates;
+            this.from = from;
+            this.to = to;
+            this.searchDepth = searchDepth;
+            this.deadline = deadline;
+            this.timedOut = timedOut;
+        }
+
+        @Override
+        protected Best compute() {
+            // A depth 2 candidate scores a whole second search, so it is worth a task on its own
+            int threshold = searchDepth > 1 ? 2 : 16;
+            if (to - from <= threshold) {
+                return scoreRange();
+            }
+            int middle = (from + to) >>> 1;
+            SearchTask left = new SearchTask(board, candidates, from, middle, searchDepth, deadline, timedOut);
+            left.fork();
+            Best right = new SearchTask(board, candidates, middle, to, searchDepth, deadline, timedOut).compute();
+            return Best.pick(left.join(), right);
+        }
+
+        private Best scoreRange() {
+            Evaluator evaluator = new Evaluator(board.length, board[0].length);
+            Best best = null;
+            for (int i = from; i < to; i++) {
+                if (timedOut.get() || System.nanoTime() > deadline) {
+                    timedOut.set(true);
+                    return best;
+                }
+                best = Best.pick(best, new Best(i, evaluator.score(board, candidates[i], searchDepth)));
+            }
+            return best;
+        }
+    }
+
+    /**
+     * Scratch boards and feature counters for scoring candidates on one worker.
+     */
+    private final class Evaluator implements PlacementVisitor {
+
+        private final int[][] first;
+        private final int[][] second;
+        private final ColumnHeights firstHeights;
+        private final int[] tops;
+        private RotationTable followingTable;
+        private int firstLines;
+        private int scanFrom;
+        private double bestFollowing;
+
+        Evaluator(int rows, int columns) {
+            first = new int[rows][columns];
+            second = new int[rows][columns];
+            firstHeights = new ColumnHeights(rows, columns);
+            tops = new int[columns];
+        }
+
+        double score(int[][] board, Candidate c, int searchDepth) {
+            copy(board, first);
+            firstLines = place(first, c.table, c.rotation, c.x, c.y);
+            if (searchDepth < 2 || c.following == null) {
+                return evaluate(first, firstLines, 0);
+            }
+            followingTable = c.following;
+            bestFollowing = Double.NEGATIVE_INFINITY;
+            firstHeights.rebuild(first);
+            // The following brick adds at most its own height above the current stack
+            scanFrom = Math.max(0, firstHeights.getStackTop() - followingTable.getRowCount());
+            forEachPlacement(first, firstHeights, followingTable, 0, spawnX(first, followingTable), 0, this);
+            if (bestFollowing == Double.NEGATIVE_INFINITY) {
+                return TOP_OUT_PENALTY + evaluate(first, firstLines, 0);
+            }
+            return bestFollowing;
+        }
+
+        @Override
+        public void visit(int rotateCount, int rotation, int x, int y) {
+            copy(first, second);
+            int lines = place(second, followingTable, rotation, x, y);
+            bestFollowing = Math.max(bestFollowing, evaluate(second, firstLines + lines, scanFrom));
+        }
+
+        /**
+         * Merges a brick into the scratch board and clears the rows it completed.
+         *
+         * @return the number of rows cleared
+         */
+        private int place(int[][] matrix, RotationTable table, int rotation, int x, int y) {
+            MatrixOperations.mergeInPlace(matrix, table.getShape(rotation), x, y);
+            return Integer.bitCount(MatrixOperations.clearFullRows(matrix,
+                    y + table.getMinY(rotation), y + table.getMaxY(rotation)));
+        }
+
+        /**
+         * Scores a board, scanning it row by row from {@code fromRow}; rows above must be empty.
+         */
+        private double evaluate(int[][] matrix, int lines, int fromRow) {
+            int rows = matrix.length;
+            int columns = tops.length;
+            Arrays.fill(tops, rows);
+            int holes = 0;
+            for (int row = fromRow; row < rows; row++) {
+                int[] cells = matrix[row];
+                for (int column = 0; column < columns; column++) {
+                    if (cells[column] != 0) {
+                        if (tops[column] == rows) {
+                            tops[column] = row;
+                        }
+                    } else if (tops[column] < row) {
+                        holes++;
+                    }
+                }
+            }
+            int aggregateHeight = rows - tops[0];
+            int bumpiness = 0;
+            for (int column = 1; column < columns; column++) {
+                aggregateHeight += rows - tops[column];
+                bumpiness += Math.abs(tops[column] - tops[column - 1]);
+            }
+            return weights.score(aggregateHeight, lines, holes, bumpiness);
+        }
+
+        private void copy(int[][] from, int[][] to) {
+            for (int row = 0; row < from.length; row++) {
+                System.arraycopy(from[row], 0, to[row], 0, from[row].length);
+            }
+        }
+    }
+}
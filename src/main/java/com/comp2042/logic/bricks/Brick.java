@@ -4,5 +4,20 @@ import java.util.List;
 
 public interface Brick {
 
-    List<int[][]> getShapeMatrix();
+    /**
+     * Returns the shared, precomputed rotation table of this brick type.
+     * The data must be treated as read-only.
+     *
+     * @return the rotation table
+     */
+    RotationTable getRotations();
+
+    /**
+     * Returns private copies of every rotation shape, for callers that want to modify them.
+     *
+     * @return a new list with one copied matrix per rotation
+     */
+    default List<int[][]> getShapeMatrix() {
+        return getRotations().copyShapes();
+    }
 }
@@ -5,4 +5,50 @@ public interface BrickGenerator {
     Brick getBrick();
 
     Brick getNextBrick();
+
+    /**
+     * Returns how many upcoming bricks can be previewed with {@link #getPreviewBrick(int)}.
+     *
+     * @return the preview depth, at least 1
+     */
+    default int getPreviewSize() {
+        return 1;
+    }
+
+    /**
+     * Returns an upcoming brick without consuming it. Index 0 is the brick the
+     * next call to {@link #getBrick()} returns, the same as {@link #getNextBrick()}.
+     *
+     * @param index the position in the preview queue, from 0 to {@link #getPreviewSize()} - 1
+     * @return the upcoming brick
+     * @throws IndexOutOfBoundsException if the index is outside the preview queue
+     */
+    default Brick getPreviewBrick(int index) {
+        if (index != 0) {
+            throw new IndexOutOfBoundsException("Preview index " + index + " out of range 0..0");
+        }
+        return getNextBrick();
+    }
+
+    /**
+     * Returns the current position in the brick sequence, to return to later with
+     * {@link #rewind(long)}.
+     *
+     * @return the position, or -1 if this generator cannot rewind
+     */
+    default long mark() {
+        return -1;
+    }
+
+    /**
+     * Returns to an earlier position in the brick sequence, so the same bricks are
+     * dealt again from there.
+     *
+     * @param mark a position returned by {@link #mark()}
+     * @throws UnsupportedOperationException if this generator cannot rewind
+     * @throws IllegalArgumentException if the position is no longer kept
+     */
+    default void rewind(long mark) {
+        throw new UnsupportedOperationException("This brick generator cannot rewind");
+    }
 }
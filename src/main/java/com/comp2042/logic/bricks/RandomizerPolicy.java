@@ -0,0 +1,115 @@
+package com.comp2042.logic.bricks;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * The rule used by {@link SeededBrickGenerator} to pick the next brick type.
+ * <p>
+ * Each policy creates a fresh {@link Randomizer} that keeps its own state (the
+ * current bag or the recent history), so two generators built with the same seed
+ * and policy produce the same sequence.
+ * </p>
+ */
+public enum RandomizerPolicy {
+
+    /** Deals all brick types in a shuffled bag before starting a new bag. */
+    BAG_7 {
+        @Override
+        Randomizer create(SplittableRandom random, int kinds) {
+            int[] bag = new int[kinds];
+            return new Randomizer() {
+                private int dealt = kinds;
+
+                @Override
+                public int next() {
+                    if (dealt == kinds) {
+                        for (int i = 0; i < kinds; i++) {
+                            bag[i] = i;
+                        }
+                        // Fisher-Yates shuffle
+                        for (int i = kinds - 1; i > 0; i--) {
+                            int j = random.nextInt(i + 1);
+                            int t = bag[i];
+                            bag[i] = bag[j];
+                            bag[j] = t;
+                        }
+                        dealt = 0;
+                    }
+                    return bag[dealt++];
+                }
+            };
+        }
+    },
+
+    /** Picks every brick type with equal probability, like {@link RandomBrickGenerator}. */
+    UNIFORM {
+        @Override
+        Randomizer create(SplittableRandom random, int kinds) {
+            return () -> random.nextInt(kinds);
+        }
+    },
+
+    /**
+     * Rerolls a few times when the pick is one of the last four bricks dealt,
+     * which makes droughts and repeats rare without the strict bag pattern.
+     */
+    HISTORY {
+        /** Number of recent bricks remembered. */
+        private static final int HISTORY_SIZE = 4;
+        /** Number of rerolls before a repeat is accepted. */
+        private static final int ROLLS = 4;
+
+        @Override
+        Randomizer create(SplittableRandom random, int kinds) {
+            int[] history = new int[HISTORY_SIZE];
+            // Start with a history no real pick can fully match, so the first brick is unbiased
+            Arrays.fill(history, -1);
+            return new Randomizer() {
+                private int oldest;
+
+                @Override
+                public int next() {
+                    int pick = random.nextInt(kinds);
+                    for (int roll = 1; roll < ROLLS && contains(pick); roll++) {
+                        pick = random.nextInt(kinds);
+                    }
+                    history[oldest] = pick;
+                    oldest = (oldest + 1) % HISTORY_SIZE;
+                    return pick;
+                }
+
+                private boolean contains(int kind) {
+                    for (int h : history) {
+                        if (h == kind) {
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+            };
+        }
+    };
+
+    /**
+     * Creates the picking state for one generator.
+     *
+     * @param random the seeded random source owned by the generator
+     * @param kinds  the number of brick types
+     * @return a new randomizer
+     */
+    abstract Randomizer create(SplittableRandom random, int kinds);
+
+    /**
+     * Stateful source of brick type indices.
+     */
+    interface Randomizer {
+
+        /**
+         * Returns the index of the next brick type.
+         *
+         * @return a value from 0 to the number of brick types - 1
+         */
+        int next();
+    }
+}
@@ -0,0 +1,95 @@
+package com.comp2042.logic.bricks;
+
+/**
+ * Wraps any {@link BrickGenerator} so that the brick sequence can be rewound.
+ * <p>
+ * Every brick taken from the wrapped generator is kept in a fixed ring of
+ * references. After {@link #rewind(long)} the bricks are dealt again from the
+ * ring, and only once the ring is caught up does the wrapped generator produce
+ * new ones, so an undone game sees exactly the same bricks as before. Rewinding
+ * only moves the read position, so it takes constant time; only the last
+ * {@code capacity} bricks can be returned to.
+ * </p>
+ */
+public class RewindableBrickGenerator implements BrickGenerator {
+
+    private final BrickGenerator generator;
+    private final Brick[] log;
+    private long position;
+    private long pulled;
+
+    /**
+     * Creates a rewindable generator.
+     *
+     * @param generator the generator producing the bricks
+     * @param capacity  how many bricks back a rewind can go, at least 1
+     * @throws IllegalArgumentException if the capacity is less than 1
+     */
+    public RewindableBrickGenerator(BrickGenerator generator, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.generator = generator;
+        this.log = new Brick[capacity];
+    }
+
+    @Override
+    public Brick getBrick() {
+        Brick brick;
+        if (position < pulled) {
+            brick = log[slot(position)];
+        } else {
+            brick = generator.getBrick();
+            log[slot(pulled)] = brick;
+            pulled++;
+        }
+        position++;
+        return brick;
+    }
+
+    @Override
+    public Brick getNextBrick() {
+        return position < pulled ? log[slot(position)] : generator.getNextBrick();
+    }
+
+    @Override
+    public int getPreviewSize() {
+        return generator.getPreviewSize();
+    }
+
+    @Override
+    public Brick getPreviewBrick(int index) {
+        long ahead = pulled - position;
+        if (index < ahead) {
+            return log[slot(position + index)];
+        }
+        return generator.getPreviewBrick((int) (index - ahead));
+    }
+
+    @Override
+    public long mark() {
+        return position;
+    }
+
+    @Override
+    public void rewind(long mark) {
+        if (mark > pulled || mark < pulled - log.length) {
+            throw new IllegalArgumentException("Brick " + mark + " is no longer kept, only "
+                    + Math.max(0, pulled - log.length) + " to " + pulled);
+        }
+        position = mark;
+    }
+
+    /**
+     * Returns the wrapped generator.
+     *
+     * @return the generator producing the bricks
+     */
+    public BrickGenerator getGenerator() {
+        return generator;
+    }
+
+    private int slot(long index) {
+        return (int) (index % log.length);
+    }
+}
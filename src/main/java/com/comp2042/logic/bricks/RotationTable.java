@@ -0,0 +1,259 @@
+package com.comp2042.logic.bricks;
+
+import com.comp2042.MatrixOperations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Precomputed, immutable rotation data for one brick type.
+ * <p>
+ * Built once per brick class and shared by every instance, so the board and the
+ * rotator can query shapes on every move and gravity tick without allocating.
+ * For each rotation state the table holds the shape matrix, one bitmask per shape
+ * row, the bounding box of the filled cells and the list of filled cell
+ * coordinates. The colour code is the same for all rotations.
+ * </p>
+ * <p>
+ * The arrays returned by {@link #getShape(int)} are shared and must be treated as
+ * read-only. Callers that need a private, modifiable copy should use
+ * {@link #copyShapes()} (or {@link Brick#getShapeMatrix()}).
+ * </p>
+ */
+public final class RotationTable {
+
+    private final int[][][] shapes;
+    private final long[][] rowMasks;
+    private final int[] minX;
+    private final int[] maxX;
+    private final int[] minY;
+    private final int[] maxY;
+    private final int[][] cellX;
+    private final int[][] cellY;
+    private final int[][] columnBottom;
+    private final int colorCode;
+
+    /**
+     * Builds the table from the shape matrices of each rotation state, in rotation order.
+     *
+     * @param rotations the shape matrices; they are copied, not retained
+     */
+    RotationTable(int[][]... rotations) {
+        int count = rotations.length;
+        shapes = new int[count][][];
+        rowMasks = new long[count][];
+        minX = new int[count];
+        maxX = new int[count];
+        minY = new int[count];
+        maxY = new int[count];
+        cellX = new int[count][];
+        cellY = new int[count][];
+        columnBottom = new int[count][];
+        int color = 0;
+
+        for (int r = 0; r < count; r++) {
+            int[][] shape = MatrixOperations.copy(rotations[r]);
+            shapes[r] = shape;
+            rowMasks[r] = new long[shape.length];
+            minX[r] = Integer.MAX_VALUE;
+            minY[r] = Integer.MAX_VALUE;
+            maxX[r] = -1;
+            maxY[r] = -1;
+
+            int cells = 0;
+            for (int[] row : shape) {
+                for (int cell : row) {
+                    if (cell != 0) cells++;
+                }
+            }
+            cellX[r] = new int[cells];
+            cellY[r] = new int[cells];
+            columnBottom[r] = new int[shape[0].length];
+            Arrays.fill(columnBottom[r], -1);
+
+            int n = 0;
+            for (int i = 0; i < shape.length; i++) {
+                for (int j = 0; j < shape[i].length; j++) {
+                    if (shape[i][j] == 0) {
+                        continue;
+                    }
+                    if (color == 0) color = shape[i][j];
+                    rowMasks[r][i] |= 1L << j;
+                    minX[r] = Math.min(minX[r], j);
+                    maxX[r] = Math.max(maxX[r], j);
+                    minY[r] = Math.min(minY[r], i);
+                    maxY[r] = Math.max(maxY[r], i);
+                    cellX[r][n] = j;
+                    cellY[r][n] = i;
+                    columnBottom[r][j] = i;
+                    n++;
+                }
+            }
+        }
+        colorCode = color;
+    }
+
+    /**
+     * Returns the number of rotation states.
+     *
+     * @return the number of rotations
+     */
+    public int size() {
+        return shapes.length;
+    }
+
+    /**
+     * Returns the rotation index that follows the given one.
+     *
+     * @param rotation the current rotation index
+     * @return the next rotation index, wrapping around
+     */
+    public int next(int rotation) {
+        return (rotation + 1) % shapes.length;
+    }
+
+    /**
+     * Returns the shared shape matrix of a rotation. Must not be modified.
+     *
+     * @param rotation the rotation index
+     * @return the shape matrix, indexed {@code [row][column]}
+     */
+    public int[][] getShape(int rotation) {
+        return shapes[rotation];
+    }
+
+    /**
+     * Returns the mask of one shape row, with bit {@code j} set when column {@code j} is filled.
+     *
+     * @param rotation the rotation index
+     * @param row      the shape row
+     * @return the row mask
+     */
+    public long getRowMask(int rotation, int row) {
+        return rowMasks[rotation][row];
+    }
+
+    /**
+     * Returns the number of rows of the shape matrices.
+     *
+     * @return the shape height
+     */
+    public int getRowCount() {
+        return shapes[0].length;
+    }
+
+    /**
+     * Returns the number of columns of the shape matrices.
+     *
+     * @return the shape width
+     */
+    public int getColumnCount() {
+        return shapes[0][0].length;
+    }
+
+    /**
+     * Returns the leftmost filled column of a rotation.
+     *
+     * @param rotation the rotation index
+     * @return the minimum filled column
+     */
+    public int getMinX(int rotation) {
+        return minX[rotation];
+    }
+
+    /**
+     * Returns the rightmost filled column of a rotation.
+     *
+     * @param rotation the rotation index
+     * @return the maximum filled column
+     */
+    public int getMaxX(int rotation) {
+        return maxX[rotation];
+    }
+
+    /**
+     * Returns the topmost filled row of a rotation.
+     *
+     * @param rotation the rotation index
+     * @return the minimum filled row
+     */
+    public int getMinY(int rotation) {
+        return minY[rotation];
+    }
+
+    /**
+     * Returns the bottommost filled row of a rotation.
+     *
+     * @param rotation the rotation index
+     * @return the maximum filled row
+     */
+    public int getMaxY(int rotation) {
+        return maxY[rotation];
+    }
+
+    /**
+     * Returns how many cells of a rotation are filled.
+     *
+     * @param rotation the rotation index
+     * @return the filled cell count
+     */
+    public int getCellCount(int rotation) {
+        return cellX[rotation].length;
+    }
+
+    /**
+     * Returns the column of the n-th filled cell of a rotation.
+     *
+     * @param rotation the rotation index
+     * @param cell     the cell index, from 0 to {@link #getCellCount(int)} - 1
+     * @return the column of the cell within the shape
+     */
+    public int getCellX(int rotation, int cell) {
+        return cellX[rotation][cell];
+    }
+
+    /**
+     * Returns the row of the n-th filled cell of a rotation.
+     *
+     * @param rotation the rotation index
+     * @param cell     the cell index, from 0 to {@link #getCellCount(int)} - 1
+     * @return the row of the cell within the shape
+     */
+    public int getCellY(int rotation, int cell) {
+        return cellY[rotation][cell];
+    }
+
+    /**
+     * Returns the lowest filled row of one shape column, used to compute drop distances.
+     *
+     * @param rotation the rotation index
+     * @param column   the shape column
+     * @return the bottom filled row in that column, or -1 if the column is empty
+     */
+    public int getColumnBottom(int rotation, int column) {
+        return columnBottom[rotation][column];
+    }
+
+    /**
+     * Returns the colour code shared by all rotations of this brick.
+     *
+     * @return the colour code (1-7)
+     */
+    public int getColorCode() {
+        return colorCode;
+    }
+
+    /**
+     * Returns deep copies of all rotation shapes, safe for the caller to modify.
+     *
+     * @return a new list with one copied matrix per rotation
+     */
+    public List<int[][]> copyShapes() {
+        List<int[][]> copies = new ArrayList<>(shapes.length);
+        for (int[][] shape : shapes) {
+            copies.add(MatrixOperations.copy(shape));
+        }
+        return copies;
+    }
+}
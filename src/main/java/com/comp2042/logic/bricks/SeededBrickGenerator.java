@@ -0,0 +1,103 @@
+package com.comp2042.logic.bricks;
+
+import java.util.SplittableRandom;
+
+/**
+ * A {@link BrickGenerator} that produces the same brick sequence for the same seed.
+ * <p>
+ * Brick types are picked by a {@link RandomizerPolicy} from a {@link SplittableRandom}
+ * owned by the generator, so sequences do not depend on thread or timing. Upcoming
+ * bricks are kept in a fixed-size ring buffer that can be previewed to any depth
+ * up to the configured size.
+ * </p>
+ */
+public class SeededBrickGenerator implements BrickGenerator {
+
+    /** Default number of upcoming bricks kept in the preview queue. */
+    public static final int DEFAULT_PREVIEW_SIZE = 5;
+
+    /** Brick types, in the same order as {@link RandomBrickGenerator}. */
+    private static final Brick[] BRICKS = {
+            new IBrick(), new JBrick(), new LBrick(), new OBrick(), new SBrick(), new TBrick(), new ZBrick()
+    };
+
+    private final long seed;
+    private final RandomizerPolicy policy;
+    private final RandomizerPolicy.Randomizer randomizer;
+    private final Brick[] queue;
+    private int head;
+
+    /**
+     * Creates a 7-bag generator with the default preview size.
+     *
+     * @param seed the seed of the brick sequence
+     */
+    public SeededBrickGenerator(long seed) {
+        this(seed, RandomizerPolicy.BAG_7, DEFAULT_PREVIEW_SIZE);
+    }
+
+    /**
+     * Creates a generator.
+     *
+     * @param seed        the seed of the brick sequence
+     * @param policy      the rule used to pick brick types
+     * @param previewSize the number of upcoming bricks that can be previewed, at least 1
+     * @throws IllegalArgumentException if the preview size is less than 1
+     */
+    public SeededBrickGenerator(long seed, RandomizerPolicy policy, int previewSize) {
+        if (previewSize < 1) {
+            throw new IllegalArgumentException("Preview size must be at least 1");
+        }
+        this.seed = seed;
+        this.policy = policy;
+        this.randomizer = policy.create(new SplittableRandom(seed), BRICKS.length);
+        this.queue = new Brick[previewSize];
+        for (int i = 0; i < previewSize; i++) {
+            queue[i] = BRICKS[randomizer.next()];
+        }
+    }
+
+    @Override
+    public Brick getBrick() {
+        Brick brick = queue[head];
+        queue[head] = BRICKS[randomizer.next()];
+        head = (head + 1) % queue.length;
+        return brick;
+    }
+
+    @Override
+    public Brick getNextBrick() {
+        return queue[head];
+    }
+
+    @Override
+    public int getPreviewSize() {
+        return queue.length;
+    }
+
+    @Override
+    public Brick getPreviewBrick(int index) {
+        if (index < 0 || index >= queue.length) {
+            throw new IndexOutOfBoundsException("Preview index " + index + " out of range 0.." + (queue.length - 1));
+        }
+        return queue[(head + index) % queue.length];
+    }
+
+    /**
+     * Returns the seed this generator was created with.
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the policy this generator was created with.
+     *
+     * @return the randomizer policy
+     */
+    public RandomizerPolicy getPolicy() {
+        return policy;
+    }
+}
@@ -0,0 +1,26 @@
+package com.comp2042.perf;
+
+/**
+ * JMX view of the frame counters kept by {@link Perf}.
+ */
+public interface FrameStatsMXBean {
+
+    /**
+     * Returns the number of FX pulses seen.
+     *
+     * @return the frame count
+     */
+    long getFrames();
+
+    /**
+     * Returns the number of frames skipped because a pulse came late.
+     *
+     * @return the dropped frame count
+     */
+    long getDroppedFrames();
+
+    /**
+     * Clears the frame counters and all probes.
+     */
+    void reset();
+}
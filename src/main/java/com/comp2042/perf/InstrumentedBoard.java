@@ -0,0 +1,190 @@
+package com.comp2042.perf;
+
+import com.comp2042.Board;
+import com.comp2042.BoardChanges;
+import com.comp2042.BoardSnapshot;
+import com.comp2042.ClearRow;
+import com.comp2042.HoldShapeInfo;
+import com.comp2042.NextShapeInfo;
+import com.comp2042.Score;
+import com.comp2042.ViewData;
+import com.comp2042.logic.bricks.Brick;
+
+/**
+ * A {@link Board} that times the operations of another board.
+ * <p>
+ * Moves, merges, clears and spawns are recorded into their {@link Probe}s; plain
+ * getters are passed through untimed. The wrapper is only put in place when
+ * {@link Perf#ENABLED} is set, so an uninstrumented game talks to its board directly.
+ * </p>
+ */
+public class InstrumentedBoard implements Board {
+
+    private final Board board;
+
+    /**
+     * Wraps a board.
+     *
+     * @param board the board to time
+     */
+    public InstrumentedBoard(Board board) {
+        this.board = board;
+    }
+
+    /**
+     * Wraps a board if the instrumentation is enabled.
+     *
+     * @param board the board to time
+     * @return an instrumented board, or {@code board} itself when disabled
+     */
+    public static Board wrap(Board board) {
+        return Perf.ENABLED ? new InstrumentedBoard(board) : board;
+    }
+
+    @Override
+    public boolean moveBrickDown() {
+        long start = Perf.start();
+        boolean moved = board.moveBrickDown();
+        Perf.stop(Probe.BOARD_MOVE, start);
+        return moved;
+    }
+
+    @Override
+    public int dropBrick() {
+        long start = Perf.start();
+        int distance = board.dropBrick();
+        Perf.stop(Probe.BOARD_MOVE, start);
+        return distance;
+    }
+
+    @Override
+    public boolean moveBrickLeft() {
+        long start = Perf.start();
+        boolean moved = board.moveBrickLeft();
+        Perf.stop(Probe.BOARD_MOVE, start);
+        return moved;
+    }
+
+    @Override
+    public boolean moveBrickRight() {
+        long start = Perf.start();
+        boolean moved = board.moveBrickRight();
+        Perf.stop(Probe.BOARD_MOVE, start);
+        return moved;
+    }
+
+    @Override
+    public boolean rotateLeftBrick() {
+        long start = Perf.start();
+        boolean rotated = board.rotateLeftBrick();
+        Perf.stop(Probe.BOARD_MOVE, start);
+        return rotated;
+    }
+
+    @Override
+    public boolean createNewBrick() {
+        long start = Perf.start();
+        boolean collides = board.createNewBrick();
+        Perf.stop(Probe.BOARD_SPAWN, start);
+        return collides;
+    }
+
+    @Override
+    public int[][] getBoardMatrix() {
+        return board.getBoardMatrix();
+    }
+
+    @Override
+    public ViewData getViewData() {
+        return board.getViewData();
+    }
+
+    @Override
+    public int getDropDistance() {
+        long start = Perf.start();
+        int distance = board.getDropDistance();
+        Perf.stop(Probe.BOARD_MOVE, start);
+        return distance;
+    }
+
+    @Override
+    public void mergeBrickToBackground() {
+        long start = Perf.start();
+        board.mergeBrickToBackground();
+        Perf.stop(Probe.BOARD_MERGE, start);
+    }
+
+    @Override
+    public ClearRow clearRows() {
+        long start = Perf.start();
+        ClearRow clearRow = board.clearRows();
+        Perf.stop(Probe.BOARD_CLEAR, start);
+        return clearRow;
+    }
+
+    @Override
+    public boolean addGarbage(int rows, int hole) {
+        long start = Perf.start();
+        boolean toppedOut = board.addGarbage(rows, hole);
+        Perf.stop(Probe.BOARD_MERGE, start);
+        return toppedOut;
+    }
+
+    @Override
+    public BoardChanges getChanges() {
+        return board.getChanges();
+    }
+
+    @Override
+    public Score getScore() {
+        return board.getScore();
+    }
+
+    @Override
+    public void newGame() {
+        board.newGame();
+    }
+
+    @Override
+    public BoardSnapshot snapshot() {
+        return board.snapshot();
+    }
+
+    @Override
+    public void restore(BoardSnapshot snapshot) {
+        board.restore(snapshot);
+    }
+
+    @Override
+    public NextShapeInfo getNextShape() {
+        return board.getNextShape();
+    }
+
+    @Override
+    public HoldShapeInfo holdBrick() {
+        long start = Perf.start();
+        HoldShapeInfo held = board.holdBrick();
+        Perf.stop(Probe.BOARD_SPAWN, start);
+        return held;
+    }
+
+    @Override
+    public HoldShapeInfo getHeldShape() {
+        return board.getHeldShape();
+    }
+
+    @Override
+    public Brick getCurrentBrick() {
+        return board.getCurrentBrick();
+    }
+
+    @Override
+    public Brick getNextBrick() {
+        return board.getNextBrick();
+    }
+
+    @Override
+    public Brick getHeldBrick() {
+        return board.getHeldBrick();
+    }
+}
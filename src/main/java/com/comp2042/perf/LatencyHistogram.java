@@ -0,0 +1,126 @@
+package com.comp2042.perf;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size histogram of non-negative values with bounded relative error, in
+ * the style of HdrHistogram.
+ * <p>
+ * Each power of two is split into 32 linear sub-buckets, so a
+ * recorded value is kept to within about 3% of its magnitude, from single
+ * nanoseconds up to {@link Long#MAX_VALUE}, in one array of counts allocated up
+ * front. Recording is an index computation and an array increment; it never
+ * allocates.
+ * </p>
+ * <p>
+ * The histogram is written by a single thread (the FX thread). Readers on other
+ * threads, such as a JMX client, may see a slightly stale view, which is fine
+ * for monitoring.
+ * </p>
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final long[] counts = new long[(Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS];
+    private long count;
+    private long total;
+    private long max;
+
+    /**
+     * Records one value. Negative values are recorded as 0.
+     *
+     * @param value the value, e.g. a duration in nanoseconds
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+        counts[indexOf(value)]++;
+        count++;
+        total += value;
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Returns the value below or at which the given percentage of recorded values fall.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the highest value equivalent to that percentile's bucket, or 0 if empty
+     */
+    public long getValueAtPercentile(double percentile) {
+        long recorded = count;
+        if (recorded == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(recorded * Math.min(percentile, 100.0) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(highestValueAt(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the mean of the recorded values.
+     *
+     * @return the mean, or 0 if empty
+     */
+    public long getMean() {
+        long recorded = count;
+        return recorded == 0 ? 0 : total / recorded;
+    }
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return the maximum, or 0 if empty
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Forgets all recorded values.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0L);
+        count = 0;
+        total = 0;
+        max = 0;
+    }
+
+    /**
+     * Small values get a bucket each; larger values share a bucket with the values
+     * that have the same top {@code SUB_BUCKET_BITS + 1} bits.
+     */
+    static int indexOf(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    static long highestValueAt(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lowest = (long) (index % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,237 @@
+package com.comp2042.perf;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Entry point of the hot-path instrumentation.
+ * <p>
+ * Instrumentation is switched on with {@code -Dtetris.perf=true}. The switch is
+ * read once into the constant {@link #ENABLED}; every probe checks it first, so
+ * when it is off the JIT folds the probes away and the instrumented code runs
+ * exactly as it would without them. A timed section looks like:
+ * </p>
+ * <pre>
+ *   long start = Perf.start();
+ *   doWork();
+ *   Perf.stop(Probe.DRAW_GHOST, start);
+ * </pre>
+ * <p>
+ * The game loop reports each pulse through {@link #pulse(long, long)}, which
+ * counts frames and dropped frames and samples the bytes allocated on the FX
+ * thread. Everything is published over JMX by {@link #registerMBeans()} under
+ * {@code com.comp2042:type=Perf}.
+ * </p>
+ */
+public final class Perf {
+
+    /** Whether the instrumentation is on, from the {@code tetris.perf} system property. */
+    public static final boolean ENABLED = Boolean.getBoolean("tetris.perf");
+
+    private static final String DOMAIN = "com.comp2042:type=Perf";
+
+    private static long frames;
+    private static long droppedFrames;
+    private static long lastAllocated = -1;
+
+    // Private constructor to prevent instantiation
+    private Perf() { }
+
+    /**
+     * Starts timing a section.
+     *
+     * @return the start time to pass to {@link #stop}, or 0 when disabled
+     */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Ends timing a section and records its duration.
+     *
+     * @param probe the probe to record into
+     * @param start the value returned by {@link #start()}
+     */
+    public static void stop(Probe probe, long start) {
+        if (ENABLED) {
+            probe.getHistogram().record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records a value measured by the caller.
+     *
+     * @param probe the probe to record into
+     * @param value the value, in the probe's unit
+     */
+    public static void record(Probe probe, long value) {
+        if (ENABLED) {
+            probe.getHistogram().record(value);
+        }
+    }
+
+    /**
+     * Accounts for one FX pulse: counts it, counts the frames skipped since the
+     * previous one, and records the bytes the FX thread allocated in between.
+     * Must be called on the FX thread.
+     *
+     * @param sincePrevious nanoseconds since the previous pulse
+     * @param frameNanos    the expected pulse interval
+     */
+    public static void pulse(long sincePrevious, long frameNanos) {
+        if (!ENABLED) {
+            return;
+        }
+        frames++;
+        // A pulse more than half a frame late means at least one frame was not shown
+        long late = (sincePrevious + frameNanos / 2) / frameNanos - 1;
+        if (late > 0) {
+            droppedFrames += late;
+        }
+        long allocated = Allocation.currentThreadAllocatedBytes();
+        if (allocated >= 0) {
+            if (lastAllocated >= 0) {
+                Probe.FRAME_ALLOCATION.getHistogram().record(allocated - lastAllocated);
+            }
+            lastAllocated = allocated;
+        }
+    }
+
+    /**
+     * Returns the number of pulses seen.
+     *
+     * @return the frame count
+     */
+    public static long getFrames() {
+        return frames;
+    }
+
+    /**
+     * Returns the number of frames that were skipped because a pulse came late.
+     *
+     * @return the dropped frame count
+     */
+    public static long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    /**
+     * Clears all probes and frame counters.
+     */
+    public static void reset() {
+        for (Probe probe : Probe.values()) {
+            probe.getHistogram().reset();
+        }
+        frames = 0;
+        droppedFrames = 0;
+        lastAllocated = -1;
+    }
+
+    /**
+     * Publishes the frame counters and one MXBean per probe on the platform MBean
+     * server. Does nothing when disabled.
+     */
+    public static void registerMBeans() {
+        if (!ENABLED) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(new FrameStats(), new ObjectName(DOMAIN + ",name=Frames"));
+            for (Probe probe : Probe.values()) {
+                server.registerMBean(new ProbeStats(probe), new ObjectName(DOMAIN + ",probe=" + probe.name()));
+            }
+        } catch (JMException e) {
+            System.err.println("Could not publish performance counters: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the per-thread allocation counter of HotSpot-based JVMs, where available.
+     */
+    private static final class Allocation {
+
+        private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+        static long currentThreadAllocatedBytes() {
+            return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+        }
+
+        private static com.sun.management.ThreadMXBean threads() {
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            if (threads instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+                if (hotspot.isThreadAllocatedMemorySupported()) {
+                    hotspot.setThreadAllocatedMemoryEnabled(true);
+                    return hotspot;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class FrameStats implements FrameStatsMXBean {
+
+        @Override
+        public long getFrames() {
+            return frames;
+        }
+
+        @Override
+        public long getDroppedFrames() {
+            return droppedFrames;
+        }
+
+        @Override
+        public void reset() {
+            Perf.reset();
+        }
+    }
+
+    private static final class ProbeStats implements ProbeMXBean {
+
+        private final Probe probe;
+
+        ProbeStats(Probe probe) {
+            this.probe = probe;
+        }
+
+        @Override
+        public String getUnit() {
+            return probe.getUnit();
+        }
+
+        @Override
+        public long getCount() {
+            return probe.getHistogram().getCount();
+        }
+
+        @Override
+        public long getMean() {
+            return probe.getHistogram().getMean();
+        }
+
+        @Override
+        public long getP50() {
+            return probe.getHistogram().getValueAtPercentile(50);
+        }
+
+        @Override
+        public long getP99() {
+            return probe.getHistogram().getValueAtPercentile(99);
+        }
+
+        @Override
+        public long getMax() {
+            return probe.getHistogram().getMax();
+        }
+
+        @Override
+        public void reset() {
+            probe.getHistogram().reset();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.comp2042.perf;
+
+/**
+ * The measured spots of the game, each with its own {@link LatencyHistogram}.
+ */
+public enum Probe {
+    /** Calls from the GUI into the InputEventListener: logic ticks and queued key edges. */
+    INPUT_LISTENER("ns"),
+    /** Falling-brick moves, rotations and drop distance queries on the board. */
+    BOARD_MOVE("ns"),
+    /** Merging a landed brick into the board. */
+    BOARD_MERGE("ns"),
+    /** Removing full rows. */
+    BOARD_CLEAR("ns"),
+    /** Spawning and holding bricks. */
+    BOARD_SPAWN("ns"),
+    /** Redrawing the changed board rows. */
+    REFRESH_BACKGROUND("ns"),
+    /** Drawing the ghost piece. */
+    DRAW_GHOST("ns"),
+    /** One FX pulse of the game loop: its logic ticks and the render step. */
+    PULSE("ns"),
+    /** From a key press to the render of the first frame that applied it. */
+    INPUT_TO_RENDER("ns"),
+    /** Bytes allocated on the FX thread between two pulses. */
+    FRAME_ALLOCATION("bytes");
+
+    private final String unit;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    Probe(String unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * Returns the unit of the recorded values.
+     *
+     * @return "ns" or "bytes"
+     */
+    public String getUnit() {
+        return unit;
+    }
+
+    /**
+     * Returns the histogram of the recorded values.
+     *
+     * @return the histogram
+     */
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+}
@@ -0,0 +1,54 @@
+package com.comp2042.perf;
+
+/**
+ * JMX view of one {@link Probe}'s histogram.
+ */
+public interface ProbeMXBean {
+
+    /**
+     * Returns the unit of the values.
+     *
+     * @return "ns" or "bytes"
+     */
+    String getUnit();
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the count
+     */
+    long getCount();
+
+    /**
+     * Returns the mean value.
+     *
+     * @return the mean
+     */
+    long getMean();
+
+    /**
+     * Returns the median value.
+     *
+     * @return the 50th percentile
+     */
+    long getP50();
+
+    /**
+     * Returns the 99th percentile value.
+     *
+     * @return the 99th percentile
+     */
+    long getP99();
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return the maximum
+     */
+    long getMax();
+
+    /**
+     * Clears the probe's histogram.
+     */
+    void reset();
+}
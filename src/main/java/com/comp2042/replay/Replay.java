@@ -0,0 +1,226 @@
+package com.comp2042.replay;
+
+import com.comp2042.BitBoard;
+import com.comp2042.Board;
+import com.comp2042.BoardSize;
+import com.comp2042.EventType;
+import com.comp2042.SimpleBoard;
+import com.comp2042.logic.bricks.RandomizerPolicy;
+import com.comp2042.logic.bricks.SeededBrickGenerator;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A decoded replay file: the game setup and the list of commands with their ticks.
+ * <p>
+ * Replays are written by {@link ReplayRecorder} and played back by {@link ReplayPlayer}.
+ * The whole file is decoded up front into two flat arrays, so playback does no I/O.
+ * </p>
+ */
+public final class Replay {
+
+    private static final EventType[] TYPES = EventType.values();
+
+    private final long seed;
+    private final RandomizerPolicy policy;
+    private final int previewSize;
+    private final int rows;
+    private final int columns;
+    private final int gravityInterval;
+    private final boolean levelGravity;
+    private final int lockDelay;
+    private final long[] ticks;
+    private final byte[] types;
+    private final long endTick;
+
+    private Replay(long seed, RandomizerPolicy policy, int previewSize, int rows, int columns, int gravityInterval,
+                   boolean levelGravity, int lockDelay, long[] ticks, byte[] types, long endTick) {
+        this.seed = seed;
+        this.policy = policy;
+        this.previewSize = previewSize;
+        this.rows = rows;
+        this.columns = columns;
+        this.gravityInterval = gravityInterval;
+        this.levelGravity = levelGravity;
+        this.lockDelay = lockDelay;
+        this.ticks = ticks;
+        this.types = types;
+        this.endTick = endTick;
+    }
+
+    /**
+     * Reads and decodes a replay file.
+     *
+     * @param path the replay file
+     * @return the decoded replay
+     * @throws IOException if the file cannot be read or is not a valid replay
+     */
+    public static Replay read(Path path) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = ByteBuffer.allocate(Math.toIntExact(channel.size()));
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading until the file is in memory
+            }
+        }
+        buffer.flip();
+        try {
+            return decode(buffer);
+        } catch (BufferUnderflowException | IllegalArgumentException | IOException e) {
+            throw new IOException("Corrupt replay file " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static Replay decode(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != ReplayFormat.MAGIC) {
+            throw new IOException("Not a replay file");
+        }
+        byte version = buffer.get();
+        if (version < 1 || version > ReplayFormat.VERSION) {
+            throw new IOException("Unsupported replay version " + version);
+        }
+        long seed = buffer.getLong();
+        int ordinal = buffer.get();
+        RandomizerPolicy[] policies = RandomizerPolicy.values();
+        if (ordinal < 0 || ordinal >= policies.length) {
+            throw new IOException("Unknown randomizer policy " + ordinal + " in replay");
+        }
+        RandomizerPolicy policy = policies[ordinal];
+        // Sizes are checked before anything is allocated from them
+        int previewSize = getSetting(buffer, "preview size", 1, ReplayFormat.MAX_PREVIEW_SIZE);
+        int rows = getSetting(buffer, "row count", BoardSize.MIN_SIZE, ReplayFormat.MAX_BOARD_SIZE);
+        int columns = getSetting(buffer, "column count", BoardSize.MIN_SIZE, ReplayFormat.MAX_BOARD_SIZE);
+        int gravityInterval = getSetting(buffer, "gravity interval", 1, ReplayFormat.MAX_TICKS_SETTING);
+        // Version 1 files were recorded with a fixed gravity interval and have no flags
+        int flags = version >= 2 ? buffer.get() : 0;
+        // Before version 3 bricks always locked on the first failed step down
+        int lockDelay = version >= 3 ? getSetting(buffer, "lock delay", 0, ReplayFormat.MAX_TICKS_SETTING) : 0;
+
+        // Every command takes at least one byte, so the remaining size bounds the count
+        long[] ticks = new long[buffer.remaining()];
+        byte[] types = new byte[buffer.remaining()];
+        int count = 0;
+        long tick = 0;
+        while (true) {
+            long record = ReplayFormat.getVarLong(buffer);
+            tick += record >>> ReplayFormat.TYPE_BITS;
+            int type = (int) (record & ReplayFormat.TYPE_MASK);
+            if (type == ReplayFormat.END) {
+                break;
+            }
+            if (type >= TYPES.length) {
+                throw new IOException("Unknown command " + type + " in replay");
+            }
+            ticks[count] = tick;
+            types[count] = (byte) type;
+            count++;
+        }
+        return new Replay(seed, policy, previewSize, rows, columns, gravityInterval,
+                (flags & ReplayFormat.FLAG_LEVEL_GRAVITY) != 0, lockDelay, Arrays.copyOf(ticks, count), Arrays.copyOf(types, count), tick);
+    }
+
+    /**
+     * Reads a varint header setting and checks that it is in range.
+     */
+    private static int getSetting(ByteBuffer buffer, String name, int min, int max) throws IOException {
+        long value = ReplayFormat.getVarLong(buffer);
+        if (value < min || value > max) {
+            throw new IOException("Replay " + name + " " + Long.toUnsignedString(value) + " is not in " + min + ".." + max);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Creates a fresh board that reproduces the recorded brick sequence.
+     * Uses {@link BitBoard} when the board is narrow enough, which plays identically
+     * to {@link SimpleBoard} but faster.
+     *
+     * @return a new board, before its first brick is spawned
+     */
+    public Board createBoard() {
+        SeededBrickGenerator generator = new SeededBrickGenerator(seed, policy, previewSize);
+        return columns <= BitBoard.MAX_COLUMNS
+                ? new BitBoard(rows, columns, generator)
+                : new SimpleBoard(rows, columns, generator);
+    }
+
+    /**
+     * Returns the seed of the recorded brick sequence.
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns how many ticks passed between two gravity steps in the recorded game.
+     *
+     * @return the number of ticks per row
+     */
+    public int getGravityInterval() {
+        return gravityInterval;
+    }
+
+    /**
+     * Returns whether gravity followed the engine's level curve in the recorded game.
+     *
+     * @return true if level gravity was enabled
+     */
+    public boolean isLevelGravity() {
+        return levelGravity;
+    }
+
+    /**
+     * Returns how many ticks a landed brick rested before locking in the recorded game.
+     *
+     * @return the lock delay in ticks, 0 if bricks locked at once
+     */
+    public int getLockDelay() {
+        return lockDelay;
+    }
+
+    /**
+     * Returns the number of recorded commands.
+     *
+     * @return the command count
+     */
+    public int getCommandCount() {
+        return ticks.length;
+    }
+
+    /**
+     * Returns the tick a command was applied at.
+     *
+     * @param index the command index
+     * @return the tick
+     */
+    public long getTick(int index) {
+        return ticks[index];
+    }
+
+    /**
+     * Returns a recorded command.
+     *
+     * @param index the command index
+     * @return the command
+     */
+    public EventType getType(int index) {
+        return TYPES[types[index]];
+    }
+
+    /**
+     * Returns the tick at which the recording ended.
+     *
+     * @return the last tick
+     */
+    public long getEndTick() {
+        return endTick;
+    }
+}
@@ -0,0 +1,91 @@
+package com.comp2042.replay;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Layout of a replay file and the variable-length integer codec it uses.
+ * <p>
+ * A replay starts with a fixed header:
+ * </p>
+ * <pre>
+ *   magic     4 bytes  "TRPL"
+ *   version   1 byte
+ *   seed      8 bytes  big-endian
+ *   policy    1 byte   RandomizerPolicy ordinal
+ *   preview   varint   preview queue size of the generator
+ *   rows      varint
+ *   columns   varint
+ *   gravity   varint   ticks per gravity step
+ *   flags     1 byte   since version 2, see {@link #FLAG_LEVEL_GRAVITY}
+ *   lock      varint   since version 3, lock delay in ticks (0 locks at once)
+ * </pre>
+ * <p>
+ * followed by one varint per command: the ticks elapsed since the previous
+ * command, shifted left by {@link #TYPE_BITS}, or'ed with the EventType ordinal.
+ * The last record uses {@link #END} as its type and carries the tick the game
+ * stopped at. Most commands fit in one or two bytes.
+ * </p>
+ */
+final class ReplayFormat {
+
+    static final int MAGIC = ('T' << 24) | ('R' << 16) | ('P' << 8) | 'L';
+    static final byte VERSION = 3;
+
+    /** Header flag: gravity followed the engine's level curve instead of the fixed interval. */
+    static final int FLAG_LEVEL_GRAVITY = 1;
+
+    /** Number of low bits of a record holding the command type. */
+    static final int TYPE_BITS = 3;
+    static final int TYPE_MASK = (1 << TYPE_BITS) - 1;
+
+    /** Record type marking the end of the replay. */
+    static final int END = TYPE_MASK;
+
+    /** Largest number of rows or columns a replay may declare. */
+    static final int MAX_BOARD_SIZE = 10_000;
+
+    /** Largest preview queue a replay may declare. */
+    static final int MAX_PREVIEW_SIZE = 1_000;
+
+    /** Largest gravity interval or lock delay a replay may declare, in ticks. */
+    static final int MAX_TICKS_SETTING = 1_000_000;
+
+    /** Longest encoding of a 64-bit varint. */
+    static final int MAX_VARINT_BYTES = 10;
+
+    // Private constructor to prevent instantiation
+    private ReplayFormat() { }
+
+    /**
+     * Writes an unsigned value as a little-endian base-128 varint.
+     *
+     * @param buffer the buffer to write to
+     * @param value  the value, treated as unsigned
+     */
+    static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Reads a varint written by {@link #putVarLong}.
+     *
+     * @param buffer the buffer to read from
+     * @return the value
+     * @throws IllegalArgumentException if the varint is longer than 64 bits
+     */
+    static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in replay");
+    }
+}
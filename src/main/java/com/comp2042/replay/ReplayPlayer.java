@@ -0,0 +1,92 @@
+package com.comp2042.replay;
+
+import com.comp2042.GameEngine;
+
+/**
+ * Plays a {@link Replay} back on a {@link GameEngine}.
+ * <p>
+ * The player feeds the engine the same ticks and commands, in the same order,
+ * as the recorded game, so the engine fires the same events as it did then. It
+ * can advance one tick at a time, for frame-by-frame viewing, or run the whole
+ * replay at once without any rendering.
+ * </p>
+ */
+public class ReplayPlayer {
+
+    private final Replay replay;
+    private final GameEngine engine;
+    private int nextCommand;
+
+    /**
+     * Creates a player for an engine that has just started a game on a board from
+     * {@link Replay#createBoard()}.
+     *
+     * @param replay the replay to play
+     * @param engine the engine to drive
+     */
+    public ReplayPlayer(Replay replay, GameEngine engine) {
+        this.replay = replay;
+        this.engine = engine;
+        engine.setGravityInterval(replay.getGravityInterval());
+        engine.setLevelGravity(replay.isLevelGravity());
+        engine.setLockDelay(replay.getLockDelay());
+    }
+
+    /**
+     * Creates a board and engine for a replay, starts the game and runs the replay to the end.
+     *
+     * @param replay the replay to play
+     * @return the engine in its final state
+     */
+    public static GameEngine runHeadless(Replay replay) {
+        GameEngine engine = new GameEngine(replay.createBoard());
+        ReplayPlayer player = new ReplayPlayer(replay, engine);
+        engine.start();
+        player.runToEnd();
+        return engine;
+    }
+
+    /**
+     * Applies the commands recorded at the current tick, then advances the engine by one tick.
+     *
+     * @return true if there is more to play; false once the end of the replay is reached
+     */
+    public boolean stepTick() {
+        long now = engine.getTick();
+        while (nextCommand < replay.getCommandCount() && replay.getTick(nextCommand) <= now) {
+            engine.apply(replay.getType(nextCommand++));
+        }
+        if (isFinished()) {
+            return false;
+        }
+        engine.tick();
+        return !isFinished();
+    }
+
+    /**
+     * Plays all remaining ticks and commands.
+     */
+    public void runToEnd() {
+        while (stepTick()) {
+            // each step applies one tick worth of the replay
+        }
+    }
+
+    /**
+     * Returns whether the replay has been played to its last tick.
+     *
+     * @return true when nothing is left to play
+     */
+    public boolean isFinished() {
+        return engine.getTick() >= replay.getEndTick() && nextCommand >= replay.getCommandCount();
+    }
+
+    /**
+     * Returns the engine driven by this player.
+     *
+     * @return the engine
+     */
+    public GameEngine getEngine() {
+        return engine;
+    }
+}
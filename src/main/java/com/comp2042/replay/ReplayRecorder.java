@@ -0,0 +1,145 @@
+package com.comp2042.replay;
+
+import com.comp2042.EventType;
+import com.comp2042.GameEngine;
+import com.comp2042.GameEventListener;
+import com.comp2042.logic.bricks.SeededBrickGenerator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Records one game of a {@link GameEngine} to a replay file.
+ * <p>
+ * Register the recorder with {@link GameEngine#addListener} right after the game
+ * starts. Every command the engine reports is appended as a delta-encoded varint
+ * to a small buffer that is written to a {@link FileChannel} when full. Recording
+ * ends, and the file is closed, when the game is over, when the engine starts
+ * another game or is rewound, or when {@link #close()} is called.
+ * </p>
+ * <p>
+ * The brick sequence is not stored: the replay only holds the seed, so the game
+ * must be played with the given {@link SeededBrickGenerator}, unused before the game started.
+ * </p>
+ */
+public class ReplayRecorder implements GameEventListener, Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final GameEngine engine;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private long lastTick;
+    private boolean closed;
+
+    /**
+     * Creates the replay file and writes its header.
+     *
+     * @param path      the file to write, replaced if it exists
+     * @param generator the generator the recorded game draws its bricks from
+     * @param engine    the engine playing the game
+     * @throws IOException if the file cannot be created
+     */
+    public ReplayRecorder(Path path, SeededBrickGenerator generator, GameEngine engine) throws IOException {
+        this.engine = engine;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        int[][] matrix = engine.getBoard().getBoardMatrix();
+        buffer.putInt(ReplayFormat.MAGIC);
+        buffer.put(ReplayFormat.VERSION);
+        buffer.putLong(generator.getSeed());
+        buffer.put((byte) generator.getPolicy().ordinal());
+        ReplayFormat.putVarLong(buffer, generator.getPreviewSize());
+        ReplayFormat.putVarLong(buffer, matrix.length);
+        ReplayFormat.putVarLong(buffer, matrix[0].length);
+        ReplayFormat.putVarLong(buffer, engine.getGravityInterval());
+        buffer.put((byte) (engine.isLevelGravity() ? ReplayFormat.FLAG_LEVEL_GRAVITY : 0));
+        ReplayFormat.putVarLong(buffer, engine.getLockDelay());
+        lastTick = engine.getTick();
+    }
+
+    @Override
+    public void onCommand(long tick, EventType type) {
+        if (!closed) {
+            write(tick, type.ordinal());
+        }
+    }
+
+    @Override
+    public void onGameOver() {
+        closeQuietly();
+    }
+
+    @Override
+    public void onGameStarted() {
+        // A new game uses a generator that has already moved on, so it cannot be part of this replay
+        closeQuietly();
+    }
+
+    @Override
+    public void onRewound(int piece) {
+        // Only the commands are stored, so a game that went back in time cannot be replayed
+        closeQuietly();
+    }
+
+    /**
+     * Returns whether the recording has ended.
+     *
+     * @return true once the file is closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Writes the end record and closes the file. Further commands are ignored.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            write(engine.getTick(), ReplayFormat.END);
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(long tick, int type) {
+        if (buffer.remaining() < ReplayFormat.MAX_VARINT_BYTES) {
+            try {
+                flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        ReplayFormat.putVarLong(buffer, ((tick - lastTick) << ReplayFormat.TYPE_BITS) | type);
+        lastTick = tick;
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
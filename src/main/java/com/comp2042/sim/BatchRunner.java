@@ -0,0 +1,378 @@
+package com.comp2042.sim;
+
+import com.comp2042.BoardSize;
+import com.comp2042.ClearRow;
+import com.comp2042.GameEngine;
+import com.comp2042.GameEventListener;
+import com.comp2042.bot.Placement;
+import com.comp2042.logic.bricks.RandomizerPolicy;
+import com.comp2042.logic.bricks.SeededBrickGenerator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Plays batches of seeded headless games on all cores and writes the result of
+ * each game as soon as it finishes, for balancing the scoring and the gravity curve.
+ * <p>
+ * {@code java com.comp2042.sim.BatchRunner [--option=value ...]} takes:
+ * </p>
+ * <ul>
+ *     <li>{@code games} (1000) and {@code seed} (0): game {@code i} uses the brick sequence of seed {@code seed + i};</li>
+ *     <li>{@code policy} ({@code bot}): see {@link MovePolicy#named};</li>
+ *     <li>{@code threads} (all cores), {@code size} ({@code 25x10}), {@code randomizer} ({@code UNIFORM});</li>
+ *     <li>{@code gravity}: {@code level} for the level curve of the GUI (default) or a fixed number of ticks per row;</li>
+ *     <li>{@code input} (4): ticks between two commands, so gravity runs while a brick is moved;</li>
+ *     <li>{@code drop}: {@code hard} (default), {@code soft} or {@code gravity} once the brick is in place;</li>
+ *     <li>{@code pieces} (1000): bricks after which a game that has not topped out ends;</li>
+ *     <li>{@code out}: a file, binary if it ends in {@code .bin}, otherwise CSV; CSV on standard output if not given.</li>
+ * </ul>
+ * <p>
+ * Games are played on {@link com.comp2042.SimpleBoard}s at the GUI tick rate with
+ * the GUI lock delay. Each worker thread takes the next game number from a shared
+ * counter, plays it and appends its line or record straight to the output, so
+ * memory does not grow with the number of games and the output is in order of
+ * completion. The bots search on the same pool as the workers, so nothing waits
+ * on another pool. A summary is printed to standard error.
+ * </p>
+ */
+public final class BatchRunner {
+
+    /** Magic number at the start of a binary output file, "TSIM". */
+    public static final int MAGIC = 0x5453494D;
+
+    /** Version of the binary output format. */
+    public static final int VERSION = 1;
+
+    /**
+     * How a brick is brought down once the policy's rotation and column are reached.
+     */
+    public enum Drop {
+        /** Hard drop at once. */
+        HARD,
+        /** One soft drop step per input. */
+        SOFT,
+        /** Wait for gravity and the lock delay. */
+        GRAVITY
+    }
+
+    private final BoardSize size;
+    private final RandomizerPolicy randomizer;
+    private final int gravity;
+    private final int inputTicks;
+    private final Drop drop;
+    private final int maxPieces;
+
+    /**
+     * Creates a runner.
+     *
+     * @param size       the size of the boards
+     * @param randomizer the rule picking the bricks
+     * @param gravity    ticks per row, or 0 for the level curve of the GUI
+     * @param inputTicks ticks between two commands
+     * @param drop       how a brick is brought down once in place
+     * @param maxPieces  bricks after which a game ends
+     */
+    public BatchRunner(BoardSize size, RandomizerPolicy randomizer, int gravity, int inputTicks, Drop drop,
+                       int maxPieces) {
+        this.size = size;
+        this.randomizer = randomizer;
+        this.gravity = gravity;
+        this.inputTicks = inputTicks;
+        this.drop = drop;
+        this.maxPieces = maxPieces;
+    }
+
+    /**
+     * Plays one game to the end on the calling thread.
+     *
+     * @param game   the index of the game in the batch
+     * @param seed   the seed of the brick sequence
+     * @param policy the policy placing the bricks
+     * @return the result of the game
+     */
+    public GameResult play(int game, long seed, MovePolicy policy) {
+        SeededBrickGenerator generator = new SeededBrickGenerator(seed, randomizer,
+                SeededBrickGenerator.DEFAULT_PREVIEW_SIZE);
+        GameEngine engine = new GameEngine(size.createBoard(generator, false));
+        if (gravity > 0) {
+            engine.setGravityInterval(gravity);
+        } else {
+            engine.setLevelGravity(true);
+        }
+        engine.setLockDelay(GameEngine.DEFAULT_LOCK_DELAY);
+        ClearCounter clears = new ClearCounter();
+        engine.addListener(clears);
+        engine.start();
+        policy.newGame(seed);
+
+        while (!engine.isGameOver() && engine.getPiece() < maxPieces) {
+            playPiece(engine, policy.choose(engine.getBoard()));
+        }
+        return new GameResult(game, seed, engine.getBoard().getScore().getScore(),
+                engine.getBoard().getScore().getLines(), engine.getPiece(), engine.getTick(), engine.getLevel(),
+                clears.counts, engine.isGameOver());
+    }
+
+    /**
+     * Plays a batch of games on a pool of worker threads and writes each result as it finishes.
+     *
+     * @param games     the number of games
+     * @param firstSeed the seed of the first game; the others follow on
+     * @param threads   the number of worker threads
+     * @param policy    the name of the policy, see {@link MovePolicy#named}
+     * @param out       the output, written to by all workers
+     * @param binary    whether to write binary records instead of CSV lines; no header is written
+     * @return the totals of the batch
+     * @throws IOException if the output cannot be written
+     */
+    public Totals run(int games, long firstSeed, int threads, String policy, WritableByteChannel out,
+                      boolean binary) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        AtomicInteger next = new AtomicInteger();
+        Totals totals = new Totals();
+        ForkJoinTask<?>[] workers = new ForkJoinTask<?>[threads];
+        for (int i = 0; i < threads; i++) {
+            // One policy per worker: the bots keep scratch boards between searches
+            MovePolicy movePolicy = MovePolicy.named(policy, pool);
+            workers[i] = pool.submit(() -> {
+                ByteBuffer buffer = ByteBuffer.allocate(256);
+                for (int game; (game = next.getAndIncrement()) < games; ) {
+                    GameResult result = play(game, firstSeed + game, movePolicy);
+                    totals.add(result);
+                    buffer.clear();
+                    if (binary) {
+                        result.writeRecord(buffer);
+                    } else {
+                        result.writeCsv(buffer);
+                    }
+                    write(out, buffer.flip());
+                }
+            });
+        }
+        try {
+            for (ForkJoinTask<?> worker : workers) {
+                worker.join();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdownNow();
+        }
+        return totals;
+    }
+
+    /**
+     * Commands the engine towards a placement at the input rate, then drops the brick.
+     */
+    private void playPiece(GameEngine engine, Placement placement) {
+        int piece = engine.getPiece();
+        if (placement != null) {
+            if (placement.isHold()) {
+                engine.hold();
+                if (!waitInput(engine, piece)) {
+                    return;
+                }
+            }
+            for (int i = 0; i < placement.getRotateCount(); i++) {
+                engine.rotate();
+                if (!waitInput(engine, piece)) {
+                    return;
+                }
+            }
+            int x = engine.getBoard().getViewData().getxPosition();
+            while (x != placement.getX()) {
+                int step = x < placement.getX() ? 1 : -1;
+                if (!(step > 0 ? engine.moveRight() : engine.moveLeft())) {
+                    break;
+                }
+                x += step;
+                if (!waitInput(engine, piece)) {
+                    return;
+                }
+            }
+        }
+        switch (drop) {
+            case HARD:
+                engine.hardDrop();
+                break;
+            case SOFT:
+                do {
+                    engine.moveDown();
+                } while (waitInput(engine, piece));
+                break;
+            default:
+                while (engine.getPiece() == piece && !engine.isGameOver()) {
+                    engine.tick();
+                }
+                break;
+        }
+    }
+
+    /**
+     * Lets the ticks between two commands pass.
+     *
+     * @return true if the same brick is still falling
+     */
+    private boolean waitInput(GameEngine engine, int piece) {
+        for (int i = 0; i < inputTicks && engine.getPiece() == piece; i++) {
+            engine.tick();
+        }
+        return engine.getPiece() == piece && !engine.isGameOver();
+    }
+
+    private static void write(WritableByteChannel out, ByteBuffer buffer) {
+        synchronized (out) {
+            try {
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Runs a batch from the command line and prints a summary.
+     *
+     * @param args options as {@code --name=value}, see the class description
+     * @throws IOException if the output cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Options must be --name=value, not " + arg);
+            }
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        int games = Integer.parseInt(options.getOrDefault("games", "1000"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "0"));
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        String policy = options.getOrDefault("policy", "bot");
+        String gravity = options.getOrDefault("gravity", "level");
+        String out = options.get("out");
+        BatchRunner runner = new BatchRunner(
+                BoardSize.parse(options.getOrDefault("size", BoardSize.DEFAULT.toString())),
+                RandomizerPolicy.valueOf(options.getOrDefault("randomizer", "UNIFORM")),
+                "level".equals(gravity) ? 0 : Integer.parseInt(gravity),
+                Integer.parseInt(options.getOrDefault("input", "4")),
+                Drop.valueOf(options.getOrDefault("drop", "hard").toUpperCase()),
+                Integer.parseInt(options.getOrDefault("pieces", "1000")));
+
+        boolean binary = out != null && out.endsWith(".bin");
+        long start = System.nanoTime();
+        Totals totals;
+        try (WritableByteChannel channel = out != null
+                ? FileChannel.open(Path.of(out), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)
+                : Channels.newChannel(System.out)) {
+            ByteBuffer header = binary
+                    ? ByteBuffer.allocate(12).putInt(MAGIC).putInt(VERSION).putInt(GameResult.RECORD_BYTES).flip()
+                    : ByteBuffer.wrap(GameResult.CSV_HEADER.getBytes(StandardCharsets.US_ASCII));
+            write(channel, header);
+            totals = runner.run(games, seed, threads, policy, channel, binary);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("%d games of %s on %d threads in %.1f s (%.1f games/s)%n",
+                games, policy, threads, seconds, games / seconds);
+        System.err.printf("mean score %.1f, lines %.1f, pieces %.1f, survival %.1f s; %.1f%% topped out%n",
+                totals.mean(totals.score), totals.mean(totals.lines), totals.mean(totals.pieces),
+                totals.mean(totals.ticks) / GameEngine.TICKS_PER_SECOND, 100 * totals.mean(totals.toppedOut));
+    }
+
+    /**
+     * Counts the clears of each size in one game.
+     */
+    private static final class ClearCounter implements GameEventListener {
+        private final int[] counts = new int[4];
+
+        @Override
+        public void onBrickLocked(ClearRow clearRow) {
+            int lines = clearRow.getLinesRemoved();
+            if (lines > 0) {
+                counts[Math.min(lines, counts.length) - 1]++;
+            }
+        }
+    }
+
+    /**
+     * Sums of the results of a batch, updated by all workers.
+     */
+    public static final class Totals {
+        private final LongAdder games = new LongAdder();
+        private final LongAdder score = new LongAdder();
+        private final LongAdder lines = new LongAdder();
+        private final LongAdder pieces = new LongAdder();
+        private final LongAdder ticks = new LongAdder();
+        private final LongAdder toppedOut = new LongAdder();
+
+        private void add(GameResult result) {
+            games.increment();
+            score.add(result.getScore());
+            lines.add(result.getLines());
+            pieces.add(result.getPieces());
+            ticks.add(result.getTicks());
+            if (result.isToppedOut()) {
+                toppedOut.increment();
+            }
+        }
+
+        private double mean(LongAdder sum) {
+            long count = games.sum();
+            return count == 0 ? 0 : (double) sum.sum() / count;
+        }
+
+        /**
+         * Returns the number of games played.
+         *
+         * @return the game count
+         */
+        public long getGames() {
+            return games.sum();
+        }
+
+        /**
+         * Returns the mean final score.
+         *
+         * @return the mean score
+         */
+        public double getMeanScore() {
+            return mean(score);
+        }
+
+        /**
+         * Returns the mean number of cleared lines.
+         *
+         * @return the mean line count
+         */
+        public double getMeanLines() {
+            return mean(lines);
+        }
+
+        /**
+         * Returns the mean survival time.
+         *
+         * @return the mean length of a game in seconds
+         */
+        public double getMeanSeconds() {
+            return mean(ticks) / GameEngine.TICKS_PER_SECOND;
+        }
+    }
+}
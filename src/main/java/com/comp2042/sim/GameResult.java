@@ -0,0 +1,182 @@
+package com.comp2042.sim;
+
+import com.comp2042.GameEngine;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * The outcome of one simulated game, as written by {@link BatchRunner}.
+ * <p>
+ * Immutable. Besides the totals it counts the clears of each size, so other
+ * line clear bonuses than {@code 50 * n * n} can be compared from the same run.
+ * A result is written either as a CSV line or as a fixed
+ * {@value #RECORD_BYTES}-byte big-endian record.
+ * </p>
+ */
+public final class GameResult {
+
+    /** The header line of the CSV output. */
+    public static final String CSV_HEADER =
+            "game,seed,score,lines,pieces,ticks,seconds,level,singles,doubles,triples,tetrises,topped_out\n";
+
+    /** Size of a binary record, padded to a multiple of 8. */
+    public static final int RECORD_BYTES = 56;
+
+    private final int game;
+    private final long seed;
+    private final int score;
+    private final int lines;
+    private final int pieces;
+    private final long ticks;
+    private final int level;
+    private final int[] clears;
+    private final boolean toppedOut;
+
+    /**
+     * Creates a result.
+     *
+     * @param game      the index of the game in the batch
+     * @param seed      the seed of the brick sequence
+     * @param score     the final score
+     * @param lines     the number of cleared lines
+     * @param pieces    the number of locked bricks
+     * @param ticks     the length of the game in engine ticks
+     * @param level     the level reached
+     * @param clears    the number of clears of 1 to 4 lines, at index 0 to 3
+     * @param toppedOut whether the game ended on a top out rather than the piece limit
+     */
+    public GameResult(int game, long seed, int score, int lines, int pieces, long ticks, int level,
+                      int[] clears, boolean toppedOut) {
+        this.game = game;
+        this.seed = seed;
+        this.score = score;
+        this.lines = lines;
+        this.pieces = pieces;
+        this.ticks = ticks;
+        this.level = level;
+        this.clears = clears.clone();
+        this.toppedOut = toppedOut;
+    }
+
+    /**
+     * Appends the result as a CSV line, ending with a newline.
+     *
+     * @param out the buffer to append to, with at least 256 bytes left
+     */
+    public void writeCsv(ByteBuffer out) {
+        String line = game + "," + seed + "," + score + "," + lines + "," + pieces + "," + ticks + ","
+                + String.format(Locale.ROOT, "%.2f", getSeconds()) + "," + level + ","
+                + clears[0] + "," + clears[1] + "," + clears[2] + "," + clears[3] + "," + toppedOut + "\n";
+        out.put(line.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Appends the result as a binary record of {@value #RECORD_BYTES} bytes.
+     *
+     * @param out the buffer to append to
+     */
+    public void writeRecord(ByteBuffer out) {
+        int start = out.position();
+        out.putInt(game).putLong(seed).putInt(score).putInt(lines).putInt(pieces).putLong(ticks).putInt(level);
+        for (int clear : clears) {
+            out.putInt(clear);
+        }
+        out.put((byte) (toppedOut ? 1 : 0));
+        while (out.position() - start < RECORD_BYTES) {
+            out.put((byte) 0);
+        }
+    }
+
+    /**
+     * Returns the index of the game in the batch.
+     *
+     * @return the game index
+     */
+    public int getGame() {
+        return game;
+    }
+
+    /**
+     * Returns the seed of the brick sequence.
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns the final score.
+     *
+     * @return the score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Returns the number of cleared lines.
+     *
+     * @return the line count
+     */
+    public int getLines() {
+        return lines;
+    }
+
+    /**
+     * Returns the number of locked bricks.
+     *
+     * @return the piece count
+     */
+    public int getPieces() {
+        return pieces;
+    }
+
+    /**
+     * Returns the length of the game in engine ticks.
+     *
+     * @return the tick count
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Returns how long the game survived at the GUI tick rate.
+     *
+     * @return the survival time in seconds
+     */
+    public double getSeconds() {
+        return (double) ticks / GameEngine.TICKS_PER_SECOND;
+    }
+
+    /**
+     * Returns the level reached.
+     *
+     * @return the level
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Returns the number of clears of a given size.
+     *
+     * @param lines the number of lines cleared at once, 1 to 4
+     * @return the number of such clears
+     */
+    public int getClears(int lines) {
+        return clears[lines - 1];
+    }
+
+    /**
+     * Returns whether the game ended on a top out rather than the piece limit.
+     *
+     * @return true if the game topped out
+     */
+    public boolean isToppedOut() {
+        return toppedOut;
+    }
+}
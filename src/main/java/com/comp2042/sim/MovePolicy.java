@@ -0,0 +1,62 @@
+package com.comp2042.sim;
+
+import com.comp2042.Board;
+import com.comp2042.bot.HeuristicWeights;
+import com.comp2042.bot.Placement;
+import com.comp2042.bot.PlacementBot;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Decides where the falling brick of a simulated game goes.
+ * <p>
+ * A policy only chooses the landing spot; the {@link BatchRunner} plays it out
+ * as hold, rotate and shift commands at a fixed input rate while gravity runs.
+ * Each worker thread gets its own policy, so implementations need not be thread-safe.
+ * </p>
+ */
+public interface MovePolicy {
+
+    /**
+     * Chooses a placement for the falling brick. The board must not be modified.
+     *
+     * @param board the board of the game
+     * @return the placement, or null to drop the brick where it is
+     */
+    Placement choose(Board board);
+
+    /**
+     * Called before each game, e.g. to reseed a random policy so that the game
+     * can be played again from its seed alone.
+     *
+     * @param seed the seed of the brick sequence of the game
+     */
+    default void newGame(long seed) { }
+
+    /**
+     * Creates a policy by name: {@code greedy} (the bot placing the current brick
+     * only), {@code bot} (the same with hold), {@code lookahead} (the bot also
+     * placing the next brick, with no time budget so results are reproducible) or
+     * {@code random}.
+     *
+     * @param name the name of the policy
+     * @param pool the pool the bot searches on
+     * @return a new policy
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    static MovePolicy named(String name, ForkJoinPool pool) {
+        switch (name) {
+            case "greedy":
+                return new PlacementBot(HeuristicWeights.DEFAULT, 1, false, 0, pool)::findBest;
+            case "bot":
+                return new PlacementBot(HeuristicWeights.DEFAULT, 1, true, 0, pool)::findBest;
+            case "lookahead":
+                return new PlacementBot(HeuristicWeights.DEFAULT, 2, true, Long.MAX_VALUE / 4, pool)::findBest;
+            case "random":
+                return new RandomPolicy();
+            default:
+                throw new IllegalArgumentException("Unknown policy " + name
+                        + ", expected greedy, bot, lookahead or random");
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.comp2042.sim;
+
+import com.comp2042.Board;
+import com.comp2042.bot.Placement;
+import com.comp2042.logic.bricks.Brick;
+
+import java.util.SplittableRandom;
+
+/**
+ * Drops every brick in a random rotation and column, a baseline for the bots.
+ * Reseeded from the seed of each game, so a game plays the same way every time.
+ */
+public class RandomPolicy implements MovePolicy {
+
+    private SplittableRandom random = new SplittableRandom();
+
+    @Override
+    public void newGame(long seed) {
+        random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public Placement choose(Board board) {
+        Brick brick = board.getCurrentBrick();
+        if (brick == null) {
+            return null;
+        }
+        int rotations = brick.getRotations().size();
+        int rotateCount = random.nextInt(rotations);
+        int x = random.nextInt(board.getBoardMatrix()[0].length);
+        return new Placement(false, rotateCount, rotateCount, x, 0, 0);
+    }
+}
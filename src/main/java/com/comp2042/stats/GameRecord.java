@@ -0,0 +1,153 @@
+package com.comp2042.stats;
+
+import com.comp2042.GameEngine;
+
+/**
+ * The statistics of one finished game, as stored by {@link StatsStore}.
+ * <p>
+ * Immutable. Every field has a fixed size in the store, so the name of the
+ * replay file, if the game was recorded, is cut to {@link StatsStore#MAX_REPLAY_NAME_BYTES}.
+ * </p>
+ */
+public final class GameRecord {
+
+    /**
+     * How a game ended.
+     */
+    public enum End {
+        /** A new brick could not spawn. */
+        TOPPED_OUT,
+        /** The countdown ran out. */
+        TIME_UP,
+        /** The player quit or started another game. */
+        ABANDONED
+    }
+
+    private final long timestamp;
+    private final int score;
+    private final int lines;
+    private final int pieces;
+    private final long ticks;
+    private final Long seed;
+    private final End end;
+    private final String replay;
+
+    /**
+     * Creates a record.
+     *
+     * @param timestamp when the game ended, in milliseconds since the epoch
+     * @param score     the final score
+     * @param lines     the number of cleared lines
+     * @param pieces    the number of locked bricks
+     * @param ticks     the length of the game in engine ticks
+     * @param seed      the seed of the brick sequence, or null if it was not seeded
+     * @param end       how the game ended
+     * @param replay    the name of the replay file of the game, or null if it was not recorded
+     */
+    public GameRecord(long timestamp, int score, int lines, int pieces, long ticks, Long seed, End end, String replay) {
+        this.timestamp = timestamp;
+        this.score = score;
+        this.lines = lines;
+        this.pieces = pieces;
+        this.ticks = ticks;
+        this.seed = seed;
+        this.end = end;
+        this.replay = replay;
+    }
+
+    /**
+     * Returns when the game ended.
+     *
+     * @return milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns the final score.
+     *
+     * @return the score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Returns the number of cleared lines.
+     *
+     * @return the line count
+     */
+    public int getLines() {
+        return lines;
+    }
+
+    /**
+     * Returns the number of bricks locked in the game.
+     *
+     * @return the piece count
+     */
+    public int getPieces() {
+        return pieces;
+    }
+
+    /**
+     * Returns the length of the game.
+     *
+     * @return the number of engine ticks
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Returns the length of the game in seconds, at {@link GameEngine#TICKS_PER_SECOND}.
+     *
+     * @return the duration in seconds
+     */
+    public double getSeconds() {
+        return (double) ticks / GameEngine.TICKS_PER_SECOND;
+    }
+
+    /**
+     * Returns the number of bricks locked per second.
+     *
+     * @return the pieces per second, 0 for a game without ticks
+     */
+    public double getPiecesPerSecond() {
+        return ticks == 0 ? 0 : pieces / getSeconds();
+    }
+
+    /**
+     * Returns the seed of the brick sequence.
+     *
+     * @return the seed, or null if the game used random bricks
+     */
+    public Long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns how the game ended.
+     *
+     * @return the end
+     */
+    public End getEnd() {
+        return end;
+    }
+
+    /**
+     * Returns the name of the replay file of the game.
+     *
+     * @return the file name, or null if the game was not recorded
+     */
+    public String getReplay() {
+        return replay;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d points, %d lines, %d pieces in %.0f s (%.2f PPS)",
+                score, lines, pieces, getSeconds(), getPiecesPerSecond());
+    }
+}
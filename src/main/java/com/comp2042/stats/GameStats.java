@@ -0,0 +1,121 @@
+package com.comp2042.stats;
+
+import com.comp2042.ClearRow;
+import com.comp2042.GameEngine;
+import com.comp2042.GameEventListener;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Follows the games of a {@link GameEngine} and stores the statistics of each one
+ * in a {@link StatsStore} when it ends.
+ * <p>
+ * A game ends when the engine reports game over, or when {@link #finish} is
+ * called, e.g. when the countdown runs out or the player leaves. The seed and the
+ * replay file only describe the first game: later games draw from a generator
+ * that has already moved on, and the recorder stops after the first game.
+ * </p>
+ */
+public class GameStats implements GameEventListener {
+
+    private final GameEngine engine;
+    private final StatsStore store;
+    private Long seed;
+    private String replay;
+    private Consumer<List<GameRecord>> onStored;
+
+    private boolean playing;
+    private int score;
+    private int lines;
+    private int pieces;
+
+    /**
+     * Creates the statistics of the game the engine is playing now. Register it
+     * with {@link GameEngine#addListener} right away.
+     *
+     * @param engine the engine, already started
+     * @param store  the store to write finished games to
+     * @param seed   the seed of the brick sequence of the current game, or null if it is not seeded
+     */
+    public GameStats(GameEngine engine, StatsStore store, Long seed) {
+        this.engine = engine;
+        this.store = store;
+        this.seed = seed;
+        this.playing = !engine.isGameOver();
+    }
+
+    /**
+     * Sets the name of the replay file the current game is recorded to.
+     *
+     * @param replay the file name
+     */
+    public void setReplay(String replay) {
+        this.replay = replay;
+    }
+
+    /**
+     * Sets what to do with the leaderboard each time a game has been stored.
+     * It is called on the store's background thread.
+     *
+     * @param onStored receives the new leaderboard
+     */
+    public void setOnStored(Consumer<List<GameRecord>> onStored) {
+        this.onStored = onStored;
+    }
+
+    /**
+     * Ends the current game and stores it, unless it has already ended.
+     *
+     * @param end how the game ended
+     */
+    public void finish(GameRecord.End end) {
+        if (!playing) {
+            return;
+        }
+        playing = false;
+        GameRecord record = new GameRecord(System.currentTimeMillis(), score, lines, pieces, engine.getTick(),
+                seed, end, replay);
+        store.append(record).whenComplete((leaderboard, error) -> {
+            if (error != null) {
+                System.err.println("Could not store game statistics: " + error.getMessage());
+            } else if (onStored != null) {
+                onStored.accept(leaderboard);
+            }
+        });
+    }
+
+    @Override
+    public void onGameStarted() {
+        // Only the first game is seeded and recorded. Whoever starts a new game over an
+        // unfinished one finishes it first, as the engine resets its tick count here
+        seed = null;
+        replay = null;
+        playing = true;
+        score = 0;
+        lines = 0;
+        pieces = 0;
+    }
+
+    @Override
+    public void onBrickLocked(ClearRow clearRow) {
+        pieces++;
+    }
+
+    @Override
+    public void onRewound(int piece) {
+        // An undo takes back the locks as well; a game already stored stays as it was
+        pieces = piece;
+    }
+
+    @Override
+    public void onScoreChanged(int score, int lines) {
+        this.score = score;
+        this.lines = lines;
+    }
+
+    @Override
+    public void onGameOver() {
+        finish(GameRecord.End.TOPPED_OUT);
+    }
+}
@@ -0,0 +1,389 @@
+package com.comp2042.stats;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Local file of the statistics of every game played, with a top-N leaderboard.
+ * <p>
+ * The file is memory-mapped and made of fixed-size records, so nothing is parsed:
+ * record {@code i} is at a fixed offset and its fields are read in place. Records
+ * are only ever appended. The header holds two copies of a small commit slot, each
+ * with a sequence number, the number of committed records, the indices of the
+ * best {@link #LEADERBOARD_SIZE} records by score and a CRC:
+ * </p>
+ * <ol>
+ *   <li>a new record is written after the last committed one and flushed;</li>
+ *   <li>the older slot is overwritten with the next sequence number, the new count
+ *       and leaderboard, and flushed.</li>
+ * </ol>
+ * <p>
+ * A crash before the second step leaves the previous slot as the newest valid one,
+ * so the half-written record is simply not part of the file; a torn slot fails its
+ * CRC and the other one is used. Opening the store reads the newest valid slot and
+ * the leaderboard records it points to, so it costs O(N) for N leaderboard entries
+ * whatever the number of games played.
+ * </p>
+ * <p>
+ * Appends run on a single background thread, so the game never waits for the
+ * disk; {@link #getLeaderboard()} and {@link #size()} are safe from any thread.
+ * </p>
+ */
+public class StatsStore implements Closeable {
+
+    /** Number of games kept on the leaderboard. */
+    public static final int LEADERBOARD_SIZE = 10;
+
+    /** Longest replay file name stored with a game, in UTF-8 bytes. */
+    public static final int MAX_REPLAY_NAME_BYTES = 84;
+
+    static final int MAGIC = 0x54535453; // "TSTS"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 256;
+    static final int RECORD_SIZE = 128;
+
+    // Header: magic, version, record size, leaderboard size, then the two commit slots
+    private static final int SLOTS_OFFSET = 16;
+    private static final int SLOT_SIZE = 64;
+
+    // Commit slot fields
+    private static final int SLOT_SEQUENCE = 0;
+    private static final int SLOT_COUNT = 8;
+    private static final int SLOT_TOP_COUNT = 12;
+    private static final int SLOT_TOP = 16;
+    private static final int SLOT_CRC = SLOT_TOP + 4 * LEADERBOARD_SIZE;
+
+    // Record fields
+    private static final int TIMESTAMP = 0;
+    private static final int SEED = 8;
+    private static final int TICKS = 16;
+    private static final int SCORE = 24;
+    private static final int LINES = 28;
+    private static final int PIECES = 32;
+    private static final int FLAGS = 36;
+    private static final int END = 37;
+    private static final int REPLAY_LENGTH = 38;
+    private static final int REPLAY = 40;
+    private static final int RECORD_CRC = REPLAY + MAX_REPLAY_NAME_BYTES;
+
+    private static final byte FLAG_SEEDED = 1;
+
+    /** Records the file has room for when it is created; it doubles when full. */
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final GameRecord.End[] ENDS = GameRecord.End.values();
+
+    private final FileChannel channel;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stats-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile MappedByteBuffer buffer;
+    private int capacity;
+    private long sequence;
+    private volatile int count;
+    private final int[] top = new int[LEADERBOARD_SIZE];
+    private int topCount;
+    private volatile List<GameRecord> leaderboard;
+
+    private StatsStore(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Opens a store, creating the file and its parent directories if needed, and
+     * reads its leaderboard.
+     *
+     * @param path the store file
+     * @return the open store
+     * @throws IOException if the file cannot be opened or is not a valid store
+     */
+    public static StatsStore open(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        StatsStore store = new StatsStore(channel);
+        try {
+            if (channel.size() == 0) {
+                store.create();
+            } else {
+                store.load();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return store;
+    }
+
+    /**
+     * Appends the statistics of a game on the background thread.
+     *
+     * @param record the game to store
+     * @return a future completed with the leaderboard once the game is committed to the file
+     */
+    public CompletableFuture<List<GameRecord>> append(GameRecord record) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                write(record);
+                return leaderboard;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, writer);
+    }
+
+    /**
+     * Returns the best games by score, best first, as of the last commit.
+     *
+     * @return an unmodifiable list of at most {@link #LEADERBOARD_SIZE} games
+     */
+    public List<GameRecord> getLeaderboard() {
+        return leaderboard;
+    }
+
+    /**
+     * Returns the number of games committed to the file.
+     *
+     * @return the record count
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Reads a committed game.
+     *
+     * @param index the record index, from 0 to {@link #size()} - 1, in the order the games were stored
+     * @return the game
+     * @throws IllegalStateException if the record is damaged
+     */
+    public GameRecord read(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Record " + index + " of " + count);
+        }
+        GameRecord record = decode(buffer, index);
+        if (record == null) {
+            throw new IllegalStateException("Record " + index + " is damaged");
+        }
+        return record;
+    }
+
+    /**
+     * Waits for the pending appends to be committed and closes the file.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                System.err.println("Statistics still being written at exit");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    private void create() throws IOException {
+        map(INITIAL_CAPACITY);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, RECORD_SIZE);
+        buffer.putInt(12, LEADERBOARD_SIZE);
+        writeSlot(0);
+        buffer.force();
+        leaderboard = Collections.emptyList();
+    }
+
+    private void load() throws IOException {
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+            throw new IOException("Not a statistics file: too short");
+        }
+        map((int) ((size - HEADER_SIZE) / RECORD_SIZE));
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a statistics file");
+        }
+        if (buffer.getInt(4) != VERSION || buffer.getInt(8) != RECORD_SIZE
+                || buffer.getInt(12) != LEADERBOARD_SIZE) {
+            throw new IOException("Unsupported statistics file version " + buffer.getInt(4));
+        }
+        int slot = -1;
+        for (int i = 0; i < 2; i++) {
+            if (slotValid(i) && (slot < 0 || buffer.getLong(slotOffset(i) + SLOT_SEQUENCE) > sequence)) {
+                slot = i;
+                sequence = buffer.getLong(slotOffset(i) + SLOT_SEQUENCE);
+            }
+        }
+        if (slot < 0) {
+            throw new IOException("Statistics file header is damaged");
+        }
+        int offset = slotOffset(slot);
+        count = buffer.getInt(offset + SLOT_COUNT);
+        int stored = buffer.getInt(offset + SLOT_TOP_COUNT);
+        if (count < 0 || count > capacity || stored < 0 || stored > Math.min(count, LEADERBOARD_SIZE)) {
+            throw new IOException("Statistics file header is damaged");
+        }
+        List<GameRecord> games = new ArrayList<>(stored);
+        int kept = 0;
+        for (int i = 0; i < stored; i++) {
+            int index = buffer.getInt(offset + SLOT_TOP + 4 * i);
+            GameRecord record = index >= 0 && index < count ? decode(buffer, index) : null;
+            if (record != null) {
+                top[kept++] = index;
+                games.add(record);
+            }
+        }
+        Arrays.fill(top, kept, LEADERBOARD_SIZE, -1);
+        this.topCount = kept;
+        leaderboard = Collections.unmodifiableList(games);
+    }
+
+    /**
+     * Commits one record: the record first, then the older commit slot.
+     */
+    private void write(GameRecord record) throws IOException {
+        int index = count;
+        if (index == capacity) {
+            map(capacity * 2);
+        }
+        int offset = recordOffset(index);
+        encode(record, buffer, offset);
+        buffer.force(offset, RECORD_SIZE);
+
+        List<GameRecord> games = new ArrayList<>(leaderboard);
+        int rank = 0;
+        while (rank < games.size() && games.get(rank).getScore() >= record.getScore()) {
+            rank++;
+        }
+        if (rank < LEADERBOARD_SIZE) {
+            games.add(rank, record);
+            if (games.size() > LEADERBOARD_SIZE) {
+                games.remove(LEADERBOARD_SIZE);
+            }
+            System.arraycopy(top, rank, top, rank + 1, LEADERBOARD_SIZE - rank - 1);
+            top[rank] = index;
+            topCount = games.size();
+        }
+
+        count = index + 1;
+        sequence++;
+        int slot = (int) (sequence & 1);
+        writeSlot(slot);
+        buffer.force(slotOffset(slot), SLOT_SIZE);
+        leaderboard = Collections.unmodifiableList(games);
+    }
+
+    private void writeSlot(int slot) {
+        int offset = slotOffset(slot);
+        buffer.putLong(offset + SLOT_SEQUENCE, sequence);
+        buffer.putInt(offset + SLOT_COUNT, count);
+        buffer.putInt(offset + SLOT_TOP_COUNT, topCount);
+        for (int i = 0; i < LEADERBOARD_SIZE; i++) {
+            buffer.putInt(offset + SLOT_TOP + 4 * i, i < topCount ? top[i] : -1);
+        }
+        buffer.putInt(offset + SLOT_CRC, crc(buffer, offset, SLOT_CRC));
+    }
+
+    private boolean slotValid(int slot) {
+        int offset = slotOffset(slot);
+        return buffer.getInt(offset + SLOT_CRC) == crc(buffer, offset, SLOT_CRC);
+    }
+
+    /**
+     * Maps the header and room for the given number of records, growing the file if needed.
+     */
+    private void map(int records) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) records * RECORD_SIZE);
+        capacity = records;
+    }
+
+    private static void encode(GameRecord record, MappedByteBuffer buffer, int offset) {
+        buffer.putLong(offset + TIMESTAMP, record.getTimestamp());
+        buffer.putLong(offset + SEED, record.getSeed() != null ? record.getSeed() : 0L);
+        buffer.putLong(offset + TICKS, record.getTicks());
+        buffer.putInt(offset + SCORE, record.getScore());
+        buffer.putInt(offset + LINES, record.getLines());
+        buffer.putInt(offset + PIECES, record.getPieces());
+        buffer.put(offset + FLAGS, record.getSeed() != null ? FLAG_SEEDED : 0);
+        buffer.put(offset + END, (byte) record.getEnd().ordinal());
+        byte[] replay = record.getReplay() != null
+                ? record.getReplay().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        int length = Math.min(replay.length, MAX_REPLAY_NAME_BYTES);
+        while (length < replay.length && (replay[length] & 0xC0) == 0x80) {
+            // Do not cut a character in half
+            length--;
+        }
+        buffer.putShort(offset + REPLAY_LENGTH, (short) (record.getReplay() != null ? length : -1));
+        buffer.put(offset + REPLAY, replay, 0, length);
+        buffer.put(offset + REPLAY + length, new byte[MAX_REPLAY_NAME_BYTES - length]);
+        buffer.putInt(offset + RECORD_CRC, crc(buffer, offset, RECORD_CRC));
+    }
+
+    /**
+     * Reads a record in place.
+     *
+     * @return the record, or null if its CRC does not match
+     */
+    private static GameRecord decode(MappedByteBuffer buffer, int index) {
+        int offset = recordOffset(index);
+        if (buffer.getInt(offset + RECORD_CRC) != crc(buffer, offset, RECORD_CRC)) {
+            return null;
+        }
+        int end = buffer.get(offset + END);
+        int replayLength = buffer.getShort(offset + REPLAY_LENGTH);
+        String replay = null;
+        if (replayLength >= 0) {
+            byte[] name = new byte[Math.min(replayLength, MAX_REPLAY_NAME_BYTES)];
+            buffer.get(offset + REPLAY, name);
+            replay = new String(name, StandardCharsets.UTF_8);
+        }
+        return new GameRecord(
+                buffer.getLong(offset + TIMESTAMP),
+                buffer.getInt(offset + SCORE),
+                buffer.getInt(offset + LINES),
+                buffer.getInt(offset + PIECES),
+                buffer.getLong(offset + TICKS),
+                (buffer.get(offset + FLAGS) & FLAG_SEEDED) != 0 ? buffer.getLong(offset + SEED) : null,
+                end >= 0 && end < ENDS.length ? ENDS[end] : GameRecord.End.ABANDONED,
+                replay);
+    }
+
+    private static int crc(MappedByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    private static int slotOffset(int slot) {
+        return SLOTS_OFFSET + slot * SLOT_SIZE;
+    }
+
+    private static int recordOffset(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+}
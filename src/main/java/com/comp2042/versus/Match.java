@@ -0,0 +1,166 @@
+package com.comp2042.versus;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One running match of the {@link MatchServer}.
+ * <p>
+ * The match relays board deltas and scores from each player to the others and
+ * routes attacks: each attack goes whole to the next opponent still alive, in
+ * turn, with a random hole column. The match ends when at most one player is
+ * left. Every player draws the same brick sequence from the seed sent at the start.
+ * </p>
+ */
+final class Match {
+
+    private final MatchServer server;
+    private final int id;
+    private final Session[] players;
+    private final int columns;
+    private final long seed = ThreadLocalRandom.current().nextLong();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final boolean[] alive;
+    private int aliveCount;
+    private boolean over;
+    private int nextTarget;
+
+    Match(MatchServer server, int id, Session[] players, int columns) {
+        this.server = server;
+        this.id = id;
+        this.players = players;
+        this.columns = columns;
+        this.alive = new boolean[players.length];
+    }
+
+    /**
+     * Tells every player the match has started.
+     */
+    void start() {
+        lock.lock();
+        try {
+            for (int i = 0; i < players.length; i++) {
+                players[i].join(this, i);
+                alive[i] = true;
+            }
+            aliveCount = players.length;
+        } finally {
+            lock.unlock();
+        }
+        for (int i = 0; i < players.length; i++) {
+            ByteBuffer frame = ByteBuffer.allocate(16);
+            VersusProtocol.begin(frame, VersusProtocol.START);
+            VersusProtocol.putVarInt(frame, id);
+            frame.put((byte) i);
+            frame.put((byte) players.length);
+            frame.putLong(seed);
+            VersusProtocol.end(frame);
+            players[i].send(frame);
+        }
+    }
+
+    /**
+     * Forwards the rest of a message to the other players, prefixed with the sender.
+     *
+     * @param from    the sender
+     * @param type    the type of the forwarded message
+     * @param payload the payload still to read from the received frame
+     */
+    void relay(int from, byte type, ByteBuffer payload) {
+        ByteBuffer frame = ByteBuffer.allocate(4 + payload.remaining());
+        VersusProtocol.begin(frame, type);
+        frame.put((byte) from);
+        frame.put(payload);
+        VersusProtocol.end(frame);
+        sendToOthers(from, frame);
+    }
+
+    /**
+     * Sends garbage from one player to the next opponent still alive.
+     *
+     * @param from the attacker
+     * @param rows the number of garbage rows
+     */
+    void attack(int from, int rows) {
+        if (rows <= 0) {
+            return;
+        }
+        int target = -1;
+        lock.lock();
+        try {
+            if (!alive[from] || aliveCount < 2) {
+                return;
+            }
+            for (int i = 1; i < players.length && target < 0; i++) {
+                int candidate = (from + nextTarget + i) % players.length;
+                if (candidate != from && alive[candidate]) {
+                    target = candidate;
+                }
+            }
+            nextTarget = (nextTarget + 1) % players.length;
+        } finally {
+            lock.unlock();
+        }
+        if (target < 0) {
+            return;
+        }
+        ByteBuffer frame = ByteBuffer.allocate(16);
+        VersusProtocol.begin(frame, VersusProtocol.GARBAGE);
+        VersusProtocol.putVarInt(frame, rows);
+        VersusProtocol.putVarInt(frame, ThreadLocalRandom.current().nextInt(columns));
+        frame.put((byte) from);
+        VersusProtocol.end(frame);
+        players[target].send(frame);
+    }
+
+    /**
+     * Takes a player out of the match, because it topped out or left, and ends
+     * the match once at most one player is left.
+     *
+     * @param player the player
+     */
+    void toppedOut(int player) {
+        int winner = -1;
+        boolean ended;
+        lock.lock();
+        try {
+            if (!alive[player]) {
+                return;
+            }
+            alive[player] = false;
+            ended = --aliveCount <= 1 && !over;
+            over |= ended;
+            for (int i = 0; i < alive.length && ended; i++) {
+                if (alive[i]) {
+                    winner = i;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        ByteBuffer out = ByteBuffer.allocate(4);
+        VersusProtocol.begin(out, VersusProtocol.PLAYER_OUT);
+        out.put((byte) player);
+        VersusProtocol.end(out);
+        sendToOthers(player, out);
+        if (ended) {
+            ByteBuffer end = ByteBuffer.allocate(4);
+            VersusProtocol.begin(end, VersusProtocol.MATCH_OVER);
+            end.put((byte) (winner >= 0 ? winner : VersusProtocol.NO_WINNER));
+            VersusProtocol.end(end);
+            for (Session session : players) {
+                session.send(end);
+            }
+            server.finished(this);
+        }
+    }
+
+    private void sendToOthers(int from, ByteBuffer frame) {
+        for (int i = 0; i < players.length; i++) {
+            if (i != from) {
+                players[i].send(frame);
+            }
+        }
+    }
+}
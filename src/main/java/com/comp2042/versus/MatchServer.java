@@ -0,0 +1,172 @@
+package com.comp2042.versus;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Small match server for versus mode.
+ * <p>
+ * Clients connect over TCP and ask for a match of a given number of players; the
+ * server groups them in order of arrival and starts the match once it is full.
+ * It runs no game logic: each client plays its own {@link com.comp2042.GameEngine}
+ * and the server only relays board deltas and scores and routes attacks, see
+ * {@link VersusProtocol} for the messages.
+ * </p>
+ * <p>
+ * Every connection is served by its own virtual thread doing plain blocking NIO
+ * reads and writes, so hundreds of matches cost hundreds of cheap threads
+ * rather than a selector loop. Run it on its own with
+ * {@code java com.comp2042.versus.MatchServer [port]}, or embed it, e.g. on port 0
+ * for a test on one machine.
+ * </p>
+ */
+public class MatchServer implements Closeable {
+
+    /** Port the match server listens on by default. */
+    public static final int DEFAULT_PORT = 7420;
+
+    private final ServerSocketChannel server;
+    private final ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+    private final ReentrantLock lobbyLock = new ReentrantLock();
+    private final Map<Long, List<Session>> lobby = new HashMap<>();
+    private final AtomicInteger matchIds = new AtomicInteger();
+    private final AtomicInteger activeMatches = new AtomicInteger();
+    private volatile boolean closed;
+
+    private MatchServer(ServerSocketChannel server) {
+        this.server = server;
+    }
+
+    /**
+     * Starts a server accepting connections on a virtual thread.
+     *
+     * @param address the address to listen on, port 0 for any free port
+     * @return the running server
+     * @throws IOException if the address cannot be bound
+     */
+    public static MatchServer start(InetSocketAddress address) throws IOException {
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        channel.bind(address, 512);
+        MatchServer matchServer = new MatchServer(channel);
+        matchServer.threads.submit(matchServer::accept);
+        return matchServer;
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return the local port
+     */
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * Returns the number of matches being played.
+     *
+     * @return the number of started matches that are not over
+     */
+    public int getActiveMatches() {
+        return activeMatches.get();
+    }
+
+    /**
+     * Stops accepting connections and drops every client.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            server.close();
+        } catch (IOException e) {
+            // already closed
+        }
+        threads.shutdownNow();
+    }
+
+    private void accept() {
+        while (!closed) {
+            try {
+                SocketChannel channel = server.accept();
+                channel.socket().setTcpNoDelay(true);
+                threads.submit(new Session(this, channel));
+            } catch (IOException e) {
+                if (!closed) {
+                    System.err.println("Match server stopped accepting: " + e.getMessage());
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Puts a client in the lobby for matches of the given size and board size,
+     * starting the match once it is full.
+     */
+    void enqueue(Session session, int players, int rows, int columns) {
+        Session[] match = null;
+        lobbyLock.lock();
+        try {
+            List<Session> waiting = lobby.computeIfAbsent(
+                    (long) players << 48 | (long) rows << 24 | columns, key -> new ArrayList<>());
+            waiting.add(session);
+            if (waiting.size() == players) {
+                match = waiting.toArray(new Session[0]);
+                waiting.clear();
+            }
+        } finally {
+            lobbyLock.unlock();
+        }
+        if (match != null) {
+            activeMatches.incrementAndGet();
+            new Match(this, matchIds.incrementAndGet(), match, columns).start();
+        }
+    }
+
+    /**
+     * Takes a client out of the lobby, if it was still waiting for a match.
+     */
+    void leave(Session session) {
+        lobbyLock.lock();
+        try {
+            for (List<Session> waiting : lobby.values()) {
+                waiting.remove(session);
+            }
+        } finally {
+            lobbyLock.unlock();
+        }
+    }
+
+    /**
+     * Called by a match once it is over.
+     */
+    void finished(Match match) {
+        activeMatches.decrementAndGet();
+    }
+
+    /**
+     * Runs a server until the process is stopped.
+     *
+     * @param args the port to listen on, {@value #DEFAULT_PORT} if omitted
+     * @throws IOException if the port cannot be bound
+     * @throws InterruptedException if interrupted while serving
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        try (MatchServer matchServer = start(new InetSocketAddress(port))) {
+            System.out.println("Match server listening on port " + matchServer.getPort());
+            Thread.currentThread().join();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.comp2042.versus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One client connection of the {@link MatchServer}, served by its own virtual thread.
+ * <p>
+ * The thread blocks on reads and hands each message to the {@link Match} the
+ * player is in. Any thread may send to the client; sends are serialized with a
+ * {@link ReentrantLock} rather than {@code synchronized}, so a virtual thread
+ * blocked in a write does not pin its carrier.
+ * </p>
+ */
+final class Session implements Runnable {
+
+    private final MatchServer server;
+    private final SocketChannel channel;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Match match;
+    private int player;
+
+    Session(MatchServer server, SocketChannel channel) {
+        this.server = server;
+        this.channel = channel;
+    }
+
+    /**
+     * Puts the session into a match.
+     *
+     * @param match  the match
+     * @param player the index of the player in the match
+     */
+    void join(Match match, int player) {
+        this.player = player;
+        this.match = match;
+    }
+
+    @Override
+    public void run() {
+        ByteBuffer buffer = ByteBuffer.allocate(VersusProtocol.MAX_FRAME);
+        try {
+            ByteBuffer frame = VersusProtocol.read(channel, buffer);
+            if (frame.get() != VersusProtocol.JOIN) {
+                return;
+            }
+            int players = frame.get();
+            int rows = VersusProtocol.getVarInt(frame);
+            int columns = VersusProtocol.getVarInt(frame);
+            if (players < 2 || players > VersusProtocol.MAX_PLAYERS
+                    || !VersusProtocol.isSupported(rows, columns)) {
+                return;
+            }
+            server.enqueue(this, players, rows, columns);
+            while (true) {
+                frame = VersusProtocol.read(channel, buffer);
+                byte type = frame.get();
+                Match current = match;
+                if (current == null) {
+                    // Nothing to do before the match starts
+                    continue;
+                }
+                switch (type) {
+                    case VersusProtocol.ROWS -> current.relay(player, VersusProtocol.OPPONENT_ROWS, frame);
+                    case VersusProtocol.SCORE -> current.relay(player, VersusProtocol.OPPONENT_SCORE, frame);
+                    case VersusProtocol.ATTACK -> current.attack(player, VersusProtocol.getVarInt(frame));
+                    case VersusProtocol.TOPPED_OUT -> current.toppedOut(player);
+                    default -> throw new IOException("Unknown message type " + type);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // The client left or sent garbage; either way it is out
+        } finally {
+            server.leave(this);
+            if (match != null) {
+                match.toppedOut(player);
+            }
+            close();
+        }
+    }
+
+    /**
+     * Sends a frame to the client, blocking until it is written. A failed send
+     * closes the connection, which ends the session thread.
+     *
+     * @param frame the frame; its position is left unchanged
+     */
+    void send(ByteBuffer frame) {
+        writeLock.lock();
+        try {
+            VersusProtocol.write(channel, frame.duplicate());
+        } catch (IOException e) {
+            close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Closes the connection.
+     */
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // already gone
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.comp2042.versus;
+
+import com.comp2042.BitBoard;
+import com.comp2042.GameEngine;
+import com.comp2042.bot.HeuristicWeights;
+import com.comp2042.bot.PlacementBot;
+import com.comp2042.logic.bricks.SeededBrickGenerator;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays versus matches between {@link PlacementBot}s over a {@link MatchServer},
+ * all on one machine, to exercise the protocol and load the server.
+ * <p>
+ * {@code java com.comp2042.versus.VersusBots [matches] [players] [host:port]} starts
+ * the given number of matches at once, each bot on its own virtual thread with
+ * its own connection, against an embedded server on a free port unless an
+ * address is given. A bot plays one brick every {@link #MOVE_MILLIS} ms and
+ * concedes after {@link #MAX_PIECES} bricks, so every match ends.
+ * </p>
+ */
+public final class VersusBots {
+
+    private static final int ROWS = 25;
+    private static final int COLUMNS = 10;
+
+    /** Pause between two bricks of a bot. */
+    private static final long MOVE_MILLIS = 10;
+
+    /** Bricks after which a bot concedes. */
+    private static final int MAX_PIECES = 400;
+
+    private static final AtomicInteger FINISHED = new AtomicInteger();
+    private static final AtomicInteger WINS = new AtomicInteger();
+    private static final AtomicLong PIECES = new AtomicLong();
+    private static final AtomicLong GARBAGE = new AtomicLong();
+    private static final AtomicInteger FAILED = new AtomicInteger();
+
+    // Private constructor to prevent instantiation
+    private VersusBots() { }
+
+    /**
+     * Runs the matches and prints a summary.
+     *
+     * @param args the number of matches (default 100), of players per match
+     *             (default 2) and optionally the server as host:port
+     * @throws IOException if the embedded server cannot start
+     * @throws InterruptedException if interrupted while waiting for the matches
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int matches = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        MatchServer server = null;
+        InetSocketAddress address;
+        if (args.length > 2) {
+            String[] hostPort = args[2].split(":");
+            address = new InetSocketAddress(hostPort[0], Integer.parseInt(hostPort[1]));
+        } else {
+            server = MatchServer.start(new InetSocketAddress("127.0.0.1", 0));
+            address = new InetSocketAddress("127.0.0.1", server.getPort());
+        }
+
+        long start = System.nanoTime();
+        Thread[] bots = new Thread[matches * players];
+        for (int i = 0; i < bots.length; i++) {
+            bots[i] = Thread.ofVirtual().name("bot-" + i).start(() -> play(address, players));
+        }
+        for (Thread bot : bots) {
+            bot.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (server != null) {
+            server.close();
+        }
+        System.out.printf("%d bots in %d matches of %d: %d finished, %d won, %d failed in %.1f s%n",
+                bots.length, matches, players, FINISHED.get(), WINS.get(), FAILED.get(), seconds);
+        System.out.printf("%.1f bricks and %.1f garbage rows received per bot%n",
+                (double) PIECES.get() / bots.length, (double) GARBAGE.get() / bots.length);
+    }
+
+    /**
+     * Plays one bot until its match is over.
+     */
+    private static void play(InetSocketAddress address, int players) {
+        BlockingQueue<Runnable> inbox = new LinkedBlockingQueue<>();
+        BotState state = new BotState();
+        try (VersusClient client = VersusClient.connect(address, players, ROWS, COLUMNS, state, inbox::add)) {
+            client.start();
+            while (state.seed == null && !state.over) {
+                inbox.take().run();
+            }
+            if (state.over) {
+                FAILED.incrementAndGet();
+                return;
+            }
+            GameEngine engine = new GameEngine(new BitBoard(ROWS, COLUMNS, new SeededBrickGenerator(state.seed)));
+            state.engine = engine;
+            client.attach(engine);
+            engine.addListener(client);
+            engine.start();
+            PlacementBot bot = new PlacementBot(HeuristicWeights.DEFAULT, 1, false, 0, ForkJoinPool.commonPool());
+            int pieces = 0;
+            while (!state.over && !engine.isGameOver()) {
+                for (Runnable message; (message = inbox.poll()) != null; ) {
+                    message.run();
+                }
+                if (pieces == MAX_PIECES) {
+                    client.toppedOut();
+                    break;
+                }
+                bot.playMove(engine);
+                pieces++;
+                Thread.sleep(MOVE_MILLIS);
+            }
+            while (!state.over) {
+                Runnable message = inbox.poll(10, TimeUnit.SECONDS);
+                if (message == null) {
+                    FAILED.incrementAndGet();
+                    return;
+                }
+                message.run();
+            }
+            PIECES.addAndGet(pieces);
+            FINISHED.incrementAndGet();
+            if (state.won) {
+                WINS.incrementAndGet();
+            }
+        } catch (IOException e) {
+            FAILED.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * What a bot learns from the server, touched only by its own thread.
+     */
+    private static final class BotState implements VersusClient.Listener {
+        private Long seed;
+        private int player;
+        private GameEngine engine;
+        private boolean over;
+        private boolean won;
+
+        @Override
+        public void onMatchStarted(int player, int players, long seed) {
+            this.player = player;
+            this.seed = seed;
+        }
+
+        @Override
+        public void onGarbage(int rows, int hole, int from) {
+            GARBAGE.addAndGet(rows);
+            if (engine != null) {
+                engine.receiveGarbage(rows, hole);
+            }
+        }
+
+        @Override
+        public void onMatchOver(int winner) {
+            over = true;
+            won = winner == player;
+        }
+
+        @Override
+        public void onDisconnected(IOException error) {
+            over = true;
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.comp2042.versus;
+
+import com.comp2042.ClearRow;
+import com.comp2042.GameEngine;
+import com.comp2042.GameEventListener;
+import com.comp2042.MatrixOperations;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Connects one local game to a {@link MatchServer}.
+ * <p>
+ * {@link #connect} joins the lobby; {@link #start()} then begins receiving, so the
+ * caller can publish the client before the first message arrives.
+ * </p>
+ * <p>
+ * Registered on the {@link GameEngine} of the local game, the client sends the
+ * board rows changed by each lock or garbage, the score, the attacks and the top
+ * out; sends are encoded on the engine thread and written by a virtual thread,
+ * so the engine never waits for the network. A second virtual thread reads the
+ * server's messages and hands them to a {@link Listener} through the given
+ * executor, e.g. {@code Platform::runLater}, so garbage reaches the engine on
+ * the thread that drives it.
+ * </p>
+ */
+public class VersusClient implements GameEventListener, Closeable {
+
+    /**
+     * Receives the messages of the match. All methods have empty defaults.
+     */
+    public interface Listener {
+
+        /**
+         * Called when the match starts. Play with a
+         * {@link com.comp2042.logic.bricks.SeededBrickGenerator} on the given seed,
+         * so every player gets the same bricks.
+         *
+         * @param player  the index of the local player
+         * @param players the number of players
+         * @param seed    the seed of the brick sequence
+         */
+        default void onMatchStarted(int player, int players, long seed) { }
+
+        /**
+         * Called when an opponent attacks the local player; pass it on to
+         * {@link GameEngine#receiveGarbage(int, int)}.
+         *
+         * @param rows the number of garbage rows
+         * @param hole the column left empty
+         * @param from the attacker
+         */
+        default void onGarbage(int rows, int hole, int from) { }
+
+        /**
+         * Called when the board of an opponent changed.
+         *
+         * @param player the opponent
+         * @param board  a copy of the opponent's board, owned by the listener
+         */
+        default void onOpponentBoard(int player, int[][] board) { }
+
+        /**
+         * Called when the score of an opponent changed.
+         *
+         * @param player the opponent
+         * @param score  the score
+         * @param lines  the number of cleared lines
+         */
+        default void onOpponentScore(int player, int score, int lines) { }
+
+        /**
+         * Called when an opponent topped out or left.
+         *
+         * @param player the opponent
+         */
+        default void onPlayerOut(int player) { }
+
+        /**
+         * Called when the match is over.
+         *
+         * @param winner the last player standing, or -1 if nobody is left
+         */
+        default void onMatchOver(int winner) { }
+
+        /**
+         * Called when the connection to the server is lost before {@link #close()}.
+         *
+         * @param error the cause
+         */
+        default void onDisconnected(IOException error) { }
+    }
+
+    private final SocketChannel channel;
+    private volatile Listener listener;
+    private final Executor callbacks;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(
+            Thread.ofVirtual().name("versus-writer").factory());
+    private final int[][] sent;
+    private int[][][] opponents;
+    private GameEngine engine;
+    private volatile boolean closed;
+
+    private VersusClient(SocketChannel channel, int rows, int columns, Listener listener, Executor callbacks) {
+        this.channel = channel;
+        this.listener = listener;
+        this.callbacks = callbacks;
+        this.sent = new int[rows][columns];
+    }
+
+    /**
+     * Connects to a server and asks for a match.
+     *
+     * @param address   the server
+     * @param players   the number of players of the match, 2 to 8
+     * @param rows      the number of rows of the local board
+     * @param columns   the number of columns of the local board
+     * @param listener  receives the messages of the match
+     * @param callbacks runs the listener calls, in order
+     * @return the connected client
+     * @throws IOException if the server cannot be reached
+     * @throws IllegalArgumentException if the player count or board size is not supported
+     */
+    public static VersusClient connect(InetSocketAddress address, int players, int rows, int columns,
+                                       Listener listener, Executor callbacks) throws IOException {
+        if (players < 2 || players > VersusProtocol.MAX_PLAYERS) {
+            throw new IllegalArgumentException("A match has 2 to " + VersusProtocol.MAX_PLAYERS + " players");
+        }
+        if (!VersusProtocol.isSupported(rows, columns)) {
+            throw new IllegalArgumentException("Versus boards have at most " + VersusProtocol.MAX_ROWS
+                    + " rows and " + VersusProtocol.MAX_COLUMNS + " columns, not " + rows + "x" + columns);
+        }
+        SocketChannel channel = SocketChannel.open(address);
+        channel.socket().setTcpNoDelay(true);
+        VersusClient client = new VersusClient(channel, rows, columns, listener, callbacks);
+        ByteBuffer join = ByteBuffer.allocate(16);
+        VersusProtocol.begin(join, VersusProtocol.JOIN);
+        join.put((byte) players);
+        VersusProtocol.putVarInt(join, rows);
+        VersusProtocol.putVarInt(join, columns);
+        VersusProtocol.end(join);
+        VersusProtocol.write(channel, join);
+        return client;
+    }
+
+    /**
+     * Starts receiving the messages of the match on a virtual thread.
+     */
+    public void start() {
+        Thread.ofVirtual().name("versus-reader").start(this::read);
+    }
+
+    /**
+     * Replaces the listener, e.g. once the local game has been built. Takes effect
+     * for the listener calls run by the callback executor from then on.
+     *
+     * @param listener the new listener
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Starts sending the game of an engine. Register the client with
+     * {@link GameEngine#addListener} as well.
+     *
+     * @param engine the engine of the local game, on a board of the size given to {@link #connect}
+     */
+    public void attach(GameEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Leaves the match and closes the connection.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        writer.shutdown();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // already closed
+        }
+    }
+
+    @Override
+    public void onBrickLocked(ClearRow clearRow) {
+        sendRows();
+    }
+
+    @Override
+    public void onGarbageAdded(int rows) {
+        sendRows();
+    }
+
+    @Override
+    public void onGarbageSent(int rows) {
+        ByteBuffer frame = ByteBuffer.allocate(8);
+        VersusProtocol.begin(frame, VersusProtocol.ATTACK);
+        VersusProtocol.putVarInt(frame, rows);
+        send(frame);
+    }
+
+    @Override
+    public void onScoreChanged(int score, int lines) {
+        ByteBuffer frame = ByteBuffer.allocate(16);
+        VersusProtocol.begin(frame, VersusProtocol.SCORE);
+        VersusProtocol.putVarInt(frame, score);
+        VersusProtocol.putVarInt(frame, lines);
+        send(frame);
+    }
+
+    @Override
+    public void onGameOver() {
+        sendRows();
+        toppedOut();
+    }
+
+    /**
+     * Tells the server the local player is out, e.g. to concede.
+     */
+    public void toppedOut() {
+        ByteBuffer frame = ByteBuffer.allocate(4);
+        VersusProtocol.begin(frame, VersusProtocol.TOPPED_OUT);
+        send(frame);
+    }
+
+    private void sendRows() {
+        if (engine == null) {
+            return;
+        }
+        int[][] board = engine.getBoard().getBoardMatrix();
+        while (true) {
+            // Rows that do not fit go in the next frame, so the relayed frame stays within MAX_FRAME
+            ByteBuffer frame = ByteBuffer.allocate(2 + VersusProtocol.MAX_RELAYED_FRAME);
+            VersusProtocol.begin(frame, VersusProtocol.ROWS);
+            if (VersusProtocol.putRows(board, sent, frame) == 0) {
+                return;
+            }
+            send(frame);
+        }
+    }
+
+    private void send(ByteBuffer frame) {
+        if (closed) {
+            return;
+        }
+        VersusProtocol.end(frame);
+        writer.execute(() -> {
+            try {
+                VersusProtocol.write(channel, frame);
+            } catch (IOException e) {
+                disconnected(e);
+            }
+        });
+    }
+
+    private void read() {
+        ByteBuffer buffer = ByteBuffer.allocate(VersusProtocol.MAX_FRAME);
+        try {
+            while (true) {
+                ByteBuffer frame = VersusProtocol.read(channel, buffer);
+                dispatch(frame.get(), frame);
+            }
+        } catch (IOException e) {
+            disconnected(e);
+        } catch (RuntimeException e) {
+            disconnected(new IOException("Bad message from server", e));
+        }
+    }
+
+    private void dispatch(byte type, ByteBuffer frame) throws IOException {
+        switch (type) {
+            case VersusProtocol.START -> {
+                VersusProtocol.getVarInt(frame);
+                int player = frame.get();
+                int players = frame.get();
+                long seed = frame.getLong();
+                opponents = new int[players][sent.length][sent[0].length];
+                callbacks.execute(() -> listener.onMatchStarted(player, players, seed));
+            }
+            case VersusProtocol.OPPONENT_ROWS -> {
+                int player = frame.get();
+                VersusProtocol.applyRows(frame, opponents[player]);
+                int[][] board = MatrixOperations.copy(opponents[player]);
+                callbacks.execute(() -> listener.onOpponentBoard(player, board));
+            }
+            case VersusProtocol.GARBAGE -> {
+                int rows = VersusProtocol.getVarInt(frame);
+                int hole = VersusProtocol.getVarInt(frame);
+                int from = frame.get();
+                if (hole < 0 || hole >= sent[0].length) {
+                    throw new IOException("Garbage hole " + hole + " out of range");
+                }
+                callbacks.execute(() -> listener.onGarbage(rows, hole, from));
+            }
+            case VersusProtocol.OPPONENT_SCORE -> {
+                int player = frame.get();
+                int score = VersusProtocol.getVarInt(frame);
+                int lines = VersusProtocol.getVarInt(frame);
+                callbacks.execute(() -> listener.onOpponentScore(player, score, lines));
+            }
+            case VersusProtocol.PLAYER_OUT -> {
+                int player = frame.get();
+                callbacks.execute(() -> listener.onPlayerOut(player));
+            }
+            case VersusProtocol.MATCH_OVER -> {
+                int winner = frame.get() & 0xFF;
+                callbacks.execute(() -> listener.onMatchOver(winner == VersusProtocol.NO_WINNER ? -1 : winner));
+            }
+            default -> throw new IOException("Unknown message type " + type);
+        }
+    }
+
+    private void disconnected(IOException error) {
+        if (!closed) {
+            closed = true;
+            writer.shutdown();
+            callbacks.execute(() -> listener.onDisconnected(error));
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.comp2042.versus;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.util.Arrays;
+
+/**
+ * Wire format of versus mode, shared by {@link MatchServer} and {@link VersusClient}.
+ * <p>
+ * Every message is a frame: a 2-byte big-endian length, then a 1-byte type and
+ * its payload. Counts and sizes are varints, so most frames take a few bytes.
+ * </p>
+ * <pre>
+ *   client to server
+ *   JOIN            players 1 byte, rows varint, columns varint
+ *   ROWS            board delta, relayed as it is
+ *   ATTACK          rows varint
+ *   SCORE           score varint, lines varint
+ *   TOPPED_OUT
+ *
+ *   server to client
+ *   START           match varint, player 1 byte, players 1 byte, seed 8 bytes
+ *   OPPONENT_ROWS   player 1 byte, board delta
+ *   GARBAGE         rows varint, hole varint, from 1 byte
+ *   OPPONENT_SCORE  player 1 byte, score varint, lines varint
+ *   PLAYER_OUT      player 1 byte
+ *   MATCH_OVER      winner 1 byte, {@link #NO_WINNER} if nobody is left
+ * </pre>
+ * <p>
+ * Boards never travel whole. A board delta lists the rows that changed since the
+ * last delta: the number of columns as a varint and of rows as 2 bytes, then for each row its
+ * index as a varint and its cells packed two to a byte, one colour code per nibble.
+ * A lock usually changes one to four rows, i.e. about 25 bytes on a 10-column board.
+ * A delta too long for one frame is sent as several ROWS frames, each a delta of its
+ * own, kept {@link #RELAY_PREFIX} byte short of {@link #MAX_FRAME} so that the server
+ * can prefix the sender when relaying it. Boards are limited to {@link #MAX_ROWS} rows
+ * and {@link #MAX_COLUMNS} columns, so that any single row fits in a frame.
+ * </p>
+ */
+final class VersusProtocol {
+
+    /** Largest frame, type and payload, a peer accepts. */
+    static final int MAX_FRAME = 4096;
+
+    /** Bytes the server adds to a relayed frame: the player it comes from. */
+    static final int RELAY_PREFIX = 1;
+
+    /** Largest frame, type and payload, a client sends if the server relays it. */
+    static final int MAX_RELAYED_FRAME = MAX_FRAME - RELAY_PREFIX;
+
+    /** Most rows of a versus board. */
+    static final int MAX_ROWS = 10_000;
+
+    /** Most columns of a versus board; a row of them takes 512 bytes. */
+    static final int MAX_COLUMNS = 1024;
+
+    static final byte JOIN = 1;
+    static final byte ROWS = 2;
+    static final byte ATTACK = 3;
+    static final byte SCORE = 4;
+    static final byte TOPPED_OUT = 5;
+
+    static final byte START = 0x11;
+    static final byte OPPONENT_ROWS = 0x12;
+    static final byte GARBAGE = 0x13;
+    static final byte OPPONENT_SCORE = 0x14;
+    static final byte PLAYER_OUT = 0x15;
+    static final byte MATCH_OVER = 0x16;
+
+    /** Winner of a match nobody survived. */
+    static final int NO_WINNER = 0xFF;
+
+    /** Most players in one match. */
+    static final int MAX_PLAYERS = 8;
+
+    // Private constructor to prevent instantiation
+    private VersusProtocol() { }
+
+    /**
+     * Returns whether boards of a size can play versus.
+     *
+     * @param rows    the number of rows
+     * @param columns the number of columns
+     * @return true if every row of such a board fits in one ROWS frame
+     */
+    static boolean isSupported(int rows, int columns) {
+        return rows >= 1 && rows <= MAX_ROWS && columns >= 1 && columns <= MAX_COLUMNS;
+    }
+
+    /**
+     * Starts a frame: reserves the length and writes the type.
+     *
+     * @param buffer the buffer to write to, cleared by the caller
+     * @param type   the message type
+     */
+    static void begin(ByteBuffer buffer, byte type) {
+        buffer.putShort((short) 0);
+        buffer.put(type);
+    }
+
+    /**
+     * Ends a frame started with {@link #begin}: fills in its length and flips the buffer.
+     *
+     * @param buffer the buffer holding the frame
+     */
+    static void end(ByteBuffer buffer) {
+        buffer.putShort(0, (short) (buffer.position() - 2));
+        buffer.flip();
+    }
+
+    /**
+     * Reads the next frame with a blocking read.
+     *
+     * @param channel a blocking channel
+     * @param buffer  the buffer to read into, of at least {@link #MAX_FRAME} bytes
+     * @return the buffer, positioned at the type byte and limited to the frame
+     * @throws IOException if the channel fails, ends or sends an oversized frame
+     */
+    static ByteBuffer read(ByteChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.clear().limit(2);
+        fill(channel, buffer);
+        int length = buffer.getShort(0) & 0xFFFF;
+        if (length == 0 || length > MAX_FRAME) {
+            throw new IOException("Bad frame length " + length);
+        }
+        buffer.clear().limit(length);
+        fill(channel, buffer);
+        return buffer.flip();
+    }
+
+    /**
+     * Writes a whole frame with blocking writes.
+     *
+     * @param channel a blocking channel
+     * @param frame   the frame, from its length to the end of its payload
+     * @throws IOException if the channel fails
+     */
+    static void write(ByteChannel channel, ByteBuffer frame) throws IOException {
+        while (frame.hasRemaining()) {
+            channel.write(frame);
+        }
+    }
+
+    private static void fill(ByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Connection closed");
+            }
+        }
+    }
+
+    /**
+     * Writes the rows of a board that differ from the copy sent last time, and
+     * updates that copy. Stops at the first changed row that does not fit in the
+     * buffer; that row and the ones after it are still unsent, so calling again
+     * with a new buffer writes the next part of the delta.
+     *
+     * @param board the board matrix
+     * @param sent  the board as sent so far, same size, all zero before the first delta
+     * @param out   the buffer to write the delta to, limited to the largest frame to send
+     * @return the number of rows written, 0 once nothing is left to send
+     */
+    static int putRows(int[][] board, int[][] sent, ByteBuffer out) {
+        int columns = board[0].length;
+        int rowBytes = (columns + 1) / 2;
+        putVarInt(out, columns);
+        int countAt = out.position();
+        out.putShort((short) 0);
+        int count = 0;
+        for (int row = 0; row < board.length; row++) {
+            if (Arrays.equals(board[row], sent[row])) {
+                continue;
+            }
+            if (out.remaining() < varIntSize(row) + rowBytes) {
+                break;
+            }
+            putVarInt(out, row);
+            for (int column = 0; column < columns; column += 2) {
+                int high = board[row][column] & 0xF;
+                int low = column + 1 < columns ? board[row][column + 1] & 0xF : 0;
+                out.put((byte) (high << 4 | low));
+            }
+            System.arraycopy(board[row], 0, sent[row], 0, columns);
+            count++;
+        }
+        out.putShort(countAt, (short) count);
+        return count;
+    }
+
+    /**
+     * Applies a delta written by {@link #putRows} to a copy of the sender's board.
+     *
+     * @param in    the buffer positioned at the delta
+     * @param board the copy to update
+     * @throws IllegalArgumentException if the delta does not fit the board
+     */
+    static void applyRows(ByteBuffer in, int[][] board) {
+        int columns = getVarInt(in);
+        int count = in.getShort() & 0xFFFF;
+        if (columns != board[0].length) {
+            throw new IllegalArgumentException("Board delta does not fit the board");
+        }
+        for (int i = 0; i < count; i++) {
+            int row = getVarInt(in);
+            if (row < 0 || row >= board.length) {
+                throw new IllegalArgumentException("Board delta row " + row + " out of range");
+            }
+            for (int column = 0; column < columns; column += 2) {
+                int cells = in.get() & 0xFF;
+                board[row][column] = cells >>> 4;
+                if (column + 1 < columns) {
+                    board[row][column + 1] = cells & 0xF;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes an unsigned value as a little-endian base-128 varint.
+     *
+     * @param buffer the buffer to write to
+     * @param value  the value, treated as unsigned
+     */
+    static void putVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Returns the number of bytes {@link #putVarInt} writes for a value.
+     *
+     * @param value the value, treated as unsigned
+     * @return 1 to 5
+     */
+    static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Reads a varint written by {@link #putVarInt}.
+     *
+     * @param buffer the buffer to read from
+     * @return the value
+     * @throws IllegalArgumentException if the varint is longer than 32 bits
+     */
+    static int getVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in versus message");
+    }
+}
@@ -0,0 +1,122 @@
+package com.comp2042;
+
+import com.comp2042.logic.bricks.SeededBrickGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Plays the same random moves on a {@link SimpleBoard} and a {@link BitBoard}
+ * with the same bricks and checks that they never disagree.
+ */
+class BoardEquivalenceTest {
+
+    private static final int SEEDS = 300;
+    private static final int STEPS = 600;
+
+    @Test
+    void defaultBoard() {
+        playAll(25, 10);
+    }
+
+    @Test
+    void largeBoard() {
+        playAll(40, 20);
+    }
+
+    @Test
+    void tallBoard() {
+        playAll(100, 10);
+    }
+
+    @Test
+    void widestBitBoard() {
+        playAll(22, BitBoard.MAX_COLUMNS);
+    }
+
+    private static void playAll(int rows, int columns) {
+        for (long seed = 0; seed < SEEDS; seed++) {
+            play(rows, columns, seed);
+        }
+    }
+
+    private static void play(int rows, int columns, long seed) {
+        Board simple = new SimpleBoard(rows, columns, new SeededBrickGenerator(seed));
+        Board bit = new BitBoard(rows, columns, new SeededBrickGenerator(seed));
+        simple.newGame();
+        bit.newGame();
+        simple.createNewBrick();
+        bit.createNewBrick();
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int step = 0; step < STEPS; step++) {
+            String at = rows + "x" + columns + " seed " + seed + " step " + step;
+            int move = random.nextInt(16);
+            switch (move) {
+                case 0 -> assertEquals(simple.moveBrickLeft(), bit.moveBrickLeft(), at + " left");
+                case 1 -> assertEquals(simple.moveBrickRight(), bit.moveBrickRight(), at + " right");
+                case 2, 3 -> assertEquals(simple.rotateLeftBrick(), bit.rotateLeftBrick(), at + " rotate");
+                case 4 -> assertHoldEquals(simple.holdBrick(), bit.holdBrick(), at);
+                case 5 -> {
+                    int garbage = 1 + random.nextInt(3);
+                    int hole = random.nextInt(columns);
+                    assertEquals(simple.addGarbage(garbage, hole), bit.addGarbage(garbage, hole), at + " garbage");
+                }
+                case 6, 7 -> {
+                    assertEquals(simple.dropBrick(), bit.dropBrick(), at + " drop");
+                    lock(simple, bit, at);
+                }
+                default -> {
+                    boolean moved = simple.moveBrickDown();
+                    assertEquals(moved, bit.moveBrickDown(), at + " down");
+                    if (!moved) {
+                        lock(simple, bit, at);
+                    }
+                }
+            }
+            assertArrayEquals(simple.getBoardMatrix(), bit.getBoardMatrix(), at + " board");
+            assertViewEquals(simple.getViewData(), bit.getViewData(), at);
+            assertEquals(simple.getDropDistance(), bit.getDropDistance(), at + " drop distance");
+            assertEquals(simple.getScore().getLines(), bit.getScore().getLines(), at + " lines");
+        }
+    }
+
+    private static void lock(Board simple, Board bit, String at) {
+        simple.mergeBrickToBackground();
+        bit.mergeBrickToBackground();
+        ClearRow expected = simple.clearRows();
+        ClearRow actual = bit.clearRows();
+        assertEquals(expected.getLinesRemoved(), actual.getLinesRemoved(), at + " lines removed");
+        assertEquals(expected.getScoreBonus(), actual.getScoreBonus(), at + " bonus");
+        if (expected.getLinesRemoved() > 0) {
+            assertEquals(expected.getFirstRow(), actual.getFirstRow(), at + " first cleared row");
+            assertEquals(expected.getClearedRows(), actual.getClearedRows(), at + " cleared rows");
+        }
+        assertArrayEquals(expected.getNewMatrix(), actual.getNewMatrix(), at + " cleared board");
+        boolean over = simple.createNewBrick();
+        assertEquals(over, bit.createNewBrick(), at + " game over");
+        if (over) {
+            simple.newGame();
+            bit.newGame();
+            simple.createNewBrick();
+            bit.createNewBrick();
+        }
+    }
+
+    private static void assertViewEquals(ViewData expected, ViewData actual, String at) {
+        assertArrayEquals(expected.getBrickData(), actual.getBrickData(), at + " brick");
+        assertEquals(expected.getxPosition(), actual.getxPosition(), at + " x");
+        assertEquals(expected.getyPosition(), actual.getyPosition(), at + " y");
+        assertArrayEquals(expected.getNextBrickData(), actual.getNextBrickData(), at + " next brick");
+    }
+
+    private static void assertHoldEquals(HoldShapeInfo expected, HoldShapeInfo actual, String at) {
+        assertEquals(expected == null, actual == null, at + " hold accepted");
+        if (expected != null) {
+            assertArrayEquals(expected.getShape(), actual.getShape(), at + " held shape");
+            assertEquals(expected.getColorCode(), actual.getColorCode(), at + " held colour");
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.comp2042;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UiEventBusTest {
+
+    @Test
+    void reopeningScopesDoesNotLeakSubscribers() {
+        UiEventBus bus = new UiEventBus();
+        UiEventBus.Scope scope = null;
+        for (int game = 0; game < 100; game++) {
+            // What a view does on every new game: drop the old subscriptions, then subscribe again
+            if (scope != null) {
+                scope.close();
+            }
+            scope = bus.openScope()
+                    .subscribe(UiEventBus.SCORE, score -> { })
+                    .subscribe(UiEventBus.LINES, lines -> { })
+                    .subscribe(UiEventBus.HOLD, hold -> { });
+            bus.publish(UiEventBus.SCORE, game);
+            bus.flush();
+            assertEquals(1, bus.getSubscriberCount(UiEventBus.SCORE));
+            assertEquals(1, bus.getSubscriberCount(UiEventBus.LINES));
+            assertEquals(1, bus.getSubscriberCount(UiEventBus.HOLD));
+            assertEquals(0, bus.getSubscriberCount(UiEventBus.NEXT));
+        }
+        scope.close();
+        assertEquals(0, bus.getSubscriberCount(UiEventBus.SCORE));
+    }
+
+    @Test
+    void flushDeliversOnlyTheLatestValueOnce() {
+        UiEventBus bus = new UiEventBus();
+        List<Integer> scores = new ArrayList<>();
+        bus.openScope().subscribe(UiEventBus.SCORE, scores::add);
+        bus.publish(UiEventBus.SCORE, 10);
+        bus.publish(UiEventBus.SCORE, 30);
+        bus.flush();
+        bus.flush();
+        assertEquals(List.of(30), scores);
+    }
+
+    @Test
+    void lateSubscriberGetsTheCurrentValue() {
+        UiEventBus bus = new UiEventBus();
+        bus.publish(UiEventBus.LEVEL, 4);
+        bus.flush();
+        List<Integer> levels = new ArrayList<>();
+        bus.openScope().subscribe(UiEventBus.LEVEL, levels::add);
+        bus.flush();
+        assertEquals(List.of(4), levels);
+    }
+
+    @Test
+    void handlerMayCloseItsOwnScope() {
+        UiEventBus bus = new UiEventBus();
+        UiEventBus.Scope scope = bus.openScope();
+        List<Integer> lines = new ArrayList<>();
+        scope.subscribe(UiEventBus.LINES, value -> {
+            lines.add(value);
+            scope.close();
+        });
+        bus.publish(UiEventBus.LINES, 1);
+        bus.flush();
+        bus.publish(UiEventBus.LINES, 2);
+        bus.flush();
+        assertEquals(List.of(1), lines);
+        assertEquals(0, bus.getSubscriberCount(UiEventBus.LINES));
+        assertThrows(IllegalStateException.class, () -> scope.subscribe(UiEventBus.LINES, value -> { }));
+    }
+}
@@ -0,0 +1,195 @@
+package com.comp2042.replay;
+
+import com.comp2042.BitBoard;
+import com.comp2042.EventType;
+import com.comp2042.GameEngine;
+import com.comp2042.GameEventListener;
+import com.comp2042.logic.bricks.RandomizerPolicy;
+import com.comp2042.logic.bricks.SeededBrickGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplayTest {
+
+    /** Offset of the policy byte: magic, version and seed come first. */
+    private static final int POLICY_OFFSET = 4 + 1 + 8;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recordedCommandsReadBackWithTheirTicks() throws IOException {
+        SeededBrickGenerator generator = new SeededBrickGenerator(42, RandomizerPolicy.HISTORY, 3);
+        GameEngine engine = new GameEngine(new BitBoard(25, 10, generator));
+        engine.setLevelGravity(true);
+        engine.setLockDelay(GameEngine.DEFAULT_LOCK_DELAY);
+        engine.start();
+        List<Long> ticks = new ArrayList<>();
+        List<EventType> types = new ArrayList<>();
+        engine.addListener(new GameEventListener() {
+            @Override
+            public void onCommand(long tick, EventType type) {
+                ticks.add(tick);
+                types.add(type);
+            }
+        });
+        Path file = dir.resolve("game.trpl");
+        ReplayRecorder recorder = new ReplayRecorder(file, generator, engine);
+        engine.addListener(recorder);
+
+        Random random = new Random(1);
+        for (int i = 0; i < 2000 && !engine.isGameOver(); i++) {
+            // Gaps of up to a few thousand ticks need varints of several bytes
+            int gap = i % 100 == 0 ? 3000 : random.nextInt(4);
+            for (int t = 0; t < gap && !engine.isGameOver(); t++) {
+                engine.tick();
+            }
+            switch (random.nextInt(6)) {
+                case 0: engine.moveLeft(); break;
+                case 1: engine.moveRight(); break;
+                case 2: engine.rotate(); break;
+                case 3: engine.moveDown(); break;
+                case 4: engine.hold(); break;
+                default: engine.hardDrop(); break;
+            }
+        }
+        recorder.close();
+
+        Replay replay = Replay.read(file);
+        assertEquals(42, replay.getSeed());
+        assertEquals(GameEngine.gravityForLevel(1), replay.getGravityInterval());
+        assertTrue(replay.isLevelGravity());
+        assertEquals(GameEngine.DEFAULT_LOCK_DELAY, replay.getLockDelay());
+        assertEquals(ticks.size(), replay.getCommandCount());
+        for (int i = 0; i < ticks.size(); i++) {
+            assertEquals((long) ticks.get(i), replay.getTick(i), "tick of command " + i);
+            assertEquals(types.get(i), replay.getType(i), "type of command " + i);
+        }
+        assertEquals(engine.getTick(), replay.getEndTick());
+
+        GameEngine replayed = ReplayPlayer.runHeadless(replay);
+        assertArrayEquals(engine.getBoard().getBoardMatrix(), replayed.getBoard().getBoardMatrix());
+        assertEquals(engine.getBoard().getScore().getScore(), replayed.getBoard().getScore().getScore());
+    }
+
+    @Test
+    void olderVersionsReadWithoutFlagsOrLockDelay() throws IOException {
+        Replay v1 = Replay.read(write(header(1, 0, 4, 20, 10, 12, -1, -1), command(5, EventType.LEFT), end(3)));
+        assertFalse(v1.isLevelGravity());
+        assertEquals(0, v1.getLockDelay());
+        assertEquals(12, v1.getGravityInterval());
+        assertEquals(1, v1.getCommandCount());
+        assertEquals(5, v1.getTick(0));
+        assertEquals(EventType.LEFT, v1.getType(0));
+        assertEquals(8, v1.getEndTick());
+
+        Replay v2 = Replay.read(write(header(2, 0, 4, 20, 10, 12, ReplayFormat.FLAG_LEVEL_GRAVITY, -1), end(0)));
+        assertTrue(v2.isLevelGravity());
+        assertEquals(0, v2.getLockDelay());
+
+        Replay v3 = Replay.read(write(header(3, 0, 4, 20, 10, 12, 0, 30), end(0)));
+        assertFalse(v3.isLevelGravity());
+        assertEquals(30, v3.getLockDelay());
+    }
+
+    @Test
+    void unknownVersionIsRejected() {
+        assertThrows(IOException.class, () -> Replay.read(write(header(ReplayFormat.VERSION + 1, 0, 4, 20, 10, 12, 0, 0), end(0))));
+        assertThrows(IOException.class, () -> Replay.read(write(header(0, 0, 4, 20, 10, 12, -1, -1), end(0))));
+    }
+
+    @Test
+    void truncatedFileIsRejected() throws IOException {
+        byte[] whole = Files.readAllBytes(write(header(3, 0, 4, 20, 10, 12, 0, 30), command(300, EventType.ROTATE), end(2)));
+        for (int length = 0; length < whole.length; length++) {
+            Path cut = dir.resolve("cut" + length + ".trpl");
+            Files.write(cut, Arrays.copyOf(whole, length));
+            assertThrows(IOException.class, () -> Replay.read(cut), "file cut to " + length + " bytes");
+        }
+    }
+
+    @Test
+    void corruptPolicyByteIsRejected() throws IOException {
+        for (byte policy : new byte[] {(byte) RandomizerPolicy.values().length, 0x7F, -1}) {
+            byte[] file = Files.readAllBytes(write(header(3, 0, 4, 20, 10, 12, 0, 30), end(0)));
+            file[POLICY_OFFSET] = policy;
+            Path corrupt = dir.resolve("policy" + policy + ".trpl");
+            Files.write(corrupt, file);
+            assertThrows(IOException.class, () -> Replay.read(corrupt), "policy byte " + policy);
+        }
+    }
+
+    @Test
+    void outOfRangeSettingsAreRejected() {
+        long huge = Long.MAX_VALUE;
+        assertThrows(IOException.class, () -> Replay.read(write(header(3, 0, 0, 20, 10, 12, 0, 0), end(0))));
+        assertThrows(IOException.class, () -> Replay.read(write(header(3, 0, 4, 0, 10, 12, 0, 0), end(0))));
+        assertThrows(IOException.class, () -> Replay.read(write(header(3, 0, 4, huge, 10, 12, 0, 0), end(0))));
+        assertThrows(IOException.class, () -> Replay.read(write(header(3, 0, 4, 20, -1, 12, 0, 0), end(0))));
+        assertThrows(IOException.class, () -> Replay.read(write(header(3, 0, 4, 20, 10, 0, 0, 0), end(0))));
+        assertThrows(IOException.class, () -> Replay.read(write(header(3, 0, 4, 20, 10, 12, 0, huge), end(0))));
+    }
+
+    @Test
+    void unknownCommandIsRejected() {
+        assertThrows(IOException.class, () -> Replay.read(write(header(3, 0, 4, 20, 10, 12, 0, 0),
+                ByteBuffer.allocate(1).put(0, (byte) (ReplayFormat.END - 1)), end(0))));
+    }
+
+    /**
+     * Encodes a header; a negative flags or lock value leaves the field out, as older versions do.
+     */
+    private static ByteBuffer header(int version, int policy, long preview, long rows, long columns, long gravity,
+                                     int flags, long lockDelay) {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        buffer.putInt(ReplayFormat.MAGIC).put((byte) version).putLong(7).put((byte) policy);
+        ReplayFormat.putVarLong(buffer, preview);
+        ReplayFormat.putVarLong(buffer, rows);
+        ReplayFormat.putVarLong(buffer, columns);
+        ReplayFormat.putVarLong(buffer, gravity);
+        if (flags >= 0) {
+            buffer.put((byte) flags);
+        }
+        if (lockDelay >= 0) {
+            ReplayFormat.putVarLong(buffer, lockDelay);
+        }
+        return buffer.flip();
+    }
+
+    private static ByteBuffer command(long delta, EventType type) {
+        ByteBuffer buffer = ByteBuffer.allocate(ReplayFormat.MAX_VARINT_BYTES);
+        ReplayFormat.putVarLong(buffer, (delta << ReplayFormat.TYPE_BITS) | type.ordinal());
+        return buffer.flip();
+    }
+
+    private static ByteBuffer end(long delta) {
+        ByteBuffer buffer = ByteBuffer.allocate(ReplayFormat.MAX_VARINT_BYTES);
+        ReplayFormat.putVarLong(buffer, (delta << ReplayFormat.TYPE_BITS) | ReplayFormat.END);
+        return buffer.flip();
+    }
+
+    private Path write(ByteBuffer... parts) throws IOException {
+        Path file = Files.createTempFile(dir, "replay", ".trpl");
+        ByteBuffer all = ByteBuffer.allocate(Arrays.stream(parts).mapToInt(ByteBuffer::remaining).sum());
+        for (ByteBuffer part : parts) {
+            all.put(part);
+        }
+        Files.write(file, all.array());
+        return file;
+    }
+}
@@ -0,0 +1,179 @@
+package com.comp2042.stats;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StatsStoreTest {
+
+    /** Offset of the two commit slots in the header, and the size of each. */
+    private static final int SLOTS_OFFSET = 16;
+    private static final int SLOT_SIZE = 64;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void growsPastItsInitialCapacityAndReopens() throws Exception {
+        Path path = dir.resolve("stats.bin");
+        int games = 150;
+        try (StatsStore store = StatsStore.open(path)) {
+            List<GameRecord> leaderboard = null;
+            for (int i = 0; i < games; i++) {
+                leaderboard = store.append(game(i, score(i))).get();
+            }
+            assertEquals(games, store.size());
+            assertLeaderboard(games, leaderboard);
+        }
+        try (StatsStore store = StatsStore.open(path)) {
+            assertEquals(games, store.size());
+            assertLeaderboard(games, store.getLeaderboard());
+            for (int i = 0; i < games; i++) {
+                GameRecord record = store.read(i);
+                assertEquals(score(i), record.getScore());
+                assertEquals(i, record.getTimestamp());
+                assertEquals("game-" + i + ".rpl", record.getReplay());
+            }
+        }
+    }
+
+    @Test
+    void damagedCommitSlotFallsBackToTheOtherOne() throws Exception {
+        Path path = dir.resolve("stats.bin");
+        try (StatsStore store = StatsStore.open(path)) {
+            for (int i = 0; i < 4; i++) {
+                store.append(game(i, 100 + i)).get();
+            }
+            store.append(game(4, 1000)).get();
+        }
+        // A torn write of the last commit: the best game was written but never committed
+        corrupt(path, newestSlot(path) + 3);
+
+        try (StatsStore store = StatsStore.open(path)) {
+            assertEquals(4, store.size());
+            List<GameRecord> leaderboard = store.getLeaderboard();
+            assertEquals(4, leaderboard.size());
+            assertEquals(103, leaderboard.get(0).getScore());
+
+            // The next game takes the place of the lost one
+            store.append(game(5, 50)).get();
+            assertEquals(5, store.size());
+            assertEquals(50, store.read(4).getScore());
+        }
+        try (StatsStore store = StatsStore.open(path)) {
+            assertEquals(5, store.size());
+            assertEquals(50, store.read(4).getScore());
+        }
+    }
+
+    @Test
+    void halfWrittenRecordIsNotPartOfTheFile() throws Exception {
+        Path path = dir.resolve("stats.bin");
+        try (StatsStore store = StatsStore.open(path)) {
+            for (int i = 0; i < 3; i++) {
+                store.append(game(i, 100 + i)).get();
+            }
+        }
+        // A crash while appending the fourth game, before its commit
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            ByteBuffer half = ByteBuffer.allocate(StatsStore.RECORD_SIZE / 2);
+            while (half.hasRemaining()) {
+                half.put((byte) 0x5A);
+            }
+            channel.write(half.flip(), StatsStore.HEADER_SIZE + 3L * StatsStore.RECORD_SIZE);
+        }
+
+        try (StatsStore store = StatsStore.open(path)) {
+            assertEquals(3, store.size());
+            assertEquals(102, store.getLeaderboard().get(0).getScore());
+            assertThrows(IndexOutOfBoundsException.class, () -> store.read(3));
+            store.append(game(3, 7)).get();
+        }
+        try (StatsStore store = StatsStore.open(path)) {
+            assertEquals(4, store.size());
+            assertEquals(7, store.read(3).getScore());
+        }
+    }
+
+    @Test
+    void bothCommitSlotsDamagedIsRejected() throws Exception {
+        Path path = dir.resolve("stats.bin");
+        try (StatsStore store = StatsStore.open(path)) {
+            store.append(game(0, 10)).get();
+        }
+        corrupt(path, SLOTS_OFFSET);
+        corrupt(path, SLOTS_OFFSET + SLOT_SIZE);
+
+        assertThrows(IOException.class, () -> StatsStore.open(path));
+    }
+
+    @Test
+    void gameWithoutSeedOrReplayReadsBack() throws Exception {
+        Path path = dir.resolve("stats.bin");
+        try (StatsStore store = StatsStore.open(path)) {
+            store.append(new GameRecord(5, 40, 2, 9, 600, null, GameRecord.End.TIME_UP, null)).get();
+        }
+        try (StatsStore store = StatsStore.open(path)) {
+            GameRecord record = store.read(0);
+            assertNull(record.getSeed());
+            assertNull(record.getReplay());
+            assertEquals(GameRecord.End.TIME_UP, record.getEnd());
+            assertEquals(600, record.getTicks());
+        }
+    }
+
+    /** Distinct scores in no particular order. */
+    private static int score(int game) {
+        return game * 7919 % 1009;
+    }
+
+    private static GameRecord game(int index, int score) {
+        return new GameRecord(index, score, index, 10 * index, 60L * index, (long) index,
+                GameRecord.End.TOPPED_OUT, "game-" + index + ".rpl");
+    }
+
+    private static void assertLeaderboard(int games, List<GameRecord> leaderboard) {
+        int[] scores = new int[games];
+        for (int i = 0; i < games; i++) {
+            scores[i] = score(i);
+        }
+        Arrays.sort(scores);
+        assertEquals(StatsStore.LEADERBOARD_SIZE, leaderboard.size());
+        for (int rank = 0; rank < leaderboard.size(); rank++) {
+            assertEquals(scores[games - 1 - rank], leaderboard.get(rank).getScore());
+        }
+    }
+
+    /**
+     * Returns the offset of the commit slot with the highest sequence number.
+     */
+    private static int newestSlot(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(SLOTS_OFFSET + 2 * SLOT_SIZE);
+            channel.read(header, 0);
+            long first = header.getLong(SLOTS_OFFSET);
+            long second = header.getLong(SLOTS_OFFSET + SLOT_SIZE);
+            return first > second ? SLOTS_OFFSET : SLOTS_OFFSET + SLOT_SIZE;
+        }
+    }
+
+    private static void corrupt(Path path, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer cell = ByteBuffer.allocate(1);
+            channel.read(cell, position);
+            cell.put(0, (byte) (cell.get(0) ^ 0xFF));
+            channel.write(cell.flip(), position);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.comp2042.versus;
+
+import com.comp2042.GameEngine;
+import com.comp2042.SimpleBoard;
+import com.comp2042.logic.bricks.SeededBrickGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MatchServerTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private MatchServer server;
+    private InetSocketAddress address;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = MatchServer.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        address = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort());
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void matchStartsRoutesGarbageAndEnds() throws Exception {
+        Player first = new Player();
+        Player second = new Player();
+        try (VersusClient a = first.join(2, 25, 10); VersusClient b = second.join(2, 25, 10)) {
+            int[] startA = first.started.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            int[] startB = second.started.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertNotEquals(startA[0], startB[0]);
+            assertEquals(2, startA[1]);
+            assertEquals(2, startB[1]);
+            assertEquals(first.seed, second.seed);
+            assertEquals(1, server.getActiveMatches());
+
+            a.onGarbageSent(3);
+            int[] garbage = second.garbage.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertNotNull(garbage);
+            assertEquals(3, garbage[0]);
+            assertTrue(garbage[1] >= 0 && garbage[1] < 10);
+            assertEquals(startA[0], garbage[2]);
+
+            a.toppedOut();
+            assertEquals(Integer.valueOf(startA[0]), second.out.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            assertEquals(Integer.valueOf(startB[0]), first.over.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            assertEquals(Integer.valueOf(startB[0]), second.over.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            assertTrue(first.garbage.isEmpty());
+        }
+    }
+
+    @Test
+    void largeBoardReachesTheOpponentWhole() throws Exception {
+        int rows = 400;
+        int columns = 200;
+        Player first = new Player();
+        Player second = new Player();
+        try (VersusClient a = first.join(2, rows, columns); VersusClient b = second.join(2, rows, columns)) {
+            int sender = first.started.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)[0];
+            second.started.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+            SimpleBoard board = new SimpleBoard(rows, columns, new SeededBrickGenerator(first.seed));
+            board.newGame();
+            for (int hole = 0; hole < 300; hole++) {
+                board.addGarbage(1, hole % columns);
+            }
+            a.attach(new GameEngine(board));
+            // One delta of 300 rows of 100 bytes, sent as several frames
+            a.onGarbageAdded(300);
+
+            int[][] expected = board.getBoardMatrix();
+            int[][] received = null;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+            while (!Arrays.deepEquals(expected, received) && System.nanoTime() < deadline) {
+                int[][] update = second.boards.poll(100, TimeUnit.MILLISECONDS);
+                if (update != null) {
+                    received = update;
+                }
+            }
+            assertArrayEquals(expected, received);
+            assertEquals(sender, second.boardsFrom);
+        }
+    }
+
+    @Test
+    void playersAreOnlyMatchedWithTheSameBoardSize() throws Exception {
+        Player small = new Player();
+        Player large = new Player();
+        Player other = new Player();
+        try (VersusClient a = small.join(2, 25, 10); VersusClient b = large.join(2, 40, 20);
+             VersusClient c = other.join(2, 25, 10)) {
+            small.started.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            other.started.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertEquals(small.seed, other.seed);
+            assertFalse(large.started.isDone());
+        }
+    }
+
+    @Test
+    void oversizedBoardIsRejectedBeforeConnecting() {
+        assertThrows(IllegalArgumentException.class,
+                () -> VersusClient.connect(address, 2, 25, VersusProtocol.MAX_COLUMNS + 1,
+                        new VersusClient.Listener() { }, Runnable::run));
+        assertThrows(IllegalArgumentException.class,
+                () -> VersusClient.connect(address, VersusProtocol.MAX_PLAYERS + 1, 25, 10,
+                        new VersusClient.Listener() { }, Runnable::run));
+    }
+
+    @Test
+    void garbageHoleOutsideTheBoardDisconnects() throws Exception {
+        try (ServerSocketChannel fake = ServerSocketChannel.open()) {
+            fake.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            Player player = new Player();
+            InetSocketAddress fakeAddress = new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                    fake.socket().getLocalPort());
+            try (VersusClient client = VersusClient.connect(fakeAddress, 2, 25, 10, player, Runnable::run);
+                 SocketChannel channel = fake.accept()) {
+                client.start();
+                VersusProtocol.read(channel, ByteBuffer.allocate(VersusProtocol.MAX_FRAME));
+
+                ByteBuffer start = ByteBuffer.allocate(32);
+                VersusProtocol.begin(start, VersusProtocol.START);
+                VersusProtocol.putVarInt(start, 0);
+                start.put((byte) 0).put((byte) 2).putLong(7);
+                VersusProtocol.end(start);
+                VersusProtocol.write(channel, start);
+
+                ByteBuffer garbage = ByteBuffer.allocate(16);
+                VersusProtocol.begin(garbage, VersusProtocol.GARBAGE);
+                VersusProtocol.putVarInt(garbage, 2);
+                VersusProtocol.putVarInt(garbage, 10);
+                garbage.put((byte) 1);
+                VersusProtocol.end(garbage);
+                VersusProtocol.write(channel, garbage);
+
+                assertNotNull(player.disconnected.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+                assertTrue(player.garbage.isEmpty());
+            }
+        }
+    }
+
+    /** Records what one client hears from the server. */
+    private final class Player implements VersusClient.Listener {
+        final CompletableFuture<int[]> started = new CompletableFuture<>();
+        final CompletableFuture<Integer> over = new CompletableFuture<>();
+        final CompletableFuture<IOException> disconnected = new CompletableFuture<>();
+        final BlockingQueue<int[]> garbage = new LinkedBlockingQueue<>();
+        final BlockingQueue<Integer> out = new LinkedBlockingQueue<>();
+        final BlockingQueue<int[][]> boards = new LinkedBlockingQueue<>();
+        volatile long seed;
+        volatile int boardsFrom = -1;
+
+        VersusClient join(int players, int rows, int columns) throws IOException {
+            VersusClient client = VersusClient.connect(address, players, rows, columns, this, Runnable::run);
+            client.start();
+            return client;
+        }
+
+        @Override
+        public void onMatchStarted(int player, int players, long seed) {
+            this.seed = seed;
+            started.complete(new int[] {player, players});
+        }
+
+        @Override
+        public void onGarbage(int rows, int hole, int from) {
+            garbage.add(new int[] {rows, hole, from});
+        }
+
+        @Override
+        public void onOpponentBoard(int player, int[][] board) {
+            boardsFrom = player;
+            boards.add(board);
+        }
+
+        @Override
+        public void onPlayerOut(int player) {
+            out.add(player);
+        }
+
+        @Override
+        public void onMatchOver(int winner) {
+            over.complete(winner);
+        }
+
+        @Override
+        public void onDisconnected(IOException error) {
+            disconnected.complete(error);
+        }
+    }
+}
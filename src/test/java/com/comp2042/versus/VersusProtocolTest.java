@@ -0,0 +1,170 @@
+package com.comp2042.versus;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VersusProtocolTest {
+
+    @Test
+    void deltasRebuildTheBoard() {
+        for (int columns : new int[] {10, 7, 1, 56}) {
+            Random random = new Random(columns);
+            int[][] board = new int[25][columns];
+            int[][] sent = new int[25][columns];
+            int[][] copy = new int[25][columns];
+            for (int step = 0; step < 500; step++) {
+                for (int k = 0; k < 4; k++) {
+                    board[random.nextInt(25)][random.nextInt(columns)] = random.nextInt(9);
+                }
+                ByteBuffer delta = ByteBuffer.allocate(VersusProtocol.MAX_RELAYED_FRAME);
+                VersusProtocol.putRows(board, sent, delta);
+                delta.flip();
+                VersusProtocol.applyRows(delta, copy);
+                assertFalse(delta.hasRemaining(), columns + " columns: delta not read to its end");
+                assertArrayEquals(board, copy, columns + " columns, step " + step);
+                assertArrayEquals(board, sent, columns + " columns, step " + step);
+            }
+        }
+    }
+
+    @Test
+    void unchangedBoardSendsNoRows() {
+        int[][] board = new int[4][5];
+        board[3][4] = 7;
+        int[][] sent = new int[4][5];
+        VersusProtocol.putRows(board, sent, ByteBuffer.allocate(64));
+
+        ByteBuffer delta = ByteBuffer.allocate(64);
+        assertEquals(0, VersusProtocol.putRows(board, sent, delta));
+        assertEquals(1 + 2, delta.position());
+    }
+
+    @Test
+    void largeDeltaIsSplitAcrossFrames() {
+        int rows = 300;
+        int columns = VersusProtocol.MAX_COLUMNS;
+        Random random = new Random(1);
+        int[][] board = new int[rows][columns];
+        for (int[] row : board) {
+            for (int column = 0; column < columns; column++) {
+                row[column] = 1 + random.nextInt(8);
+            }
+        }
+        int[][] sent = new int[rows][columns];
+        int[][] copy = new int[rows][columns];
+        int frames = 0;
+        while (true) {
+            ByteBuffer frame = ByteBuffer.allocate(2 + VersusProtocol.MAX_RELAYED_FRAME);
+            VersusProtocol.begin(frame, VersusProtocol.ROWS);
+            if (VersusProtocol.putRows(board, sent, frame) == 0) {
+                break;
+            }
+            VersusProtocol.end(frame);
+            int length = frame.getShort() & 0xFFFF;
+            assertTrue(length + VersusProtocol.RELAY_PREFIX <= VersusProtocol.MAX_FRAME, "frame of " + length);
+            assertEquals(VersusProtocol.ROWS, frame.get());
+            VersusProtocol.applyRows(frame, copy);
+            frames++;
+        }
+        assertTrue(frames > 1);
+        assertArrayEquals(board, copy);
+    }
+
+    @Test
+    void varIntsRoundTrip() {
+        int[] values = {0, 1, 127, 128, 300, 16_383, 16_384, 2_097_151, 2_097_152, Integer.MAX_VALUE, -1};
+        for (int value : values) {
+            ByteBuffer buffer = ByteBuffer.allocate(8);
+            VersusProtocol.putVarInt(buffer, value);
+            assertEquals(VersusProtocol.varIntSize(value), buffer.position(), "size of " + value);
+            buffer.flip();
+            assertEquals(value, VersusProtocol.getVarInt(buffer));
+            assertFalse(buffer.hasRemaining());
+        }
+    }
+
+    @Test
+    void malformedInputIsRejected() {
+        ByteBuffer tooLong = ByteBuffer.wrap(new byte[] {-1, -1, -1, -1, -1, 1});
+        assertThrows(IllegalArgumentException.class, () -> VersusProtocol.getVarInt(tooLong));
+
+        int[][] board = new int[4][6];
+        ByteBuffer delta = ByteBuffer.allocate(64);
+        VersusProtocol.putRows(new int[][] {{1, 2, 3, 4, 5}}, new int[1][5], delta);
+        assertThrows(IllegalArgumentException.class, () -> VersusProtocol.applyRows(delta.flip(), board));
+
+        ByteBuffer outOfRange = ByteBuffer.allocate(64);
+        int[][] tall = new int[8][6];
+        tall[7][0] = 1;
+        VersusProtocol.putRows(tall, new int[8][6], outOfRange);
+        assertThrows(IllegalArgumentException.class, () -> VersusProtocol.applyRows(outOfRange.flip(), board));
+
+        // A row index that decodes to a negative value
+        ByteBuffer negative = ByteBuffer.allocate(64);
+        VersusProtocol.putVarInt(negative, 6);
+        negative.putShort((short) 1);
+        VersusProtocol.putVarInt(negative, -1);
+        negative.put(new byte[3]);
+        assertThrows(IllegalArgumentException.class, () -> VersusProtocol.applyRows(negative.flip(), board));
+    }
+
+    @Test
+    void oversizedFrameIsRejected() {
+        ByteBuffer wire = ByteBuffer.allocate(2);
+        wire.putShort(0, (short) (VersusProtocol.MAX_FRAME + 1));
+        ByteBuffer buffer = ByteBuffer.allocate(VersusProtocol.MAX_FRAME);
+        assertThrows(IOException.class, () -> VersusProtocol.read(new BufferChannel(wire), buffer));
+    }
+
+    @Test
+    void supportedBoardSizes() {
+        assertTrue(VersusProtocol.isSupported(25, 10));
+        assertTrue(VersusProtocol.isSupported(VersusProtocol.MAX_ROWS, VersusProtocol.MAX_COLUMNS));
+        assertFalse(VersusProtocol.isSupported(25, VersusProtocol.MAX_COLUMNS + 1));
+        assertFalse(VersusProtocol.isSupported(VersusProtocol.MAX_ROWS + 1, 10));
+        assertFalse(VersusProtocol.isSupported(0, 10));
+    }
+
+    /** A channel reading from a buffer. */
+    private static final class BufferChannel implements ByteChannel {
+        private final ByteBuffer in;
+
+        BufferChannel(ByteBuffer in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) {
+            if (!in.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(dst.remaining(), in.remaining());
+            dst.put(in.slice(in.position(), n));
+            in.position(in.position() + n);
+            return n;
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() { }
+    }
+}